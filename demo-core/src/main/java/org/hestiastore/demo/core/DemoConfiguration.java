@@ -8,7 +8,9 @@ public final class DemoConfiguration {
     private final long targetKeys;
     private final double gteRatio;
     private final double putRatio;
+    private final double updateRatio;
     private final double deleteRatio;
+    private final double gteHitTarget;
 
     private final Integer maxNumberOfKeysInSegmentCache;
     private final Integer maxNumberOfKeysInSegmentWriteCache;
@@ -44,7 +46,9 @@ public final class DemoConfiguration {
             long targetKeys,
             double gteRatio,
             double putRatio,
+            double updateRatio,
             double deleteRatio,
+            double gteHitTarget,
             Integer maxNumberOfKeysInSegmentCache,
             Integer maxNumberOfKeysInSegmentWriteCache,
             Integer maxNumberOfKeysInSegmentWriteCacheDuringMaintenance,
@@ -75,7 +79,9 @@ public final class DemoConfiguration {
         this.targetKeys = targetKeys;
         this.gteRatio = gteRatio;
         this.putRatio = putRatio;
+        this.updateRatio = updateRatio;
         this.deleteRatio = deleteRatio;
+        this.gteHitTarget = gteHitTarget;
         this.maxNumberOfKeysInSegmentCache = maxNumberOfKeysInSegmentCache;
         this.maxNumberOfKeysInSegmentWriteCache = maxNumberOfKeysInSegmentWriteCache;
         this.maxNumberOfKeysInSegmentWriteCacheDuringMaintenance = maxNumberOfKeysInSegmentWriteCacheDuringMaintenance;
@@ -103,13 +109,23 @@ public final class DemoConfiguration {
         this.contextLoggingEnabled = contextLoggingEnabled;
     }
 
-    public static DemoConfiguration defaults(int threads, long targetKeys, double gteRatio, double putRatio, double deleteRatio) {
+    public static DemoConfiguration defaults(
+            int threads,
+            long targetKeys,
+            double gteRatio,
+            double putRatio,
+            double updateRatio,
+            double deleteRatio,
+            double gteHitTarget
+    ) {
         return new DemoConfiguration(
                 threads,
                 targetKeys,
                 gteRatio,
                 putRatio,
+                updateRatio,
                 deleteRatio,
+                gteHitTarget,
                 500_000,
                 250_000,
                 100_000,
@@ -139,10 +155,13 @@ public final class DemoConfiguration {
     }
 
     public void validateRatios() {
-        double sum = gteRatio + putRatio + deleteRatio;
+        double sum = gteRatio + putRatio + updateRatio + deleteRatio;
         if (Math.abs(sum - 1.0d) > 0.000_001d) {
             throw new IllegalArgumentException("Operation ratios must sum to 1.0");
         }
+        if (gteHitTarget < 0.0d || gteHitTarget > 1.0d) {
+            throw new IllegalArgumentException("GTE hit target must be within [0.0, 1.0]");
+        }
     }
 
     public int threads() {
@@ -161,10 +180,18 @@ public final class DemoConfiguration {
         return putRatio;
     }
 
+    public double updateRatio() {
+        return updateRatio;
+    }
+
     public double deleteRatio() {
         return deleteRatio;
     }
 
+    public double gteHitTarget() {
+        return gteHitTarget;
+    }
+
     public Map<String, Object> toNodeConfigMap() {
         Map<String, Object> map = new LinkedHashMap<>();
         map.put("maxNumberOfKeysInSegmentCache", maxNumberOfKeysInSegmentCache);
@@ -1,77 +1,236 @@
 package org.hestiastore.demo.core;
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class DemoMetrics {
-    private static final int LATENCY_WINDOW_SIZE = 10_000;
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
 
     private final DemoConfiguration configuration;
+    private final SteadyStateDetector steadyStateDetector;
     private final long startedAtMillis;
 
-    private final AtomicLong totalOps = new AtomicLong();
-    private final AtomicLong totalGte = new AtomicLong();
-    private final AtomicLong totalPut = new AtomicLong();
-    private final AtomicLong totalDelete = new AtomicLong();
+    private final WindowCounter ops = new WindowCounter();
+    private final WindowCounter gteOps = new WindowCounter();
+    private final WindowCounter putOps = new WindowCounter();
+    private final WindowCounter updateOps = new WindowCounter();
+    private final WindowCounter deleteOps = new WindowCounter();
 
-    private final AtomicLong windowOps = new AtomicLong();
-    private final AtomicLong windowGte = new AtomicLong();
-    private final AtomicLong windowPut = new AtomicLong();
-    private final AtomicLong windowDelete = new AtomicLong();
+    private final LongAdder bloomHits = new LongAdder();
+    private final LongAdder bloomMisses = new LongAdder();
 
-    private final AtomicLong bloomHits = new AtomicLong();
-    private final AtomicLong bloomMisses = new AtomicLong();
-
-    private final AtomicLong registryCacheHits = new AtomicLong();
-    private final AtomicLong registryCacheMisses = new AtomicLong();
-    private final AtomicLong registryCacheLoads = new AtomicLong();
-    private final AtomicLong registryCacheEvictions = new AtomicLong();
+    private final LongAdder registryCacheHits = new LongAdder();
+    private final LongAdder registryCacheMisses = new LongAdder();
+    private final LongAdder registryCacheLoads = new LongAdder();
+    private final LongAdder registryCacheEvictions = new LongAdder();
 
     private final AtomicLong keyCount = new AtomicLong();
+    private final WindowCounter logicalBytesWritten = new WindowCounter();
+    private final WindowCounter logicalBytesRead = new WindowCounter();
+    private final ValueSizeHistogram valueSizes = new ValueSizeHistogram();
+
+    private final LongAdder compressedValues = new LongAdder();
+    private final LongAdder uncompressedValues = new LongAdder();
+    private final LongAdder compressionRawBytes = new LongAdder();
+    private final LongAdder compressionStoredBytes = new LongAdder();
+    private final LongAdder compressionAttempts = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressedValues = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    private final WindowCounter verifiedRecords = new WindowCounter();
+    private final WindowCounter verifiedBytes = new WindowCounter();
+    private final LongAdder integrityFailures = new LongAdder();
+    private volatile long lastIntegrityFailureKey = -1L;
+    private final AtomicLong scrubPasses = new AtomicLong();
+    private final AtomicLong scrubPassScanned = new AtomicLong();
+    private final AtomicLong scrubPassSize = new AtomicLong();
+
+    private final WindowCounter gteHits = new WindowCounter();
+    private final WindowCounter gteMisses = new WindowCounter();
+    private final AtomicLong liveKeyIndexBytes = new AtomicLong();
 
-    private final ConcurrentLinkedQueue<Long> latencyMicrosWindow = new ConcurrentLinkedQueue<>();
+    private final LongAdder updateConflicts = new LongAdder();
+    private final LongAdder updateRetries = new LongAdder();
+    private final LongAdder updateAbandoned = new LongAdder();
+    private final LongAdder updateMisses = new LongAdder();
 
-    public DemoMetrics(DemoConfiguration configuration) {
+    private final AtomicLongArray costSamples = new AtomicLongArray(OPERATION_TYPES.length);
+    private final AtomicLongArray costAllocatedBytes = new AtomicLongArray(OPERATION_TYPES.length);
+    private final AtomicLongArray costCpuNanos = new AtomicLongArray(OPERATION_TYPES.length);
+
+    private final LatencyHistogram windowLatency = new LatencyHistogram();
+    private volatile List<SlowOperation> slowOperations = List.of();
+    private volatile StoreMemoryUsage storeMemory = new StoreMemoryUsage(0L, 0L, 0L, 0L, 0L);
+    private volatile double storeMemoryDriftPercent;
+    private volatile List<ShardStatistics> shardStatistics = List.of();
+    private volatile double shardSkew = 1.0d;
+    private volatile FrontCacheStatistics frontCache = FrontCacheStatistics.DISABLED;
+    private volatile ExpirationStatistics expiration = ExpirationStatistics.DISABLED;
+
+    public DemoMetrics(DemoConfiguration configuration, SteadyStateDetector steadyStateDetector) {
         this.configuration = configuration;
+        this.steadyStateDetector = steadyStateDetector;
         this.startedAtMillis = System.currentTimeMillis();
     }
 
     public void record(OperationType type, long latencyMicros, boolean bloomHit, boolean registryHit) {
-        totalOps.incrementAndGet();
-        windowOps.incrementAndGet();
+        ops.increment();
         switch (type) {
-            case GTE -> {
-                totalGte.incrementAndGet();
-                windowGte.incrementAndGet();
-            }
-            case PUT -> {
-                totalPut.incrementAndGet();
-                windowPut.incrementAndGet();
-            }
-            case DELETE -> {
-                totalDelete.incrementAndGet();
-                windowDelete.incrementAndGet();
-            }
+            case GTE -> gteOps.increment();
+            case PUT -> putOps.increment();
+            case UPDATE -> updateOps.increment();
+            case DELETE -> deleteOps.increment();
         }
 
         if (bloomHit) {
-            bloomHits.incrementAndGet();
+            bloomHits.increment();
         } else {
-            bloomMisses.incrementAndGet();
+            bloomMisses.increment();
         }
 
         if (registryHit) {
-            registryCacheHits.incrementAndGet();
+            registryCacheHits.increment();
         } else {
-            registryCacheMisses.incrementAndGet();
-            registryCacheLoads.incrementAndGet();
+            registryCacheMisses.increment();
+            registryCacheLoads.increment();
         }
 
-        latencyMicrosWindow.add(latencyMicros);
-        while (latencyMicrosWindow.size() > LATENCY_WINDOW_SIZE) {
-            latencyMicrosWindow.poll();
+        windowLatency.record(latencyMicros);
+    }
+
+    public long totalOps() {
+        return ops.total();
+    }
+
+    public long totalOps(OperationType type) {
+        return switch (type) {
+            case GTE -> gteOps.total();
+            case PUT -> putOps.total();
+            case UPDATE -> updateOps.total();
+            case DELETE -> deleteOps.total();
+        };
+    }
+
+    public void recordLogicalWrite(int payloadBytes) {
+        logicalBytesWritten.add(payloadBytes);
+        valueSizes.recordWrite(payloadBytes);
+    }
+
+    public void recordLogicalRead(int payloadBytes) {
+        logicalBytesRead.add(payloadBytes);
+    }
+
+    /**
+     * Files the latency of an operation that read or wrote a value under the
+     * value's size class.
+     */
+    public void recordValueLatency(int payloadBytes, long latencyMicros) {
+        valueSizes.recordLatency(payloadBytes, latencyMicros);
+    }
+
+    public void recordCompression(int rawBytes, int storedBytes, long elapsedNanos) {
+        if (storedBytes < rawBytes) {
+            compressedValues.increment();
+        } else {
+            uncompressedValues.increment();
         }
+        compressionRawBytes.add(rawBytes);
+        compressionStoredBytes.add(storedBytes);
+        compressionAttempts.increment();
+        compressNanos.add(elapsedNanos);
+    }
+
+    public void recordCompressionSkipped(int rawBytes) {
+        uncompressedValues.increment();
+        compressionRawBytes.add(rawBytes);
+        compressionStoredBytes.add(rawBytes);
+    }
+
+    public void recordDecompression(long elapsedNanos) {
+        decompressedValues.increment();
+        decompressNanos.add(elapsedNanos);
+    }
+
+    public void recordVerification(long key, int bytes, boolean valid) {
+        verifiedRecords.increment();
+        verifiedBytes.add(bytes);
+        if (!valid) {
+            integrityFailures.increment();
+            lastIntegrityFailureKey = key;
+        }
+    }
+
+    public void recordScrubProgress(long scanned, long passSize) {
+        scrubPassScanned.set(scanned);
+        scrubPassSize.set(passSize);
+    }
+
+    public void recordScrubPassCompleted(long scanned) {
+        scrubPasses.incrementAndGet();
+        scrubPassScanned.set(0L);
+        scrubPassSize.set(Math.max(1L, scanned));
+    }
+
+    public void recordGteLookup(boolean hit) {
+        if (hit) {
+            gteHits.increment();
+        } else {
+            gteMisses.increment();
+        }
+    }
+
+    public void setLiveKeyIndexBytes(long bytes) {
+        liveKeyIndexBytes.set(bytes);
+    }
+
+    public void recordUpdateRetries(int retries) {
+        updateConflicts.increment();
+        updateRetries.add(retries);
+    }
+
+    public void recordUpdateAbandoned() {
+        updateAbandoned.increment();
+    }
+
+    public void recordUpdateMiss() {
+        updateMisses.increment();
+    }
+
+    public void recordOperationCost(OperationType type, long allocatedBytes, long cpuNanos) {
+        costSamples.incrementAndGet(type.ordinal());
+        costAllocatedBytes.addAndGet(type.ordinal(), Math.max(0L, allocatedBytes));
+        costCpuNanos.addAndGet(type.ordinal(), Math.max(0L, cpuNanos));
+    }
+
+    public void setSlowOperations(List<SlowOperation> operations) {
+        slowOperations = operations;
+    }
+
+    public void setStoreMemory(StoreMemoryUsage usage) {
+        storeMemory = usage;
+    }
+
+    public void setStoreMemoryDrift(double driftPercent) {
+        storeMemoryDriftPercent = driftPercent;
+    }
+
+    public void setShardStatistics(List<ShardStatistics> statistics, double skew) {
+        this.shardStatistics = List.copyOf(statistics);
+        this.shardSkew = skew;
+    }
+
+    public void setFrontCache(FrontCacheStatistics statistics) {
+        this.frontCache = statistics;
+    }
+
+    public void setExpiration(ExpirationStatistics statistics) {
+        this.expiration = statistics;
     }
 
     public void setKeyCount(long keys) {
@@ -79,20 +238,32 @@ public final class DemoMetrics {
     }
 
     public RuntimeMetricsSnapshot snapshotAndResetWindow() {
-        long opsPerSecond = windowOps.getAndSet(0);
-        long gtePerSecond = windowGte.getAndSet(0);
-        long putPerSecond = windowPut.getAndSet(0);
-        long deletePerSecond = windowDelete.getAndSet(0);
+        long opsPerSecond = ops.takeWindow();
+        long gtePerSecond = gteOps.takeWindow();
+        long putPerSecond = putOps.takeWindow();
+        long updatePerSecond = updateOps.takeWindow();
+        long deletePerSecond = deleteOps.takeWindow();
+        long verificationsPerSecond = verifiedRecords.takeWindow();
+        long verifiedBytesPerSecond = verifiedBytes.takeWindow();
+        long gteWindowHits = gteHits.takeWindow();
+        long gteWindowMisses = gteMisses.takeWindow();
+        long readBytesPerSecond = logicalBytesRead.takeWindow();
+        long writeBytesPerSecond = logicalBytesWritten.takeWindow();
 
-        double[] latencyStats = latencyStats();
+        long[] latencyHistogram = windowLatency.snapshotAndReset();
+        long latencyTotalMicros = windowLatency.takeTotalMicros();
+        long latencySamples = LatencyHistogram.count(latencyHistogram);
+        double avgLatencyMs = latencySamples == 0L ? 0.0d : latencyTotalMicros / 1000.0d / latencySamples;
+        SteadyStateStatistics steadyState = steadyStateDetector.onWindow(
+                opsPerSecond, latencyHistogram, latencyTotalMicros, System.currentTimeMillis());
 
-        long hits = bloomHits.get();
-        long misses = bloomMisses.get();
+        long hits = bloomHits.sum();
+        long misses = bloomMisses.sum();
         long bloomTotal = Math.max(1L, hits + misses);
         double bloomHitRatio = hits * 100.0d / bloomTotal;
 
-        long rcHits = registryCacheHits.get();
-        long rcMisses = registryCacheMisses.get();
+        long rcHits = registryCacheHits.sum();
+        long rcMisses = registryCacheMisses.sum();
         long rcTotal = Math.max(1L, rcHits + rcMisses);
         double registryHitRatio = rcHits * 100.0d / rcTotal;
 
@@ -100,20 +271,37 @@ public final class DemoMetrics {
         long rcCurrent = Math.min(rcMax, Math.max(1L, keyCount.get() / 100_000L));
         double rcFill = Math.min(100.0d, (rcCurrent * 100.0d) / Math.max(1L, rcMax));
 
+        long rawBytes = compressionRawBytes.sum();
+        long storedBytes = compressionStoredBytes.sum();
+        double compressionRatio = storedBytes == 0L ? 1.0d : rawBytes / (double) storedBytes;
+        long attempts = compressionAttempts.sum();
+        long decompressed = decompressedValues.sum();
+        double compressMicros = attempts == 0L ? 0.0d : compressNanos.sum() / 1000.0d / attempts;
+        double decompressMicros = decompressed == 0L ? 0.0d : decompressNanos.sum() / 1000.0d / decompressed;
+
+        StoreMemoryUsage memory = storeMemory;
+
+        double gteHitRatio = gteWindowHits * 100.0d / Math.max(1L, gteWindowHits + gteWindowMisses);
+
+        long passSize = scrubPassSize.get();
+        double scrubProgress = passSize == 0L ? 0.0d : Math.min(100.0d, scrubPassScanned.get() * 100.0d / passSize);
+
         return new RuntimeMetricsSnapshot(
                 Math.max(1L, (System.currentTimeMillis() - startedAtMillis) / 1000L),
-                totalOps.get(),
-                totalGte.get(),
-                totalPut.get(),
-                totalDelete.get(),
+                ops.total(),
+                gteOps.total(),
+                putOps.total(),
+                updateOps.total(),
+                deleteOps.total(),
                 opsPerSecond,
                 gtePerSecond,
                 putPerSecond,
+                updatePerSecond,
                 deletePerSecond,
-                latencyStats[0],
-                latencyStats[1],
-                latencyStats[2],
-                latencyStats[3],
+                avgLatencyMs,
+                LatencyHistogram.percentileMicros(latencyHistogram, 0.50d) / 1000.0d,
+                LatencyHistogram.percentileMicros(latencyHistogram, 0.95d) / 1000.0d,
+                LatencyHistogram.percentileMicros(latencyHistogram, 0.99d) / 1000.0d,
                 keyCount.get(),
                 (Integer) configuration.toNodeConfigMap().get("bloomFilterIndexSizeInBytes"),
                 hits,
@@ -121,36 +309,84 @@ public final class DemoMetrics {
                 bloomHitRatio,
                 rcHits,
                 rcMisses,
-                registryCacheLoads.get(),
-                registryCacheEvictions.get(),
+                registryCacheLoads.sum(),
+                registryCacheEvictions.sum(),
                 rcCurrent,
                 rcMax,
                 registryHitRatio,
                 rcFill,
+                compressedValues.sum(),
+                uncompressedValues.sum(),
+                compressionRatio,
+                rawBytes - storedBytes,
+                TimeUnit.NANOSECONDS.toMillis(compressNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(decompressNanos.sum()),
+                compressMicros,
+                decompressMicros,
+                verifiedRecords.total(),
+                verifiedBytes.total(),
+                verificationsPerSecond,
+                verifiedBytesPerSecond,
+                integrityFailures.sum(),
+                lastIntegrityFailureKey,
+                scrubPasses.get(),
+                scrubProgress,
+                updateConflicts.sum(),
+                updateRetries.sum(),
+                updateAbandoned.sum(),
+                updateMisses.sum(),
+                gteHits.total(),
+                gteMisses.total(),
+                gteHitRatio,
+                configuration.gteHitTarget() * 100.0d,
+                liveKeyIndexBytes.get(),
+                logicalBytesWritten.total(),
+                logicalBytesRead.total(),
+                readBytesPerSecond,
+                writeBytesPerSecond,
+                memory.residentBytes(),
+                memory.payloadBytes(),
+                memory.overheadBytes(),
+                memory.bytesPerKey(),
+                memory.payloadRatio(),
+                storeMemoryDriftPercent,
+                latencyHistogram,
+                slowOperations,
+                operationCosts(),
+                singleShardServesAll(shardStatistics, opsPerSecond),
+                shardSkew,
+                frontCache,
+                expiration,
+                steadyState,
+                valueSizes.snapshotAndResetWindow(),
                 configuration.toNodeConfigMap()
         );
     }
 
-    private double[] latencyStats() {
-        if (latencyMicrosWindow.isEmpty()) {
-            return new double[] {0.0d, 0.0d, 0.0d, 0.0d};
+    /**
+     * A single shard is not counted on the worker path; it served every
+     * operation of the window.
+     */
+    private static List<ShardStatistics> singleShardServesAll(List<ShardStatistics> shards, long opsPerSecond) {
+        if (shards.size() != 1) {
+            return shards;
         }
-
-        long[] values = latencyMicrosWindow.stream().mapToLong(Long::longValue).sorted().toArray();
-        double avgMicros = java.util.Arrays.stream(values).average().orElse(0.0d);
-        double p50 = percentile(values, 0.50d);
-        double p95 = percentile(values, 0.95d);
-        double p99 = percentile(values, 0.99d);
-        return new double[] {avgMicros / 1000.0d, p50 / 1000.0d, p95 / 1000.0d, p99 / 1000.0d};
+        return List.of(new ShardStatistics(0, opsPerSecond, shards.get(0).keyCount(), 100.0d));
     }
 
-    private double percentile(long[] values, double percentile) {
-        if (values.length == 0) {
-            return 0.0d;
+    private Map<OperationType, OperationCost> operationCosts() {
+        Map<OperationType, OperationCost> costs = new EnumMap<>(OperationType.class);
+        for (OperationType type : OPERATION_TYPES) {
+            long samples = costSamples.getAndSet(type.ordinal(), 0L);
+            long bytes = costAllocatedBytes.getAndSet(type.ordinal(), 0L);
+            long cpuNanos = costCpuNanos.getAndSet(type.ordinal(), 0L);
+            costs.put(type, new OperationCost(
+                    samples,
+                    samples == 0L ? 0.0d : bytes / (double) samples,
+                    samples == 0L ? 0.0d : cpuNanos / 1000.0d / samples
+            ));
         }
-        int index = (int) Math.ceil(percentile * values.length) - 1;
-        index = Math.max(0, Math.min(values.length - 1, index));
-        return values[index];
+        return costs;
     }
 
     public Map<String, Object> nodeConfig() {
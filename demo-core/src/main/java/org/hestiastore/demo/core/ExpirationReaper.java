@@ -0,0 +1,201 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Assigns TTLs to new records and reclaims them once expired. Workers hand
+ * each deadline to one of several striped inboxes; a single maintenance
+ * thread drains the inboxes into a {@link TimingWheel} once per tick and
+ * removes the keys that came due as one batch, so no part of the store is
+ * ever scanned. A key is only removed if its current record still carries the
+ * deadline that was filed, which makes updates and deletes safe to race.
+ */
+public final class ExpirationReaper {
+    private static final int INBOX_STRIPES = 64;
+
+    private final ShardedStore store;
+    private final FrontCache frontCache;
+    private final double ttlRatio;
+    private final TtlDistribution distribution;
+    private final long meanTtlMillis;
+    private final long tickMillis;
+    private final Inbox[] inboxes = new Inbox[INBOX_STRIPES];
+    private final TimingWheel wheel;
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final LongAdder pending = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder expiredReads = new LongAdder();
+    private final AtomicLong maxReclaimLagMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * @param frontCache cache to invalidate on reclamation, or {@code null}
+     * @param ttlRatio fraction of PUTs that get a TTL
+     */
+    public ExpirationReaper(
+            ShardedStore store,
+            FrontCache frontCache,
+            double ttlRatio,
+            TtlDistribution distribution,
+            long meanTtlMillis,
+            long tickMillis
+    ) {
+        if (ttlRatio < 0.0d || ttlRatio > 1.0d) {
+            throw new IllegalArgumentException("TTL ratio must be within [0.0, 1.0]");
+        }
+        if (meanTtlMillis <= 0L) {
+            throw new IllegalArgumentException("Mean TTL must be positive");
+        }
+        this.store = store;
+        this.frontCache = frontCache;
+        this.ttlRatio = ttlRatio;
+        this.distribution = distribution;
+        this.meanTtlMillis = meanTtlMillis;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+        for (int i = 0; i < INBOX_STRIPES; i++) {
+            inboxes[i] = new Inbox();
+        }
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::reapLoop, "expiration-reaper");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Draws the expiry of a record written now, or {@link ValueRecord#NO_EXPIRY}.
+     */
+    public long nextExpiresAt(long nowMillis) {
+        if (ttlRatio <= 0.0d || ThreadLocalRandom.current().nextDouble() >= ttlRatio) {
+            return ValueRecord.NO_EXPIRY;
+        }
+        return nowMillis + Math.max(1L, distribution.sampleMillis(meanTtlMillis));
+    }
+
+    public void schedule(long key, long expiresAtMillis) {
+        inboxes[(int) (Thread.currentThread().threadId() & (INBOX_STRIPES - 1))].add(key, expiresAtMillis);
+        pending.increment();
+    }
+
+    /**
+     * Files the deadlines of records the workload did not write, such as
+     * ones restored from a backup, and removes those whose TTL has already
+     * passed.
+     *
+     * @return records scheduled
+     */
+    public long scheduleLoaded(long nowMillis) {
+        long count = 0L;
+        for (Map.Entry<Long, ValueRecord> entry : store.entries()) {
+            ValueRecord record = entry.getValue();
+            if (!record.expires()) {
+                continue;
+            }
+            if (record.isExpired(nowMillis)) {
+                store.remove(entry.getKey(), record);
+            } else {
+                schedule(entry.getKey(), record.expiresAtMillis());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void recordExpiredRead() {
+        expiredReads.increment();
+    }
+
+    public ExpirationStatistics snapshotAndResetWindow() {
+        return new ExpirationStatistics(
+                true,
+                scheduled.get(),
+                pending.sum(),
+                expired.sumThenReset(),
+                expiredReads.sumThenReset(),
+                maxReclaimLagMillis.getAndSet(0L));
+    }
+
+    private void reapLoop() {
+        long[] keys = new long[0];
+        long[] deadlines = new long[0];
+        while (running) {
+            for (Inbox inbox : inboxes) {
+                int count;
+                synchronized (inbox) {
+                    count = inbox.size;
+                    if (count > keys.length) {
+                        keys = new long[Math.max(count, keys.length * 2)];
+                        deadlines = new long[keys.length];
+                    }
+                    System.arraycopy(inbox.keys, 0, keys, 0, count);
+                    System.arraycopy(inbox.deadlines, 0, deadlines, 0, count);
+                    inbox.size = 0;
+                }
+                for (int i = 0; i < count; i++) {
+                    wheel.schedule(keys[i], deadlines[i]);
+                }
+                pending.add(-count);
+            }
+            long nowMillis = System.currentTimeMillis();
+            wheel.advance(nowMillis, (key, deadline) -> reclaim(key, deadline, nowMillis));
+            scheduled.set(wheel.size());
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void reclaim(long key, long deadlineMillis, long nowMillis) {
+        ValueRecord record = store.get(key);
+        if (record == null || record.expiresAtMillis() != deadlineMillis || !store.remove(key, record)) {
+            return;
+        }
+        if (frontCache != null) {
+            frontCache.invalidate(key);
+        }
+        expired.increment();
+        maxReclaimLagMillis.accumulateAndGet(nowMillis - deadlineMillis, Math::max);
+    }
+
+    private static final class Inbox {
+        private long[] keys = new long[64];
+        private long[] deadlines = new long[64];
+        private int size;
+
+        private synchronized void add(long key, long deadlineMillis) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            keys[size] = key;
+            deadlines[size] = deadlineMillis;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.hestiastore.demo.core;
+
+/**
+ * TTL expiry activity of one snapshot window.
+ *
+ * @param scheduled entries waiting in the timing wheel
+ * @param pending entries handed over by workers but not yet filed in the wheel
+ * @param expiredReadsPerSecond reads that found an expired record not yet reclaimed
+ * @param maxReclaimLagMillis longest delay between a deadline and its reclamation
+ */
+public record ExpirationStatistics(
+        boolean enabled,
+        long scheduled,
+        long pending,
+        long expiredPerSecond,
+        long expiredReadsPerSecond,
+        long maxReclaimLagMillis
+) {
+    static final ExpirationStatistics DISABLED = new ExpirationStatistics(false, 0L, 0L, 0L, 0L, 0L);
+}
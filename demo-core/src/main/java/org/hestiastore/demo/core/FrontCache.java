@@ -0,0 +1,252 @@
+package org.hestiastore.demo.core;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Read cache in front of the store with S3-FIFO eviction: new keys enter a
+ * small FIFO holding about a tenth of the entries, keys read again before they
+ * leave it are promoted to the main FIFO, the rest leave only their key in a
+ * ghost queue so a quick return goes straight to main. Main entries are
+ * re-queued while their two-bit frequency lasts. Hits only bump that
+ * frequency and never take the lock; admission and eviction do.
+ *
+ * <p>Writers keep it coherent without locking readers out: updates replace a
+ * cached value only with a higher version, deletes invalidate, and a loader
+ * that raced with a writer re-reads the store after admitting and drops what
+ * it admitted if the store moved on.
+ */
+public final class FrontCache {
+    private static final int MAX_FREQUENCY = 3;
+    private static final int SMALL_QUEUE_PERCENT = 10;
+    private static final int MIN_GHOST_ENTRIES = 1024;
+
+    private final long maxEntries;
+    private final long maxBytes;
+    private final ObjectLayout layout = ObjectLayout.CURRENT;
+    private final ConcurrentHashMap<Long, Node> nodes = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ArrayDeque<Node> small = new ArrayDeque<>();
+    private final ArrayDeque<Node> main = new ArrayDeque<>();
+    private final Map<Long, Boolean> ghost;
+    private final AtomicLong recordBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries entry bound, 0 for none
+     * @param maxBytes bound on cached record bytes, 0 for none
+     */
+    public FrontCache(long maxEntries, long maxBytes) {
+        if (maxEntries < 0L || maxBytes < 0L || (maxEntries == 0L && maxBytes == 0L)) {
+            throw new IllegalArgumentException("Front cache needs a positive entry or byte bound");
+        }
+        this.maxEntries = maxEntries == 0L ? Long.MAX_VALUE : maxEntries;
+        this.maxBytes = maxBytes == 0L ? Long.MAX_VALUE : maxBytes;
+        this.ghost = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > Math.max(MIN_GHOST_ENTRIES, Math.min(FrontCache.this.maxEntries, main.size()));
+            }
+        };
+    }
+
+    /**
+     * Returns the cached record or loads, admits and returns it. The loader
+     * runs a second time after admission to catch a concurrent write.
+     */
+    public ValueRecord get(long key, LongFunction<ValueRecord> loader) {
+        Node node = nodes.get(key);
+        if (node != null) {
+            node.touch();
+            hits.increment();
+            return node.value;
+        }
+        misses.increment();
+        ValueRecord record = loader.apply(key);
+        if (record != null && admit(key, record, false) && loader.apply(key) != record) {
+            invalidate(key);
+        }
+        return record;
+    }
+
+    /**
+     * Loads a key known to be hot straight into the main queue, as if it had
+     * already earned its promotion; used to pre-warm the cache on restart.
+     * Preloads count as neither hits nor misses.
+     *
+     * @return whether the key exists and was admitted
+     */
+    public boolean preload(long key, LongFunction<ValueRecord> loader) {
+        ValueRecord record = loader.apply(key);
+        if (record == null || !admit(key, record, true)) {
+            return false;
+        }
+        if (loader.apply(key) != record) {
+            invalidate(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Write-through: replaces a cached record with a newer version; keys that
+     * are not cached stay uncached.
+     */
+    public void writeThrough(long key, ValueRecord record) {
+        Node node = nodes.get(key);
+        if (node == null) {
+            return;
+        }
+        synchronized (node) {
+            if (!node.removed && record.version() > node.value.version()) {
+                recordBytes.addAndGet(layout.recordBytes(record) - layout.recordBytes(node.value));
+                node.value = record;
+            }
+        }
+    }
+
+    public void invalidate(long key) {
+        Node node = nodes.remove(key);
+        if (node != null) {
+            release(node);
+        }
+    }
+
+    /**
+     * Window hit ratio and eviction rate, current size and footprint.
+     */
+    public FrontCacheStatistics snapshotAndResetWindow() {
+        long windowHits = hits.sumThenReset();
+        long windowMisses = misses.sumThenReset();
+        return new FrontCacheStatistics(
+                true,
+                nodes.size(),
+                memoryBytes(),
+                windowHits,
+                windowMisses,
+                windowHits * 100.0d / Math.max(1L, windowHits + windowMisses),
+                evictions.sumThenReset());
+    }
+
+    public long memoryBytes() {
+        int ghostEntries;
+        int queued;
+        evictionLock.lock();
+        try {
+            ghostEntries = ghost.size();
+            queued = small.size() + main.size();
+        } finally {
+            evictionLock.unlock();
+        }
+        return recordBytes.get()
+                + queued * layout.frontCacheNodeBytes()
+                + ghostEntries * layout.linkedMapEntryBytes()
+                + layout.mapTableBytes(nodes.size());
+    }
+
+    private boolean admit(long key, ValueRecord record, boolean hot) {
+        evictionLock.lock();
+        try {
+            if (nodes.containsKey(key)) {
+                return false;
+            }
+            Node node = new Node(key, record);
+            boolean returning = ghost.remove(key) != null;
+            (returning || hot ? main : small).addLast(node);
+            nodes.put(key, node);
+            recordBytes.addAndGet(layout.recordBytes(record));
+            evictWhileOverBounds();
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Queued nodes count against the entry bound even when already
+     * invalidated, which bounds the queues without removing from their middle.
+     */
+    private void evictWhileOverBounds() {
+        while (small.size() + main.size() > maxEntries || recordBytes.get() > maxBytes) {
+            long smallTarget = Math.max(1L, (small.size() + main.size()) * SMALL_QUEUE_PERCENT / 100L);
+            if (!small.isEmpty() && (small.size() >= smallTarget || main.isEmpty())) {
+                evictFromSmall();
+            } else if (!main.isEmpty()) {
+                evictFromMain();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void evictFromSmall() {
+        Node node = small.pollFirst();
+        if (node.removed) {
+            return;
+        }
+        if (node.frequency > 0) {
+            node.frequency = 0;
+            main.addLast(node);
+            return;
+        }
+        if (evict(node)) {
+            ghost.put(node.key, Boolean.TRUE);
+        }
+    }
+
+    private void evictFromMain() {
+        Node node = main.pollFirst();
+        if (node.removed) {
+            return;
+        }
+        if (node.frequency > 0) {
+            node.frequency--;
+            main.addLast(node);
+            return;
+        }
+        evict(node);
+    }
+
+    private boolean evict(Node node) {
+        if (!nodes.remove(node.key, node)) {
+            return false;
+        }
+        release(node);
+        evictions.increment();
+        return true;
+    }
+
+    private void release(Node node) {
+        synchronized (node) {
+            node.removed = true;
+            recordBytes.addAndGet(-layout.recordBytes(node.value));
+        }
+    }
+
+    private static final class Node {
+        private final long key;
+        private volatile ValueRecord value;
+        private volatile int frequency;
+        private volatile boolean removed;
+
+        private Node(long key, ValueRecord value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        private void touch() {
+            int current = frequency;
+            if (current < MAX_FREQUENCY) {
+                frequency = current + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Front cache state for one snapshot window. Hit ratio and evictions cover
+ * the window; entries and bytes are current.
+ */
+public record FrontCacheStatistics(
+        boolean enabled,
+        long entries,
+        long memoryBytes,
+        long hits,
+        long misses,
+        double hitRatio,
+        long evictionsPerSecond
+) {
+    static final FrontCacheStatistics DISABLED = new FrontCacheStatistics(false, 0L, 0L, 0L, 0L, 0.0d, 0L);
+}
@@ -0,0 +1,83 @@
+package org.hestiastore.demo.core;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the most recent garbage collections (start/end in JVM uptime
+ * millis) from GC notifications, so captured operations can be checked for
+ * overlap with a collection after the fact. Notifications arrive shortly after
+ * the collection ends, hence the lookup is done when a window is published
+ * rather than when the operation completes.
+ */
+public final class GcPauseTracker implements NotificationListener {
+    private static final int CAPACITY = 256;
+
+    private final long[] starts = new long[CAPACITY];
+    private final long[] ends = new long[CAPACITY];
+    private final AtomicLong collections = new AtomicLong();
+    private final long jvmStartEpochMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    public static GcPauseTracker install() {
+        GcPauseTracker tracker = new GcPauseTracker();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(tracker, null, null);
+            }
+        }
+        return tracker;
+    }
+
+    public void uninstall() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException ignored) {
+                    // Not registered on this collector.
+                }
+            }
+        }
+    }
+
+    public long collections() {
+        return collections.get();
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GcInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+        int slot = (int) (collections.get() % CAPACITY);
+        starts[slot] = info.getStartTime();
+        ends[slot] = info.getEndTime();
+        collections.incrementAndGet();
+    }
+
+    /**
+     * Returns whether any remembered collection intersects the given wall-clock span.
+     */
+    public boolean overlaps(long fromEpochMillis, long toEpochMillis) {
+        long from = fromEpochMillis - jvmStartEpochMillis;
+        long to = toEpochMillis - jvmStartEpochMillis;
+        long count = collections.get();
+        for (long i = Math.max(0L, count - CAPACITY); i < count; i++) {
+            int slot = (int) (i % CAPACITY);
+            if (starts[slot] <= to && ends[slot] >= from) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
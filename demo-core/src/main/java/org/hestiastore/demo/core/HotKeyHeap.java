@@ -0,0 +1,142 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded min-heap of key counts with a key-to-slot index, so admitting,
+ * raising or evicting a key is O(log K) and the coldest count is read in
+ * O(1). Not thread-safe; {@link HotKeyTracker} guards it.
+ */
+final class HotKeyHeap {
+    private final int capacity;
+    private final long[] keys;
+    private final int[] counts;
+    private final Map<Long, Integer> slots;
+    private int size;
+
+    HotKeyHeap(int capacity) {
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+        this.slots = new HashMap<>(capacity * 2);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * @return the smallest count held, 0 when empty
+     */
+    int minCount() {
+        return size == 0 ? 0 : counts[0];
+    }
+
+    /**
+     * Raises a held key to {@code count}, or admits a new key when there is
+     * room or it beats the coldest one, which is then evicted.
+     */
+    void offer(long key, int count) {
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            if (count > counts[slot]) {
+                counts[slot] = count;
+                siftDown(slot);
+            }
+            return;
+        }
+        if (size < capacity) {
+            place(size, key, count);
+            size++;
+            siftUp(size - 1);
+            return;
+        }
+        if (count <= counts[0]) {
+            return;
+        }
+        slots.remove(keys[0]);
+        place(0, key, count);
+        siftDown(0);
+    }
+
+    /**
+     * Halves every count and drops keys that reach zero.
+     */
+    void halve() {
+        int kept = 0;
+        slots.clear();
+        for (int i = 0; i < size; i++) {
+            int count = counts[i] >>> 1;
+            if (count > 0) {
+                place(kept++, keys[i], count);
+            }
+        }
+        size = kept;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Returns the held keys, highest count first.
+     */
+    long[] keysByCountDescending() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer slot) -> counts[slot]).reversed());
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = keys[order[i]];
+        }
+        return sorted;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && counts[right] < counts[left] ? right : left;
+            if (counts[slot] <= counts[smallest]) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        long key = keys[first];
+        int count = counts[first];
+        place(first, keys[second], counts[second]);
+        place(second, key, count);
+    }
+
+    private void place(int slot, long key, int count) {
+        keys[slot] = key;
+        counts[slot] = count;
+        slots.put(key, slot);
+    }
+}
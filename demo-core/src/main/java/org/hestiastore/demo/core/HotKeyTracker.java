@@ -0,0 +1,75 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximates the hottest GTE keys: a sampled fraction of reads increments
+ * a count-min sketch, and keys whose estimate beats the coldest member of the
+ * top K replace it in an indexed min-heap. Workers only take the lock for
+ * sampled reads of keys that are already hot enough to matter, and then for
+ * O(log K). {@link #decay()} halves every count so the hot set follows the
+ * current traffic instead of the whole run.
+ */
+public final class HotKeyTracker {
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1 << 15;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final double sampleRate;
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(DEPTH * WIDTH);
+    private final HotKeyHeap top;
+    private volatile int admissionThreshold;
+
+    public HotKeyTracker(int topK, double sampleRate) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Hot set size must be positive");
+        }
+        if (sampleRate <= 0.0d || sampleRate > 1.0d) {
+            throw new IllegalArgumentException("Hot key sample rate must be within (0.0, 1.0]");
+        }
+        this.sampleRate = sampleRate;
+        this.top = new HotKeyHeap(topK);
+    }
+
+    public void record(long key) {
+        if (sampleRate < 1.0d && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(row * WIDTH + column(key, row)));
+        }
+        if (estimate > admissionThreshold) {
+            offer(key, estimate);
+        }
+    }
+
+    /**
+     * Returns the hot set, hottest first.
+     */
+    public synchronized long[] topKeys() {
+        return top.keysByCountDescending();
+    }
+
+    public synchronized void decay() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, counts.get(i) >>> 1);
+        }
+        top.halve();
+        admissionThreshold = top.isFull() ? top.minCount() : 0;
+    }
+
+    private synchronized void offer(long key, int estimate) {
+        top.offer(key, estimate);
+        admissionThreshold = top.isFull() ? top.minCount() : 0;
+    }
+
+    private static int column(long key, int row) {
+        long hash = (key ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) (hash & (WIDTH - 1));
+    }
+}
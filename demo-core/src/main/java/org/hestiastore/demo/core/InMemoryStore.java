@@ -1,14 +1,50 @@
 package org.hestiastore.demo.core;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * One key-value partition. A standalone store owns the whole key space; as a
+ * shard of {@link ShardedStore} it owns the keys congruent to {@code shard}
+ * modulo {@code shards}, allocates only those and indexes them by
+ * {@code key / shards} so its live-key bitmap stays dense.
+ *
+ * <p>Writes pass a {@link SnapshotGate} shared by all shards of a store; while
+ * a {@link StoreSnapshot} is open they switch from plain map operations to
+ * atomic compute calls that hand the replaced record to the snapshot.
+ */
 public final class InMemoryStore {
+    private final int shard;
+    private final int shards;
+    private final SnapshotGate gate;
     private final ConcurrentMap<Long, ValueRecord> map = new ConcurrentHashMap<>();
     private final AtomicLong nextKey = new AtomicLong();
+    private final LiveKeyBitmap liveKeys = new LiveKeyBitmap();
+    private final ObjectLayout layout = ObjectLayout.CURRENT;
+    private final LongAdder recordBytes = new LongAdder();
+    private final LongAdder payloadBytes = new LongAdder();
 
     public InMemoryStore(long initialKeys) {
+        this(initialKeys, 0, 1);
+    }
+
+    /**
+     * @param initialKeys keys already allocated in this partition
+     */
+    public InMemoryStore(long initialKeys, int shard, int shards) {
+        this(initialKeys, shard, shards, new SnapshotGate());
+    }
+
+    InMemoryStore(long initialKeys, int shard, int shards, SnapshotGate gate) {
+        if (shards < 1 || shard < 0 || shard >= shards) {
+            throw new IllegalArgumentException("Shard " + shard + " is outside [0, " + shards + ")");
+        }
+        this.shard = shard;
+        this.shards = shards;
+        this.gate = gate;
         nextKey.set(initialKeys);
     }
 
@@ -17,30 +53,193 @@ public final class InMemoryStore {
     }
 
     public void put(long key, ValueRecord value) {
-        map.put(key, value);
+        long epoch = gate.enter();
+        try {
+            StoreSnapshot snapshot = gate.snapshot(epoch);
+            ValueRecord previous = snapshot == null
+                    ? map.put(key, value)
+                    : writePreserving(snapshot, key, null, value);
+            if (previous == null) {
+                liveKeys.set(localKey(key));
+            } else {
+                release(previous);
+            }
+            account(value);
+        } finally {
+            gate.exit(epoch);
+        }
+    }
+
+    /**
+     * Replaces the record only if it is still the one the caller read.
+     */
+    public boolean compareAndSet(long key, ValueRecord expected, ValueRecord updated) {
+        long epoch = gate.enter();
+        try {
+            StoreSnapshot snapshot = gate.snapshot(epoch);
+            boolean replaced = snapshot == null
+                    ? map.replace(key, expected, updated)
+                    : writePreserving(snapshot, key, expected, updated) != null;
+            if (!replaced) {
+                return false;
+            }
+            release(expected);
+            account(updated);
+            return true;
+        } finally {
+            gate.exit(epoch);
+        }
     }
 
     public ValueRecord delete(long key) {
-        return map.remove(key);
+        long epoch = gate.enter();
+        try {
+            StoreSnapshot snapshot = gate.snapshot(epoch);
+            ValueRecord removed = snapshot == null
+                    ? map.remove(key)
+                    : writePreserving(snapshot, key, null, null);
+            if (removed != null) {
+                liveKeys.clear(localKey(key));
+                release(removed);
+            }
+            return removed;
+        } finally {
+            gate.exit(epoch);
+        }
+    }
+
+    /**
+     * Removes the record only if it is still the one the caller read.
+     */
+    public boolean remove(long key, ValueRecord expected) {
+        long epoch = gate.enter();
+        try {
+            StoreSnapshot snapshot = gate.snapshot(epoch);
+            boolean removed = snapshot == null
+                    ? map.remove(key, expected)
+                    : writePreserving(snapshot, key, expected, null) != null;
+            if (!removed) {
+                return false;
+            }
+            liveKeys.clear(localKey(key));
+            release(expected);
+            return true;
+        } finally {
+            gate.exit(epoch);
+        }
+    }
+
+    /**
+     * Applies a write while a snapshot is open, handing the replaced record
+     * (or its absence) to the snapshot within the same atomic map operation.
+     *
+     * @param expected record that must be current, or {@code null} for an unconditional write
+     * @param replacement new record, or {@code null} to remove the key
+     * @return the replaced record, or {@code null} if there was none or it did not match
+     */
+    private ValueRecord writePreserving(StoreSnapshot snapshot, long key, ValueRecord expected, ValueRecord replacement) {
+        ValueRecord[] replaced = new ValueRecord[1];
+        map.compute(key, (ignored, current) -> {
+            if ((expected != null && !expected.equals(current)) || (current == null && replacement == null)) {
+                return current;
+            }
+            snapshot.preserve(shard, key, localKey(key), current);
+            replaced[0] = current;
+            return replacement;
+        });
+        return replaced[0];
+    }
+
+    public long liveKeyCount() {
+        return liveKeys.cardinality();
+    }
+
+    /**
+     * Returns the {@code rank}-th live key in ascending order, or -1 if none.
+     */
+    public long liveKeyAt(long rank) {
+        long local = liveKeys.select(rank);
+        return local < 0L ? -1L : globalKey(local);
+    }
+
+    public boolean isLive(long key) {
+        return liveKeys.contains(localKey(key));
+    }
+
+    public long liveKeyIndexBytes() {
+        return liveKeys.memoryBytes();
+    }
+
+    /**
+     * Footprint from the running per-record accounting; entry and index sizes
+     * are derived from the entry count and the live-key bitmap.
+     */
+    public StoreMemoryUsage memoryUsage() {
+        long entries = map.size();
+        return new StoreMemoryUsage(
+                entries,
+                entries * layout.mapEntryBytes(),
+                recordBytes.sum(),
+                payloadBytes.sum(),
+                layout.mapTableBytes(entries) + liveKeys.memoryBytes()
+        );
+    }
+
+    private void account(ValueRecord record) {
+        recordBytes.add(layout.recordBytes(record));
+        payloadBytes.add(record.payload().length);
+    }
+
+    private void release(ValueRecord record) {
+        recordBytes.add(-layout.recordBytes(record));
+        payloadBytes.add(-record.payload().length);
     }
 
     public long allocateKey() {
-        return nextKey.getAndIncrement();
+        return globalKey(nextKey.getAndIncrement());
+    }
+
+    /**
+     * Number of keys this partition has allocated, including deleted ones.
+     */
+    public long allocatedKeys() {
+        return nextKey.get();
+    }
+
+    /**
+     * Maps the {@code local}-th key of this partition to its global key.
+     */
+    public long globalKey(long local) {
+        return local * shards + shard;
+    }
+
+    private long localKey(long key) {
+        return key / shards;
     }
 
     public long size() {
         return map.size();
     }
 
+    /**
+     * Exclusive upper bound of the global keys allocated so far.
+     */
     public long nextKey() {
-        return nextKey.get();
+        return nextKey.get() * shards;
     }
 
     public boolean isEmpty() {
         return map.isEmpty();
     }
 
+    /**
+     * Weakly consistent view of all entries; safe to iterate while workers mutate the store.
+     */
+    public Iterable<Map.Entry<Long, ValueRecord>> entries() {
+        return map.entrySet();
+    }
+
     public void seed(long key, ValueRecord value) {
-        map.put(key, value);
+        put(key, value);
     }
 }
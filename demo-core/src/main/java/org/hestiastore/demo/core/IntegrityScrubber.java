@@ -0,0 +1,101 @@
+package org.hestiastore.demo.core;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that walks the whole store at a bounded key rate and
+ * verifies every stamped record, so cold keys that reads never sample are
+ * still checked during long soak runs.
+ */
+public final class IntegrityScrubber {
+    private final ShardedStore store;
+    private final IntegrityVerifier verifier;
+    private final DemoMetrics metrics;
+    private final long keysPerSecond;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public IntegrityScrubber(ShardedStore store, IntegrityVerifier verifier, DemoMetrics metrics, long keysPerSecond) {
+        this.store = store;
+        this.verifier = verifier;
+        this.metrics = metrics;
+        this.keysPerSecond = keysPerSecond;
+    }
+
+    public void start() {
+        if (keysPerSecond <= 0L) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::scrubLoop, "integrity-scrubber");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void scrubLoop() {
+        try {
+            while (running) {
+                if (store.isEmpty()) {
+                    Thread.sleep(1000L);
+                    continue;
+                }
+                scrubPass();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void scrubPass() throws InterruptedException {
+        long passStartNanos = System.nanoTime();
+        long passSize = Math.max(1L, store.size());
+        long scanned = 0L;
+        MaintenanceEvent event = new MaintenanceEvent();
+        event.begin();
+        for (Map.Entry<Long, ValueRecord> entry : store.entries()) {
+            if (!running) {
+                commitEvent(event, scanned, "INTERRUPTED");
+                return;
+            }
+            verifier.verify(entry.getKey(), entry.getValue());
+            scanned++;
+            if (scanned % 1024L == 0L) {
+                metrics.recordScrubProgress(scanned, passSize);
+                pace(passStartNanos, scanned);
+            }
+        }
+        metrics.recordScrubPassCompleted(scanned);
+        commitEvent(event, scanned, "COMPLETED");
+    }
+
+    private void commitEvent(MaintenanceEvent event, long scanned, String outcome) {
+        if (event.shouldCommit()) {
+            event.action = "SCRUB";
+            event.keys = scanned;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private void pace(long passStartNanos, long scanned) throws InterruptedException {
+        long dueNanos = passStartNanos + scanned * TimeUnit.SECONDS.toNanos(1) / keysPerSecond;
+        long sleepNanos = dueNanos - System.nanoTime();
+        if (sleepNanos > 0L) {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        }
+    }
+}
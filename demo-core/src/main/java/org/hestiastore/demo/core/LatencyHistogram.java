@@ -0,0 +1,133 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent log-linear latency histogram in microseconds. Each power of two
+ * is split into 8 linear sub-buckets (about 12% relative precision), values
+ * below 8 us are exact, and everything above ~134 s lands in the last bucket.
+ * Bucket arrays of equal length can be merged by plain addition.
+ * <p>
+ * Counts are striped by recording thread, one row of buckets per stripe, so
+ * workers on different cores rarely update the same cache line; a snapshot
+ * adds the rows up.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 26;
+
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final int STRIPES = Integer.highestOneBit(
+            Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+    /**
+     * One row per stripe: the buckets, then the total micros, then padding
+     * so the total does not share a cache line with the next row.
+     */
+    private static final int ROW = BUCKETS + 8;
+    private static final int TOTAL = BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * ROW);
+
+    public void record(long micros) {
+        int row = stripe() * ROW;
+        counts.incrementAndGet(row + bucketIndex(micros));
+        counts.addAndGet(row + TOTAL, Math.max(0L, micros));
+    }
+
+    /**
+     * Returns the bucket counts recorded since the previous call and resets them.
+     */
+    public long[] snapshotAndReset() {
+        long[] snapshot = new long[BUCKETS];
+        for (int row = 0; row < STRIPES * ROW; row += ROW) {
+            for (int i = 0; i < BUCKETS; i++) {
+                if (counts.get(row + i) != 0L) {
+                    snapshot[i] += counts.getAndSet(row + i, 0L);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    public long takeTotalMicros() {
+        long total = 0L;
+        for (int row = 0; row < STRIPES * ROW; row += ROW) {
+            total += counts.getAndSet(row + TOTAL, 0L);
+        }
+        return total;
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) & (STRIPES - 1);
+    }
+
+    public static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0L, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    public static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        if (index == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return bucketLowerBound(index + 1) - 1L;
+    }
+
+    public static long count(long[] buckets) {
+        long count = 0L;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    public static void merge(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    /**
+     * Returns the percentile in microseconds as the midpoint of the bucket
+     * holding the requested rank, or 0 when the histogram is empty.
+     */
+    public static double percentileMicros(long[] buckets, double percentile) {
+        long count = count(buckets);
+        if (count == 0L) {
+            return 0.0d;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile * count));
+        long seen = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                long lower = bucketLowerBound(i);
+                long upper = i == BUCKETS - 1 ? lower : bucketUpperBound(i);
+                return (lower + upper) / 2.0d;
+            }
+        }
+        return bucketLowerBound(buckets.length - 1);
+    }
+}
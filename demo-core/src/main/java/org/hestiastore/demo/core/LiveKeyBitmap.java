@@ -0,0 +1,111 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent bitmap of live keys, chunked roaring-style by key range. Empty
+ * 65,536-key ranges cost nothing; populated ranges use a 8 KiB bitmap
+ * container. Mutations are lock-free CAS on the affected word; only growing
+ * the top-level directory (once per ~4M keys) synchronizes.
+ *
+ * <p>{@link #select(long)} maps a rank to the n-th live key in ascending key
+ * order, which lets Zipf-ranked selection target live data instead of the
+ * whole allocated key space.
+ */
+public final class LiveKeyBitmap {
+    private static final int GROUP_SHIFT = LiveKeyChunk.BITS + LiveKeyChunkGroup.BITS;
+
+    private final AtomicLong cardinality = new AtomicLong();
+    private volatile LiveKeyChunkGroup[] groups = new LiveKeyChunkGroup[0];
+
+    public boolean set(long key) {
+        LiveKeyChunkGroup group = group(key, true);
+        LiveKeyChunk chunk = group.chunk(chunkIndex(key), true);
+        if (!chunk.set((int) (key & LiveKeyChunk.MASK))) {
+            return false;
+        }
+        group.add(1L);
+        cardinality.incrementAndGet();
+        return true;
+    }
+
+    public boolean clear(long key) {
+        LiveKeyChunkGroup group = group(key, false);
+        LiveKeyChunk chunk = group == null ? null : group.chunk(chunkIndex(key), false);
+        if (chunk == null || !chunk.clear((int) (key & LiveKeyChunk.MASK))) {
+            return false;
+        }
+        group.add(-1L);
+        cardinality.decrementAndGet();
+        return true;
+    }
+
+    public boolean contains(long key) {
+        LiveKeyChunkGroup group = group(key, false);
+        LiveKeyChunk chunk = group == null ? null : group.chunk(chunkIndex(key), false);
+        return chunk != null && chunk.contains((int) (key & LiveKeyChunk.MASK));
+    }
+
+    public long cardinality() {
+        return cardinality.get();
+    }
+
+    /**
+     * Returns the {@code rank}-th live key (0-based, ascending), or -1 when
+     * the bitmap shrank below {@code rank} concurrently.
+     */
+    public long select(long rank) {
+        LiveKeyChunkGroup[] current = groups;
+        long remaining = rank;
+        for (int i = 0; i < current.length; i++) {
+            LiveKeyChunkGroup group = current[i];
+            if (group == null) {
+                continue;
+            }
+            long count = group.cardinality();
+            if (remaining < count) {
+                long relative = group.select(remaining);
+                return relative < 0L ? -1L : ((long) i << GROUP_SHIFT) | relative;
+            }
+            remaining -= count;
+        }
+        return -1L;
+    }
+
+    public long memoryBytes() {
+        LiveKeyChunkGroup[] current = groups;
+        long bytes = 16L + current.length * 8L;
+        for (LiveKeyChunkGroup group : current) {
+            if (group != null) {
+                bytes += group.memoryBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private static int chunkIndex(long key) {
+        return (int) (key >>> LiveKeyChunk.BITS) & LiveKeyChunkGroup.MASK;
+    }
+
+    private LiveKeyChunkGroup group(long key, boolean create) {
+        int index = Math.toIntExact(key >>> GROUP_SHIFT);
+        LiveKeyChunkGroup[] current = groups;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return create ? createGroup(index) : null;
+    }
+
+    private synchronized LiveKeyChunkGroup createGroup(int index) {
+        LiveKeyChunkGroup[] current = groups;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        }
+        if (current[index] == null) {
+            current[index] = new LiveKeyChunkGroup();
+        }
+        groups = current;
+        return current[index];
+    }
+}
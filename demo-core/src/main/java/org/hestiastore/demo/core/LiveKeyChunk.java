@@ -0,0 +1,92 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap container for one 65,536-key range of {@link LiveKeyBitmap}. Bits are
+ * flipped with CAS and per-block counts let rank selection skip whole blocks.
+ */
+final class LiveKeyChunk {
+    static final int BITS = 16;
+    static final int SIZE = 1 << BITS;
+    static final int MASK = SIZE - 1;
+
+    private static final int WORDS = SIZE / Long.SIZE;
+    private static final int WORDS_PER_BLOCK = 64;
+    private static final int BLOCKS = WORDS / WORDS_PER_BLOCK;
+
+    static final long MEMORY_BYTES = 16L + 16L + WORDS * 8L + 16L + BLOCKS * 4L + 16L + 16L;
+
+    private final AtomicLongArray words = new AtomicLongArray(WORDS);
+    private final AtomicIntegerArray blockCounts = new AtomicIntegerArray(BLOCKS);
+    private final AtomicInteger cardinality = new AtomicInteger();
+
+    boolean set(int offset) {
+        int wordIndex = offset >>> 6;
+        long mask = 1L << offset;
+        long word;
+        do {
+            word = words.get(wordIndex);
+            if ((word & mask) != 0L) {
+                return false;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word | mask));
+        blockCounts.incrementAndGet(wordIndex / WORDS_PER_BLOCK);
+        cardinality.incrementAndGet();
+        return true;
+    }
+
+    boolean clear(int offset) {
+        int wordIndex = offset >>> 6;
+        long mask = 1L << offset;
+        long word;
+        do {
+            word = words.get(wordIndex);
+            if ((word & mask) == 0L) {
+                return false;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word & ~mask));
+        blockCounts.decrementAndGet(wordIndex / WORDS_PER_BLOCK);
+        cardinality.decrementAndGet();
+        return true;
+    }
+
+    boolean contains(int offset) {
+        return (words.get(offset >>> 6) & (1L << offset)) != 0L;
+    }
+
+    int cardinality() {
+        return cardinality.get();
+    }
+
+    /**
+     * Returns the offset of the {@code rank}-th set bit, or -1 when concurrent
+     * clears left fewer bits than the caller observed.
+     */
+    int select(int rank) {
+        int remaining = rank;
+        for (int block = 0; block < BLOCKS; block++) {
+            int count = blockCounts.get(block);
+            if (remaining >= count) {
+                remaining -= count;
+                continue;
+            }
+            int end = (block + 1) * WORDS_PER_BLOCK;
+            for (int wordIndex = block * WORDS_PER_BLOCK; wordIndex < end; wordIndex++) {
+                long word = words.get(wordIndex);
+                int bits = Long.bitCount(word);
+                if (remaining < bits) {
+                    for (int i = 0; i < remaining; i++) {
+                        word &= word - 1L;
+                    }
+                    return (wordIndex << 6) | Long.numberOfTrailingZeros(word);
+                }
+                remaining -= bits;
+            }
+            return -1;
+        }
+        return -1;
+    }
+}
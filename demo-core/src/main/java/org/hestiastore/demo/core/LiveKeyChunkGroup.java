@@ -0,0 +1,65 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Directory of 64 lazily allocated chunks with a summed cardinality, so rank
+ * selection over millions of keys touches a handful of counters.
+ */
+final class LiveKeyChunkGroup {
+    static final int BITS = 6;
+    static final int SIZE = 1 << BITS;
+    static final int MASK = SIZE - 1;
+
+    static final long MEMORY_BYTES = 16L + 16L + 16L + SIZE * 8L + 16L;
+
+    private final AtomicReferenceArray<LiveKeyChunk> chunks = new AtomicReferenceArray<>(SIZE);
+    private final AtomicLong cardinality = new AtomicLong();
+    private final AtomicLong allocatedChunks = new AtomicLong();
+
+    LiveKeyChunk chunk(int index, boolean create) {
+        LiveKeyChunk chunk = chunks.get(index);
+        if (chunk != null || !create) {
+            return chunk;
+        }
+        LiveKeyChunk created = new LiveKeyChunk();
+        if (chunks.compareAndSet(index, null, created)) {
+            allocatedChunks.incrementAndGet();
+            return created;
+        }
+        return chunks.get(index);
+    }
+
+    void add(long delta) {
+        cardinality.addAndGet(delta);
+    }
+
+    long cardinality() {
+        return cardinality.get();
+    }
+
+    long memoryBytes() {
+        return MEMORY_BYTES + allocatedChunks.get() * LiveKeyChunk.MEMORY_BYTES;
+    }
+
+    /**
+     * Returns the group-relative key of the {@code rank}-th live key, or -1.
+     */
+    long select(long rank) {
+        long remaining = rank;
+        for (int i = 0; i < SIZE; i++) {
+            LiveKeyChunk chunk = chunks.get(i);
+            if (chunk == null) {
+                continue;
+            }
+            int count = chunk.cardinality();
+            if (remaining < count) {
+                int offset = chunk.select((int) remaining);
+                return offset < 0 ? -1L : ((long) i << LiveKeyChunk.BITS) | offset;
+            }
+            remaining -= count;
+        }
+        return -1L;
+    }
+}
@@ -0,0 +1,28 @@
+package org.hestiastore.demo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Background or operator-triggered maintenance such as scrub passes, flush
+ * and compact; the event spans the whole action.
+ */
+@Name("org.hestiastore.demo.Maintenance")
+@Label("Maintenance Action")
+@Category({"HestiaStore Demo", "Maintenance"})
+@Description("Scrub pass, flush, compact or other maintenance action")
+@StackTrace(false)
+public final class MaintenanceEvent extends Event {
+    @Label("Action")
+    public String action;
+
+    @Label("Keys")
+    public long keys;
+
+    @Label("Outcome")
+    public String outcome;
+}
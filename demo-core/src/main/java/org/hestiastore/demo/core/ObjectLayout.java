@@ -0,0 +1,103 @@
+package org.hestiastore.demo.core;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Shallow object sizes of the store's building blocks on the running HotSpot
+ * VM. Header, reference and alignment sizes follow the VM's compressed oops,
+ * compressed class pointer and object alignment settings; without the HotSpot
+ * diagnostic bean the common 64-bit defaults are assumed.
+ */
+public final class ObjectLayout {
+    public static final ObjectLayout CURRENT = detect();
+
+    private final int headerBytes;
+    private final int referenceBytes;
+    private final int alignment;
+
+    ObjectLayout(boolean compressedOops, boolean compressedClassPointers, int alignment) {
+        this.headerBytes = compressedClassPointers ? 12 : 16;
+        this.referenceBytes = compressedOops ? 4 : 8;
+        this.alignment = alignment;
+    }
+
+    private static ObjectLayout detect() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return new ObjectLayout(
+                    Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue()),
+                    Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedClassPointers").getValue()),
+                    Integer.parseInt(hotSpot.getVMOption("ObjectAlignmentInBytes").getValue()));
+        } catch (RuntimeException e) {
+            return new ObjectLayout(true, true, 8);
+        }
+    }
+
+    public long align(long bytes) {
+        return (bytes + alignment - 1) / alignment * alignment;
+    }
+
+    public long arrayHeaderBytes() {
+        return align(headerBytes + Integer.BYTES);
+    }
+
+    public long byteArrayBytes(int length) {
+        return align(arrayHeaderBytes() + length);
+    }
+
+    public long referenceArrayBytes(long length) {
+        return align(arrayHeaderBytes() + length * referenceBytes);
+    }
+
+    /**
+     * Boxed {@link Long} key plus its {@code ConcurrentHashMap} node
+     * (hash, key, value, next).
+     */
+    public long mapEntryBytes() {
+        long boxedKey = align(headerBytes + Long.BYTES);
+        long node = align(headerBytes + Integer.BYTES + 3L * referenceBytes);
+        return boxedKey + node;
+    }
+
+    /**
+     * {@link ValueRecord} object without its payload array: four longs, an
+     * int and references to the encoding constant and the payload.
+     */
+    public long valueRecordBytes() {
+        return align(headerBytes + 4L * Long.BYTES + Integer.BYTES + 2L * referenceBytes);
+    }
+
+    public long recordBytes(ValueRecord record) {
+        return valueRecordBytes() + byteArrayBytes(record.payload().length);
+    }
+
+    /**
+     * {@link FrontCache} node (key, value, frequency, removed flag), its
+     * {@code ConcurrentHashMap} entry and its FIFO queue slot.
+     */
+    public long frontCacheNodeBytes() {
+        long node = align(headerBytes + Long.BYTES + referenceBytes + Integer.BYTES + 1L);
+        return node + mapEntryBytes() + referenceBytes;
+    }
+
+    /**
+     * Boxed {@link Long} key plus its {@code LinkedHashMap} entry
+     * (hash, key, value, next, before, after).
+     */
+    public long linkedMapEntryBytes() {
+        long boxedKey = align(headerBytes + Long.BYTES);
+        long entry = align(headerBytes + Integer.BYTES + 5L * referenceBytes);
+        return boxedKey + entry;
+    }
+
+    /**
+     * Bucket array of a {@code ConcurrentHashMap} holding {@code entries}
+     * at the default 0.75 load factor.
+     */
+    public long mapTableBytes(long entries) {
+        long buckets = Math.max(16L, Long.highestOneBit(Math.max(1L, (long) Math.ceil(entries / 0.75d)) - 1L) << 1);
+        return referenceArrayBytes(buckets);
+    }
+}
@@ -0,0 +1,8 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Average cost of one operation type over a metrics window, from sampled
+ * per-thread allocation and CPU counters.
+ */
+public record OperationCost(long samples, double allocatedBytesPerOp, double cpuMicrosPerOp) {
+}
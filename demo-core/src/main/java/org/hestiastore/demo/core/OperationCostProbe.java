@@ -0,0 +1,73 @@
+package org.hestiastore.demo.core;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reads the current thread's allocated bytes and CPU time through the HotSpot
+ * {@link ThreadMXBean}. Both reads cost far more than a typical in-memory
+ * operation, so only a sampled fraction of operations is measured. Counters
+ * the JVM does not support read as zero.
+ */
+public final class OperationCostProbe {
+    private final double sampleRate;
+    private final ThreadMXBean threads;
+    private final boolean allocationSupported;
+    private final boolean cpuTimeSupported;
+
+    public OperationCostProbe(double sampleRate) {
+        if (sampleRate < 0.0d || sampleRate > 1.0d) {
+            throw new IllegalArgumentException("Cost sample rate must be within [0.0, 1.0]");
+        }
+        this.sampleRate = sampleRate;
+        if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean) {
+            this.threads = bean;
+            this.allocationSupported = enableAllocation(bean);
+            this.cpuTimeSupported = enableCpuTime(bean);
+        } else {
+            this.threads = null;
+            this.allocationSupported = false;
+            this.cpuTimeSupported = false;
+        }
+    }
+
+    public boolean shouldSample() {
+        return (allocationSupported || cpuTimeSupported)
+                && sampleRate > 0.0d
+                && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public boolean allocationSupported() {
+        return allocationSupported;
+    }
+
+    public long allocatedBytes() {
+        return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0L;
+    }
+
+    public long cpuNanos() {
+        return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0L;
+    }
+
+    private static boolean enableAllocation(ThreadMXBean bean) {
+        if (!bean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    private static boolean enableCpuTime(ThreadMXBean bean) {
+        if (!bean.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        if (!bean.isThreadCpuTimeEnabled()) {
+            bean.setThreadCpuTimeEnabled(true);
+        }
+        return true;
+    }
+}
@@ -3,5 +3,6 @@ package org.hestiastore.demo.core;
 public enum OperationType {
     GTE,
     PUT,
+    UPDATE,
     DELETE
 }
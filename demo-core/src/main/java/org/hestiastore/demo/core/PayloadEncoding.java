@@ -0,0 +1,6 @@
+package org.hestiastore.demo.core;
+
+public enum PayloadEncoding {
+    RAW,
+    DEFLATE
+}
@@ -6,9 +6,70 @@ public final class PayloadGenerator {
     private static final int MIN_SIZE = 200;
     private static final int MAX_SIZE = 2000;
 
+    private final ValueSizeDistribution distribution;
+    private final int sizeBytes;
+    private final int minBytes;
+    private final int maxBytes;
+    private final int logNormalMaxBytes;
+    private final double sigma;
+    private final double largeFraction;
+    private final int largeBytes;
+
+    public PayloadGenerator() {
+        this(ValueSizeDistribution.UNIFORM, MIN_SIZE, MIN_SIZE, MAX_SIZE, MAX_SIZE, 0.0d, 0.0d, MAX_SIZE);
+    }
+
+    /**
+     * @param sizeBytes FIXED size, LOG_NORMAL median, BIMODAL small size
+     * @param minBytes UNIFORM lower bound and LOG_NORMAL floor
+     * @param maxBytes UNIFORM upper bound, below {@link Integer#MAX_VALUE}
+     * @param logNormalMaxBytes LOG_NORMAL ceiling, so the tail is not cut at
+     *        the UNIFORM bound
+     * @param sigma LOG_NORMAL standard deviation of the natural log of the size
+     * @param largeFraction BIMODAL share of large values
+     * @param largeBytes BIMODAL large size
+     */
+    public PayloadGenerator(
+            ValueSizeDistribution distribution,
+            int sizeBytes,
+            int minBytes,
+            int maxBytes,
+            int logNormalMaxBytes,
+            double sigma,
+            double largeFraction,
+            int largeBytes
+    ) {
+        if (sizeBytes < 0 || minBytes < 0 || largeBytes < 0) {
+            throw new IllegalArgumentException("Value sizes must not be negative");
+        }
+        if (minBytes > maxBytes) {
+            throw new IllegalArgumentException("Minimum value size must not exceed the maximum");
+        }
+        if (maxBytes == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maximum value size must be below " + Integer.MAX_VALUE);
+        }
+        if (minBytes > logNormalMaxBytes) {
+            throw new IllegalArgumentException("Minimum value size must not exceed the log-normal maximum");
+        }
+        if (sigma < 0.0d) {
+            throw new IllegalArgumentException("Value size sigma must not be negative");
+        }
+        if (largeFraction < 0.0d || largeFraction > 1.0d) {
+            throw new IllegalArgumentException("Large value fraction must be within [0.0, 1.0]");
+        }
+        this.distribution = distribution;
+        this.sizeBytes = sizeBytes;
+        this.minBytes = minBytes;
+        this.maxBytes = maxBytes;
+        this.logNormalMaxBytes = logNormalMaxBytes;
+        this.sigma = sigma;
+        this.largeFraction = largeFraction;
+        this.largeBytes = largeBytes;
+    }
+
     public byte[] generate() {
         ThreadLocalRandom random = ThreadLocalRandom.current();
-        int size = random.nextInt(MIN_SIZE, MAX_SIZE + 1);
+        int size = nextSize(random);
         byte[] payload = new byte[size];
 
         // Split payload generation between compressible and random bytes.
@@ -23,4 +84,14 @@ public final class PayloadGenerator {
         random.nextBytes(payload);
         return payload;
     }
+
+    private int nextSize(ThreadLocalRandom random) {
+        return switch (distribution) {
+            case FIXED -> sizeBytes;
+            case UNIFORM -> random.nextInt(minBytes, maxBytes + 1);
+            case LOG_NORMAL -> (int) Math.max(minBytes, Math.min(logNormalMaxBytes,
+                    Math.round(sizeBytes * Math.exp(sigma * random.nextGaussian()))));
+            case BIMODAL -> random.nextDouble() < largeFraction ? largeBytes : sizeBytes;
+        };
+    }
 }
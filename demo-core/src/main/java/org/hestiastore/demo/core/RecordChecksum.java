@@ -0,0 +1,46 @@
+package org.hestiastore.demo.core;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * CRC32C of a {@link ValueRecord}: version, timestamp, raw length, encoding
+ * and expiry, big-endian, followed by the stored payload. A damaged header
+ * field fails verification just like a damaged payload.
+ */
+final class RecordChecksum {
+    private static final int HEADER_BYTES = 3 * Long.BYTES + Integer.BYTES + 1;
+
+    private final ThreadLocal<CRC32C> checksums = ThreadLocal.withInitial(CRC32C::new);
+    private final ThreadLocal<ByteBuffer> headers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(HEADER_BYTES));
+
+    long of(ValueRecord record) {
+        CRC32C crc = withHeader(
+                record.version(), record.timestamp(), record.rawLength(), record.encoding(), record.expiresAtMillis());
+        crc.update(record.payload());
+        return crc.getValue();
+    }
+
+    long of(long version, long timestamp, int rawLength, PayloadEncoding encoding, long expiresAtMillis,
+            ByteBuffer payload) {
+        CRC32C crc = withHeader(version, timestamp, rawLength, encoding, expiresAtMillis);
+        crc.update(payload);
+        return crc.getValue();
+    }
+
+    private CRC32C withHeader(long version, long timestamp, int rawLength, PayloadEncoding encoding,
+            long expiresAtMillis) {
+        ByteBuffer header = headers.get();
+        header.clear();
+        header.putLong(version)
+                .putLong(timestamp)
+                .putInt(rawLength)
+                .put((byte) encoding.ordinal())
+                .putLong(expiresAtMillis)
+                .flip();
+        CRC32C crc = checksums.get();
+        crc.reset();
+        crc.update(header);
+        return crc;
+    }
+}
@@ -1,5 +1,6 @@
 package org.hestiastore.demo.core;
 
+import java.util.List;
 import java.util.Map;
 
 public record RuntimeMetricsSnapshot(
@@ -7,10 +8,12 @@ public record RuntimeMetricsSnapshot(
         long totalOps,
         long totalGte,
         long totalPut,
+        long totalUpdate,
         long totalDelete,
         long opsPerSecond,
         long gtePerSecond,
         long putPerSecond,
+        long updatePerSecond,
         long deletePerSecond,
         double avgLatencyMs,
         double p50LatencyMs,
@@ -29,6 +32,50 @@ public record RuntimeMetricsSnapshot(
         long registryCacheMax,
         double registryCacheHitRatio,
         double registryCacheFill,
+        long compressedValues,
+        long uncompressedValues,
+        double compressionRatio,
+        long compressionBytesSaved,
+        long compressCpuMillis,
+        long decompressCpuMillis,
+        double compressMicrosPerValue,
+        double decompressMicrosPerValue,
+        long verifiedRecords,
+        long verifiedBytes,
+        long verificationsPerSecond,
+        long verifiedBytesPerSecond,
+        long integrityFailures,
+        long lastIntegrityFailureKey,
+        long scrubPasses,
+        double scrubProgressPercent,
+        long updateConflicts,
+        long updateRetries,
+        long updateAbandoned,
+        long updateMisses,
+        long gteHits,
+        long gteMisses,
+        double gteHitRatio,
+        double gteHitTarget,
+        long liveKeyIndexBytes,
+        long logicalBytesWritten,
+        long logicalBytesRead,
+        long readBytesPerSecond,
+        long writeBytesPerSecond,
+        long storeResidentBytes,
+        long storePayloadBytes,
+        long storeOverheadBytes,
+        double storeBytesPerKey,
+        double storePayloadRatio,
+        double storeAccountingDriftPercent,
+        long[] latencyHistogram,
+        List<SlowOperation> slowOperations,
+        Map<OperationType, OperationCost> operationCosts,
+        List<ShardStatistics> shardStatistics,
+        double shardSkew,
+        FrontCacheStatistics frontCache,
+        ExpirationStatistics expiration,
+        SteadyStateStatistics steadyState,
+        List<ValueSizeClassStatistics> valueSizes,
         Map<String, Object> nodeConfig
 ) {
 }
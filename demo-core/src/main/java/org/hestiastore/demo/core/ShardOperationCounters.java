@@ -0,0 +1,59 @@
+package org.hestiastore.demo.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-shard window operation counts. Each shard counts into a
+ * {@link WindowCounter}, so workers hitting the same shard, as every worker
+ * does under HASH routing, do not contend on one cache line. A single shard
+ * serves every operation and is not counted; {@link DemoMetrics} reports the
+ * window's total operations for it.
+ */
+final class ShardOperationCounters {
+    private final int shards;
+    private final WindowCounter[] counts;
+
+    ShardOperationCounters(int shards) {
+        this.shards = shards;
+        this.counts = new WindowCounter[shards];
+        for (int i = 0; i < shards; i++) {
+            counts[i] = new WindowCounter();
+        }
+    }
+
+    void record(int shard) {
+        counts[shard].increment();
+    }
+
+    List<ShardStatistics> snapshotAndReset(ShardedStore store) {
+        long[] window = new long[shards];
+        long total = 0L;
+        for (int i = 0; i < shards; i++) {
+            window[i] = counts[i].takeWindow();
+            total += window[i];
+        }
+        List<ShardStatistics> statistics = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            statistics.add(new ShardStatistics(
+                    i,
+                    window[i],
+                    store.shard(i).size(),
+                    total == 0L ? 0.0d : window[i] * 100.0d / total));
+        }
+        return statistics;
+    }
+
+    /**
+     * Busiest shard relative to the mean; 1.0 is a perfectly even spread.
+     */
+    static double skew(List<ShardStatistics> statistics) {
+        long max = 0L;
+        long total = 0L;
+        for (ShardStatistics shard : statistics) {
+            max = Math.max(max, shard.opsPerSecond());
+            total += shard.opsPerSecond();
+        }
+        return total == 0L ? 1.0d : max * (double) statistics.size() / total;
+    }
+}
@@ -0,0 +1,16 @@
+package org.hestiastore.demo.core;
+
+/**
+ * How workers choose the shard of an operation.
+ */
+public enum ShardRouting {
+    /**
+     * Every operation goes to the shard its key hashes to.
+     */
+    HASH,
+    /**
+     * Each worker has a home shard and serves it for a configurable share of
+     * its operations; the rest are routed by hash.
+     */
+    AFFINE
+}
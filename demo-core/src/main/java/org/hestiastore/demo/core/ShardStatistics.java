@@ -0,0 +1,14 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Per-shard load of one snapshot window.
+ *
+ * @param sharePercent this shard's part of all operations in the window
+ */
+public record ShardStatistics(
+        int shard,
+        long opsPerSecond,
+        long keyCount,
+        double sharePercent
+) {
+}
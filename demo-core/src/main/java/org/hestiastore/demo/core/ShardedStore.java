@@ -0,0 +1,172 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+
+/**
+ * Key space split into independent {@link InMemoryStore} partitions, each
+ * with its own map, key allocator and live-key bitmap. Global keys interleave
+ * the shards, so {@code key % shards} names the owner and every shard
+ * allocates without coordinating with the others. One shard reproduces the
+ * shared-store mode.
+ */
+public final class ShardedStore {
+    private final InMemoryStore[] shards;
+    private final SnapshotGate gate = new SnapshotGate();
+
+    /**
+     * @param initialKeys global keys already allocated before a restart
+     */
+    public ShardedStore(int shardCount, long initialKeys) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        long initialPerShard = (initialKeys + shardCount - 1L) / shardCount;
+        this.shards = new InMemoryStore[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new InMemoryStore(initialPerShard, i, shardCount, gate);
+        }
+    }
+
+    /**
+     * Fixes a consistent view of all shards while writers keep running; at
+     * most one snapshot can be open at a time.
+     *
+     * @throws IllegalStateException if a snapshot is already open
+     */
+    public StoreSnapshot openSnapshot() {
+        StoreSnapshot snapshot = gate.install(epoch -> new StoreSnapshot(epoch, this, gate));
+        snapshot.capture();
+        return snapshot;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public InMemoryStore shard(int index) {
+        return shards[index];
+    }
+
+    public int shardOf(long key) {
+        return (int) Math.floorMod(key, (long) shards.length);
+    }
+
+    public ValueRecord get(long key) {
+        return shards[shardOf(key)].get(key);
+    }
+
+    public void put(long key, ValueRecord value) {
+        shards[shardOf(key)].put(key, value);
+    }
+
+    public boolean compareAndSet(long key, ValueRecord expected, ValueRecord updated) {
+        return shards[shardOf(key)].compareAndSet(key, expected, updated);
+    }
+
+    public ValueRecord delete(long key) {
+        return shards[shardOf(key)].delete(key);
+    }
+
+    public boolean remove(long key, ValueRecord expected) {
+        return shards[shardOf(key)].remove(key, expected);
+    }
+
+    public boolean isLive(long key) {
+        return shards[shardOf(key)].isLive(key);
+    }
+
+    public void seed(long key, ValueRecord value) {
+        put(key, value);
+    }
+
+    public long liveKeyCount() {
+        long count = 0L;
+        for (InMemoryStore shard : shards) {
+            count += shard.liveKeyCount();
+        }
+        return count;
+    }
+
+    /**
+     * Resolves a rank over the whole store. Ranks interleave like keys:
+     * {@code rank % shards} picks the shard and {@code rank / shards} the rank
+     * inside it, wrapped when that shard holds fewer live keys. Consecutive
+     * hot ranks therefore land on different shards, as hashed keys would.
+     *
+     * @return the live key, or -1 if the selected shard is empty
+     */
+    public long liveKeyAt(long rank) {
+        InMemoryStore shard = shards[shardOf(rank)];
+        long live = shard.liveKeyCount();
+        if (live <= 0L) {
+            return -1L;
+        }
+        long local = rank / shards.length;
+        return shard.liveKeyAt(local < live ? local : local % live);
+    }
+
+    public long liveKeyIndexBytes() {
+        long bytes = 0L;
+        for (InMemoryStore shard : shards) {
+            bytes += shard.liveKeyIndexBytes();
+        }
+        return bytes;
+    }
+
+    public StoreMemoryUsage memoryUsage() {
+        long entries = 0L;
+        long entryBytes = 0L;
+        long recordBytes = 0L;
+        long payloadBytes = 0L;
+        long indexBytes = 0L;
+        for (InMemoryStore shard : shards) {
+            StoreMemoryUsage usage = shard.memoryUsage();
+            entries += usage.entries();
+            entryBytes += usage.entryBytes();
+            recordBytes += usage.recordBytes();
+            payloadBytes += usage.payloadBytes();
+            indexBytes += usage.indexBytes();
+        }
+        return new StoreMemoryUsage(entries, entryBytes, recordBytes, payloadBytes, indexBytes);
+    }
+
+    public long size() {
+        long size = 0L;
+        for (InMemoryStore shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Exclusive upper bound of the global keys allocated so far; persisted so
+     * a restart never reuses a key.
+     */
+    public long nextKey() {
+        long next = 0L;
+        for (InMemoryStore shard : shards) {
+            next = Math.max(next, shard.nextKey());
+        }
+        return next;
+    }
+
+    public boolean isEmpty() {
+        for (InMemoryStore shard : shards) {
+            if (!shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Weakly consistent view of all entries, shard by shard.
+     */
+    public Iterable<Map.Entry<Long, ValueRecord>> entries() {
+        return () -> Arrays.stream(shards)
+                .flatMap(shard -> StreamSupport.stream(shard.entries().spliterator(), false))
+                .iterator();
+    }
+}
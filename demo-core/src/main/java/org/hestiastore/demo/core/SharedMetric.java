@@ -0,0 +1,53 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Value slots of the shared metrics region, in layout order. Totals are
+ * refreshed live by the publisher; the remaining slots come from the latest
+ * snapshot window. Double slots hold raw IEEE 754 bits.
+ */
+public enum SharedMetric {
+    UPTIME_SECONDS(false),
+    TOTAL_OPS(false),
+    TOTAL_GTE(false),
+    TOTAL_PUT(false),
+    TOTAL_UPDATE(false),
+    TOTAL_DELETE(false),
+    WINDOW_SEQUENCE(false),
+    OPS_PER_SECOND(false),
+    KEY_COUNT(false),
+    INTEGRITY_FAILURES(false),
+    UPDATE_CONFLICTS(false),
+    STORE_RESIDENT_BYTES(false),
+    AVG_LATENCY_MS(true),
+    P50_LATENCY_MS(true),
+    P95_LATENCY_MS(true),
+    P99_LATENCY_MS(true),
+    GTE_HIT_RATIO(true),
+    STORE_BYTES_PER_KEY(true);
+
+    private final boolean floatingPoint;
+
+    SharedMetric(boolean floatingPoint) {
+        this.floatingPoint = floatingPoint;
+    }
+
+    public boolean isFloatingPoint() {
+        return floatingPoint;
+    }
+
+    public void put(long[] values, long value) {
+        values[ordinal()] = value;
+    }
+
+    public void put(long[] values, double value) {
+        values[ordinal()] = Double.doubleToRawLongBits(value);
+    }
+
+    public long getLong(long[] values) {
+        return values[ordinal()];
+    }
+
+    public double getDouble(long[] values) {
+        return Double.longBitsToDouble(values[ordinal()]);
+    }
+}
@@ -0,0 +1,166 @@
+package org.hestiastore.demo.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-layout, memory-mapped metrics file shared between a runner (single
+ * writer) and any number of local readers, after the Aeron counters idea.
+ * Consistency uses a seqlock: the writer makes the sequence odd, writes, then
+ * makes it even again; readers retry when the sequence was odd or changed
+ * while they copied. Readers never block the writer.
+ *
+ * <pre>
+ * offset  size  field
+ *      0     4  magic "HDSM"
+ *      4     4  layout version
+ *      8     8  seqlock sequence
+ *     16     8  writer pid
+ *     24     8  writer start time (epoch millis)
+ *     32     8  last update (epoch millis)
+ *     40     4  value slot count
+ *     44     4  histogram bucket count
+ *     64   8*n  {@link SharedMetric} slots
+ *      .   8*b  latency histogram buckets of the latest window
+ * </pre>
+ *
+ * All fields are little-endian.
+ */
+public final class SharedMetricsRegion implements Closeable {
+    public static final String FILE_NAME = "shared-metrics.dat";
+
+    private static final int MAGIC = 0x4D534448;
+    private static final int VERSION = 1;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int PID_OFFSET = 16;
+    private static final int STARTED_AT_OFFSET = 24;
+    private static final int UPDATED_AT_OFFSET = 32;
+    private static final int METRIC_COUNT_OFFSET = 40;
+    private static final int BUCKET_COUNT_OFFSET = 44;
+    private static final int VALUES_OFFSET = 64;
+    private static final int METRICS = SharedMetric.values().length;
+    private static final int HISTOGRAM_OFFSET = VALUES_OFFSET + METRICS * Long.BYTES;
+    private static final int SIZE = HISTOGRAM_OFFSET + LatencyHistogram.BUCKETS * Long.BYTES;
+    private static final int MAX_READ_ATTEMPTS = 64;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private SharedMetricsRegion(FileChannel channel, MappedByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates or resets the region for a new writer.
+     */
+    public static SharedMetricsRegion create(Path file, long pid, long startedAtMillis) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(SIZE);
+        SharedMetricsRegion region = new SharedMetricsRegion(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE));
+        MappedByteBuffer buffer = region.buffer;
+        for (int offset = 0; offset < SIZE; offset += Long.BYTES) {
+            buffer.putLong(offset, 0L);
+        }
+        buffer.putInt(4, VERSION);
+        buffer.putLong(PID_OFFSET, pid);
+        buffer.putLong(STARTED_AT_OFFSET, startedAtMillis);
+        buffer.putInt(METRIC_COUNT_OFFSET, METRICS);
+        buffer.putInt(BUCKET_COUNT_OFFSET, LatencyHistogram.BUCKETS);
+        VarHandle.storeStoreFence();
+        buffer.putInt(0, MAGIC);
+        return region;
+    }
+
+    /**
+     * Maps an existing region read-only.
+     */
+    public static SharedMetricsRegion open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        if (channel.size() < SIZE) {
+            channel.close();
+            throw new IOException("Shared metrics file is too small: " + file);
+        }
+        SharedMetricsRegion region = new SharedMetricsRegion(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, SIZE));
+        MappedByteBuffer buffer = region.buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(METRIC_COUNT_OFFSET) != METRICS
+                || buffer.getInt(BUCKET_COUNT_OFFSET) != LatencyHistogram.BUCKETS) {
+            region.close();
+            throw new IOException("Incompatible shared metrics layout: " + file);
+        }
+        return region;
+    }
+
+    public long pid() {
+        return buffer.getLong(PID_OFFSET);
+    }
+
+    public long startedAtMillis() {
+        return buffer.getLong(STARTED_AT_OFFSET);
+    }
+
+    /**
+     * Writer side; must only be called from one thread.
+     *
+     * @param histogram latency buckets to publish, or {@code null} to keep the current ones
+     */
+    public void write(long[] values, long[] histogram, long updatedAtMillis) {
+        long sequence = (long) LONGS.get(buffer, SEQUENCE_OFFSET);
+        LONGS.setVolatile(buffer, SEQUENCE_OFFSET, sequence + 1L);
+        VarHandle.storeStoreFence();
+        buffer.putLong(UPDATED_AT_OFFSET, updatedAtMillis);
+        for (int i = 0; i < METRICS; i++) {
+            buffer.putLong(VALUES_OFFSET + i * Long.BYTES, values[i]);
+        }
+        if (histogram != null) {
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                buffer.putLong(HISTOGRAM_OFFSET + i * Long.BYTES, histogram[i]);
+            }
+        }
+        LONGS.setRelease(buffer, SEQUENCE_OFFSET, sequence + 2L);
+    }
+
+    /**
+     * Copies a consistent view into the given arrays.
+     *
+     * @return the last update time, or -1 if no consistent copy could be taken
+     */
+    public long read(long[] values, long[] histogram) {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long before = (long) LONGS.getAcquire(buffer, SEQUENCE_OFFSET);
+            if ((before & 1L) != 0L) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long updatedAt = buffer.getLong(UPDATED_AT_OFFSET);
+            for (int i = 0; i < METRICS; i++) {
+                values[i] = buffer.getLong(VALUES_OFFSET + i * Long.BYTES);
+            }
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                histogram[i] = buffer.getLong(HISTOGRAM_OFFSET + i * Long.BYTES);
+            }
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getVolatile(buffer, SEQUENCE_OFFSET) == before) {
+                return updatedAt;
+            }
+        }
+        return -1L;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
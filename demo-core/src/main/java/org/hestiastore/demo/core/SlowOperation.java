@@ -0,0 +1,25 @@
+package org.hestiastore.demo.core;
+
+/**
+ * One captured slow operation. {@code rankBucket} is the Zipf popularity
+ * bucket of the key (0 for the hottest rank, b for ranks in
+ * [2^(b-1), 2^b)), or -1 when the key was not drawn from the live-key ranks.
+ */
+public record SlowOperation(
+        OperationType operation,
+        long key,
+        int rankBucket,
+        int payloadSize,
+        String thread,
+        long startEpochMillis,
+        long latencyMicros,
+        boolean gcOverlap
+) {
+    public static int rankBucket(long rank) {
+        return rank < 0L ? -1 : 64 - Long.numberOfLeadingZeros(rank);
+    }
+
+    public SlowOperation withGcOverlap(boolean overlap) {
+        return new SlowOperation(operation, key, rankBucket, payloadSize, thread, startEpochMillis, latencyMicros, overlap);
+    }
+}
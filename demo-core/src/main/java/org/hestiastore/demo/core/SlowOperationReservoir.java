@@ -0,0 +1,106 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Top-N slowest operations of one worker thread, kept as a min-heap on
+ * latency. The owning worker is the only writer; {@link #drain()} is called by
+ * the snapshot thread. Operations at or below {@code threshold} return after a
+ * single volatile read, which on the hot path is a plain load.
+ */
+final class SlowOperationReservoir {
+    private final int capacity;
+    private final long floorMicros;
+    private final SlowOperation[] heap;
+    private int size;
+    private volatile long threshold;
+
+    SlowOperationReservoir(int capacity, long floorMicros) {
+        this.capacity = capacity;
+        this.floorMicros = floorMicros;
+        this.heap = new SlowOperation[capacity];
+        this.threshold = floorMicros;
+    }
+
+    void record(OperationType operation, long key, long rank, int payloadSize, long latencyMicros) {
+        if (latencyMicros <= threshold) {
+            return;
+        }
+        insert(new SlowOperation(
+                operation,
+                key,
+                SlowOperation.rankBucket(rank),
+                payloadSize,
+                Thread.currentThread().getName(),
+                System.currentTimeMillis() - latencyMicros / 1000L,
+                latencyMicros,
+                false
+        ));
+    }
+
+    private synchronized void insert(SlowOperation entry) {
+        if (size < capacity) {
+            heap[size] = entry;
+            siftUp(size++);
+        } else if (entry.latencyMicros() > heap[0].latencyMicros()) {
+            heap[0] = entry;
+            siftDown(0);
+        }
+        if (size == capacity) {
+            threshold = Math.max(floorMicros, heap[0].latencyMicros());
+        }
+    }
+
+    /**
+     * Latency an operation must exceed to be considered: the floor until the
+     * heap is full, then the fastest operation held.
+     */
+    long threshold() {
+        return threshold;
+    }
+
+    synchronized List<SlowOperation> drain() {
+        List<SlowOperation> entries = List.of(Arrays.copyOf(heap, size));
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        threshold = floorMicros;
+        return entries;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].latencyMicros() <= heap[index].latencyMicros()) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left].latencyMicros() < heap[smallest].latencyMicros()) {
+                smallest = left;
+            }
+            if (right < size && heap[right].latencyMicros() < heap[smallest].latencyMicros()) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(smallest, index);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        SlowOperation tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
@@ -0,0 +1,70 @@
+package org.hestiastore.demo.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Collects the slowest operations of each metrics window from per-worker
+ * reservoirs. Workers obtain their reservoir once via {@link #register()};
+ * {@link #snapshotAndReset()} merges them into the window's top N, resolves
+ * GC overlap and folds the result into a since-start top N.
+ */
+public final class SlowOperationSampler {
+    private static final Comparator<SlowOperation> SLOWEST_FIRST =
+            Comparator.comparingLong(SlowOperation::latencyMicros).reversed();
+
+    private final int topN;
+    private final long floorMicros;
+    private final GcPauseTracker gcPauseTracker;
+    private final List<SlowOperationReservoir> reservoirs = new CopyOnWriteArrayList<>();
+
+    private List<SlowOperation> slowestSinceStart = List.of();
+
+    public SlowOperationSampler(int topN, long floorMicros, GcPauseTracker gcPauseTracker) {
+        if (topN <= 0) {
+            throw new IllegalArgumentException("Slow operation top-N must be positive");
+        }
+        this.topN = topN;
+        this.floorMicros = Math.max(0L, floorMicros);
+        this.gcPauseTracker = gcPauseTracker;
+    }
+
+    SlowOperationReservoir register() {
+        SlowOperationReservoir reservoir = new SlowOperationReservoir(topN, floorMicros);
+        reservoirs.add(reservoir);
+        return reservoir;
+    }
+
+    void unregister(SlowOperationReservoir reservoir) {
+        reservoirs.remove(reservoir);
+    }
+
+    public synchronized List<SlowOperation> slowestSinceStart() {
+        return slowestSinceStart;
+    }
+
+    /**
+     * Returns the window's slowest operations, slowest first.
+     */
+    public synchronized List<SlowOperation> snapshotAndReset() {
+        List<SlowOperation> window = new ArrayList<>();
+        for (SlowOperationReservoir reservoir : reservoirs) {
+            window.addAll(reservoir.drain());
+        }
+        window.sort(SLOWEST_FIRST);
+        List<SlowOperation> top = new ArrayList<>(Math.min(topN, window.size()));
+        for (SlowOperation operation : window.subList(0, Math.min(topN, window.size()))) {
+            long endMillis = operation.startEpochMillis() + Math.max(1L, operation.latencyMicros() / 1000L);
+            top.add(operation.withGcOverlap(gcPauseTracker != null
+                    && gcPauseTracker.overlaps(operation.startEpochMillis(), endMillis)));
+        }
+
+        List<SlowOperation> merged = new ArrayList<>(slowestSinceStart);
+        merged.addAll(top);
+        merged.sort(SLOWEST_FIRST);
+        slowestSinceStart = List.copyOf(merged.subList(0, Math.min(topN, merged.size())));
+        return List.copyOf(top);
+    }
+}
@@ -0,0 +1,88 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongFunction;
+
+/**
+ * Fixes the instant a {@link StoreSnapshot} is taken at. Every write enters
+ * the gate under the current epoch, counted on a per-thread-stripe slot that
+ * sits on its own cache line. Opening a snapshot installs it, advances the
+ * epoch and waits until no write of the previous epoch is in flight: writes
+ * of the old epoch are all complete and part of the snapshot, writes of the
+ * new one all preserve what they overwrite.
+ */
+final class SnapshotGate {
+    private static final int STRIPES = 64;
+    private static final int STRIDE = 16;
+
+    private final AtomicLongArray active = new AtomicLongArray(2 * STRIPES * STRIDE);
+    private volatile long epoch;
+    private volatile StoreSnapshot snapshot;
+
+    /**
+     * @return the epoch to pass to {@link #snapshot(long)} and {@link #exit(long)}
+     */
+    long enter() {
+        int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+        while (true) {
+            long current = epoch;
+            int slot = slot(current, stripe);
+            active.incrementAndGet(slot);
+            if (epoch == current) {
+                return current;
+            }
+            active.decrementAndGet(slot);
+        }
+    }
+
+    void exit(long enteredEpoch) {
+        active.decrementAndGet(slot(enteredEpoch, (int) (Thread.currentThread().threadId() & (STRIPES - 1))));
+    }
+
+    /**
+     * The snapshot a write of the given epoch must preserve into, or {@code null}.
+     */
+    StoreSnapshot snapshot(long enteredEpoch) {
+        StoreSnapshot current = snapshot;
+        return current != null && current.epoch() == enteredEpoch ? current : null;
+    }
+
+    /**
+     * Creates the snapshot for the next epoch, installs it and returns once
+     * every write that could have missed it has completed.
+     */
+    synchronized StoreSnapshot install(LongFunction<StoreSnapshot> factory) {
+        if (snapshot != null) {
+            throw new IllegalStateException("A snapshot is already open");
+        }
+        long previous = epoch;
+        StoreSnapshot installed = factory.apply(previous + 1L);
+        snapshot = installed;
+        epoch = installed.epoch();
+        awaitQuiescent(previous);
+        return installed;
+    }
+
+    synchronized void uninstall(StoreSnapshot installed) {
+        if (snapshot != installed) {
+            return;
+        }
+        snapshot = null;
+        long previous = epoch;
+        epoch = previous + 1L;
+        awaitQuiescent(previous);
+    }
+
+    private void awaitQuiescent(long previousEpoch) {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int slot = slot(previousEpoch, stripe);
+            while (active.get(slot) != 0L) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static int slot(long epoch, int stripe) {
+        return ((int) (epoch & 1L) * STRIPES + stripe) * STRIDE;
+    }
+}
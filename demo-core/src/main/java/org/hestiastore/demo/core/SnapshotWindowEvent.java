@@ -0,0 +1,34 @@
+package org.hestiastore.demo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Summary of one metrics window, so recordings can be lined up with the
+ * runner's throughput and latency figures.
+ */
+@Name("org.hestiastore.demo.SnapshotWindow")
+@Label("Snapshot Window")
+@Category({"HestiaStore Demo", "Workload"})
+@Description("Throughput and latency of one metrics window")
+@StackTrace(false)
+public final class SnapshotWindowEvent extends Event {
+    @Label("Operations")
+    public long operations;
+
+    @Label("Key Count")
+    public long keyCount;
+
+    @Label("Average Latency (ms)")
+    public double avgLatencyMs;
+
+    @Label("P99 Latency (ms)")
+    public double p99LatencyMs;
+
+    @Label("GTE Hit Ratio (%)")
+    public double gteHitRatio;
+}
@@ -0,0 +1,164 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Detects the end of warm-up from the metrics windows: the run is steady once
+ * the coefficient of variation of ops/s and of window p99 over the latest
+ * {@code windows} windows both fall below their limits. The boundary is the
+ * start of that stable stretch; its windows and every later one are summed
+ * into steady-state throughput and latency, while lifetime figures keep
+ * counting from start. Detection happens once per run.
+ */
+public final class SteadyStateDetector {
+    private final int windows;
+    private final double maxOpsCoefficientOfVariation;
+    private final double maxP99CoefficientOfVariation;
+    private final long startedAtMillis;
+
+    private final double[] windowRates;
+    private final double[] windowP99;
+    private final long[][] windowHistograms;
+    private final long[] windowOps;
+    private final long[] windowMicros;
+    private final long[] windowMillis;
+    private final long[] windowStartMillis;
+    private int filled;
+    private int next;
+    private long lastWindowEndMillis;
+
+    private final long[] lifetimeHistogram = new long[LatencyHistogram.BUCKETS];
+    private long lifetimeOps;
+    private long lifetimeMicros;
+
+    private final long[] steadyHistogram = new long[LatencyHistogram.BUCKETS];
+    private long steadyOps;
+    private long steadyMicros;
+    private long steadyMillis;
+    private volatile long warmupMillis = -1L;
+
+    public SteadyStateDetector(int windows, double maxOpsCoefficientOfVariation, double maxP99CoefficientOfVariation) {
+        if (windows < 2) {
+            throw new IllegalArgumentException("Steady-state detection needs at least 2 windows");
+        }
+        this.windows = windows;
+        this.maxOpsCoefficientOfVariation = maxOpsCoefficientOfVariation;
+        this.maxP99CoefficientOfVariation = maxP99CoefficientOfVariation;
+        this.startedAtMillis = System.currentTimeMillis();
+        this.lastWindowEndMillis = startedAtMillis;
+        this.windowRates = new double[windows];
+        this.windowP99 = new double[windows];
+        this.windowHistograms = new long[windows][];
+        this.windowOps = new long[windows];
+        this.windowMicros = new long[windows];
+        this.windowMillis = new long[windows];
+        this.windowStartMillis = new long[windows];
+    }
+
+    /**
+     * @return time from start to steady state, -1 while still warming up
+     */
+    public long warmupMillis() {
+        return warmupMillis;
+    }
+
+    /**
+     * Adds one closed metrics window; called by the single snapshot thread.
+     */
+    SteadyStateStatistics onWindow(long ops, long[] latencyHistogram, long latencyTotalMicros, long nowMillis) {
+        long durationMillis = Math.max(1L, nowMillis - lastWindowEndMillis);
+        long windowStart = lastWindowEndMillis;
+        lastWindowEndMillis = nowMillis;
+
+        LatencyHistogram.merge(lifetimeHistogram, latencyHistogram);
+        lifetimeOps += ops;
+        lifetimeMicros += latencyTotalMicros;
+        if (warmupMillis >= 0L) {
+            addSteady(latencyHistogram, ops, latencyTotalMicros, durationMillis);
+        }
+
+        int slot = next;
+        next = (next + 1) % windows;
+        filled = Math.min(windows, filled + 1);
+        windowRates[slot] = ops * 1000.0d / durationMillis;
+        windowP99[slot] = LatencyHistogram.percentileMicros(latencyHistogram, 0.99d);
+        windowHistograms[slot] = latencyHistogram.clone();
+        windowOps[slot] = ops;
+        windowMicros[slot] = latencyTotalMicros;
+        windowMillis[slot] = durationMillis;
+        windowStartMillis[slot] = windowStart;
+
+        double opsVariation = coefficientOfVariation(windowRates);
+        double p99Variation = coefficientOfVariation(windowP99);
+        if (warmupMillis < 0L
+                && filled == windows
+                && opsVariation <= maxOpsCoefficientOfVariation
+                && p99Variation <= maxP99CoefficientOfVariation) {
+            markSteady(opsVariation, p99Variation);
+        }
+        return statistics(nowMillis, opsVariation, p99Variation);
+    }
+
+    private void markSteady(double opsVariation, double p99Variation) {
+        int oldest = filled == windows ? next : 0;
+        for (int i = 0; i < windows; i++) {
+            int slot = (oldest + i) % windows;
+            addSteady(windowHistograms[slot], windowOps[slot], windowMicros[slot], windowMillis[slot]);
+        }
+        warmupMillis = Math.max(0L, windowStartMillis[oldest] - startedAtMillis);
+
+        SteadyStateEvent event = new SteadyStateEvent();
+        if (event.isEnabled()) {
+            event.warmupMillis = warmupMillis;
+            event.opsPerSecond = steadyOps * 1000.0d / steadyMillis;
+            event.p99LatencyMs = LatencyHistogram.percentileMicros(steadyHistogram, 0.99d) / 1000.0d;
+            event.opsCoefficientOfVariation = opsVariation;
+            event.p99CoefficientOfVariation = p99Variation;
+            event.commit();
+        }
+    }
+
+    private void addSteady(long[] histogram, long ops, long micros, long millis) {
+        LatencyHistogram.merge(steadyHistogram, histogram);
+        steadyOps += ops;
+        steadyMicros += micros;
+        steadyMillis += millis;
+    }
+
+    private double coefficientOfVariation(double[] values) {
+        if (filled < 2) {
+            return Double.NaN;
+        }
+        double sum = 0.0d;
+        for (int i = 0; i < filled; i++) {
+            sum += values[i];
+        }
+        double mean = sum / filled;
+        if (mean <= 0.0d) {
+            return Double.NaN;
+        }
+        double squares = 0.0d;
+        for (int i = 0; i < filled; i++) {
+            double delta = values[i] - mean;
+            squares += delta * delta;
+        }
+        return Math.sqrt(squares / (filled - 1)) / mean;
+    }
+
+    private SteadyStateStatistics statistics(long nowMillis, double opsVariation, double p99Variation) {
+        long lifetimeSamples = LatencyHistogram.count(lifetimeHistogram);
+        long steadySamples = LatencyHistogram.count(steadyHistogram);
+        return new SteadyStateStatistics(
+                warmupMillis >= 0L,
+                warmupMillis,
+                steadyMillis / 1000.0d,
+                lifetimeOps * 1000.0d / Math.max(1L, nowMillis - startedAtMillis),
+                lifetimeSamples == 0L ? 0.0d : lifetimeMicros / 1000.0d / lifetimeSamples,
+                LatencyHistogram.percentileMicros(lifetimeHistogram, 0.50d) / 1000.0d,
+                LatencyHistogram.percentileMicros(lifetimeHistogram, 0.99d) / 1000.0d,
+                steadyMillis == 0L ? 0.0d : steadyOps * 1000.0d / steadyMillis,
+                steadySamples == 0L ? 0.0d : steadyMicros / 1000.0d / steadySamples,
+                LatencyHistogram.percentileMicros(steadyHistogram, 0.50d) / 1000.0d,
+                LatencyHistogram.percentileMicros(steadyHistogram, 0.99d) / 1000.0d,
+                Double.isNaN(opsVariation) ? -1.0d : opsVariation,
+                Double.isNaN(p99Variation) ? -1.0d : p99Variation);
+    }
+}
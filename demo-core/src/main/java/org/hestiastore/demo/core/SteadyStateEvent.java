@@ -0,0 +1,36 @@
+package org.hestiastore.demo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Warm-up boundary: emitted once, when throughput and p99 have been stable
+ * long enough for the run to count as steady.
+ */
+@Name("org.hestiastore.demo.SteadyState")
+@Label("Steady State Reached")
+@Category({"HestiaStore Demo", "Workload"})
+@Description("End of warm-up detected from ops/s and p99 variation")
+@StackTrace(false)
+public final class SteadyStateEvent extends Event {
+    @Label("Warm-up")
+    @Timespan(Timespan.MILLISECONDS)
+    public long warmupMillis;
+
+    @Label("Operations per Second")
+    public double opsPerSecond;
+
+    @Label("P99 Latency (ms)")
+    public double p99LatencyMs;
+
+    @Label("Ops/s Coefficient of Variation")
+    public double opsCoefficientOfVariation;
+
+    @Label("P99 Coefficient of Variation")
+    public double p99CoefficientOfVariation;
+}
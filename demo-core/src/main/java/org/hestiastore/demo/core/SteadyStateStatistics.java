@@ -0,0 +1,28 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Throughput and latency since process start next to the same figures
+ * counted only from the detected end of warm-up, so runs of different length
+ * can be compared without their JIT, cache-fill and ramp-up phase.
+ *
+ * @param warmupMillis time from start to the first window of the steady stretch, -1 while warming up
+ * @param steadySeconds time covered by the steady-state figures, 0 while warming up
+ * @param opsCoefficientOfVariation ops/s variation over the latest detection windows, -1 when undefined
+ * @param p99CoefficientOfVariation p99 variation over the latest detection windows, -1 when undefined
+ */
+public record SteadyStateStatistics(
+        boolean reached,
+        long warmupMillis,
+        double steadySeconds,
+        double lifetimeOpsPerSecond,
+        double lifetimeAvgLatencyMs,
+        double lifetimeP50LatencyMs,
+        double lifetimeP99LatencyMs,
+        double steadyOpsPerSecond,
+        double steadyAvgLatencyMs,
+        double steadyP50LatencyMs,
+        double steadyP99LatencyMs,
+        double opsCoefficientOfVariation,
+        double p99CoefficientOfVariation
+) {
+}
@@ -0,0 +1,34 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Point-in-time memory footprint of {@link InMemoryStore}. {@code recordBytes}
+ * covers record objects and payload arrays including their headers, of which
+ * {@code payloadBytes} is the stored payload itself.
+ */
+public record StoreMemoryUsage(
+        long entries,
+        long entryBytes,
+        long recordBytes,
+        long payloadBytes,
+        long indexBytes
+) {
+    public long residentBytes() {
+        return entryBytes + recordBytes + indexBytes;
+    }
+
+    public long overheadBytes() {
+        return residentBytes() - payloadBytes;
+    }
+
+    public double bytesPerKey() {
+        return entries == 0L ? 0.0d : residentBytes() / (double) entries;
+    }
+
+    /**
+     * Payload share of resident bytes in percent.
+     */
+    public double payloadRatio() {
+        long resident = residentBytes();
+        return resident == 0L ? 0.0d : payloadBytes * 100.0d / resident;
+    }
+}
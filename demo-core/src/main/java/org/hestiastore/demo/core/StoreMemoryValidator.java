@@ -0,0 +1,66 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cross-checks the store's incremental record accounting against a measured
+ * size of randomly sampled live records extrapolated to the whole store. Each
+ * sample is copied and the bytes the JVM reports as allocated by the copy are
+ * taken as its size, so the check does not share the {@link ObjectLayout}
+ * formula the accounting uses. With a few thousand samples the estimate
+ * carries roughly a percent of sampling noise; persistent drift beyond that
+ * points at an accounting or layout bug.
+ */
+public final class StoreMemoryValidator {
+    private final ShardedStore store;
+    private final int sampleSize;
+    private final OperationCostProbe probe;
+
+    public StoreMemoryValidator(ShardedStore store, int sampleSize, OperationCostProbe probe) {
+        this.store = store;
+        this.sampleSize = sampleSize;
+        this.probe = probe;
+    }
+
+    /**
+     * Returns (accounted - measured) / measured in percent, or 0 when the
+     * store is empty or the JVM does not count allocated bytes.
+     */
+    public double driftPercent() {
+        long liveKeys = store.liveKeyCount();
+        if (liveKeys <= 0L || !probe.allocationSupported()) {
+            return 0.0d;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Copies are kept until the loop ends so the JIT cannot elide them.
+        ValueRecord[] copies = new ValueRecord[sampleSize];
+        long sampledBytes = 0L;
+        int sampled = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            long key = store.liveKeyAt(random.nextLong(liveKeys));
+            ValueRecord record = key < 0L ? null : store.get(key);
+            if (record != null) {
+                long before = probe.allocatedBytes();
+                copies[sampled++] = copy(record);
+                sampledBytes += probe.allocatedBytes() - before;
+            }
+        }
+        StoreMemoryUsage usage = store.memoryUsage();
+        if (sampled == 0 || usage.entries() == 0L) {
+            return 0.0d;
+        }
+        double measured = sampledBytes / (double) sampled * usage.entries();
+        return (usage.recordBytes() - measured) * 100.0d / measured;
+    }
+
+    private static ValueRecord copy(ValueRecord record) {
+        return new ValueRecord(
+                record.version(),
+                record.timestamp(),
+                record.encoding(),
+                record.rawLength(),
+                record.payload().clone(),
+                record.checksum(),
+                record.expiresAtMillis());
+    }
+}
@@ -0,0 +1,147 @@
+package org.hestiastore.demo.core;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Point-in-time view of a {@link ShardedStore} taken without pausing
+ * writers. While it is open, the first write to a key copies the record it
+ * replaces (or the fact that there was none) into a side map inside the same
+ * atomic map operation. Export walks the live maps and substitutes preserved
+ * records, then emits preserved records of keys deleted meanwhile; a
+ * per-shard bitmap of exported keys keeps a key from being emitted twice and
+ * stops preserving keys that are already exported. Keys allocated after the
+ * snapshot was taken cannot belong to it, so writes to them are neither
+ * preserved nor exported. Only records overwritten during the export are
+ * copied.
+ */
+public final class StoreSnapshot implements AutoCloseable {
+    private static final ValueRecord ABSENT = new ValueRecord(0L, 0L, new byte[0]);
+
+    private final long epoch;
+    private final ShardedStore store;
+    private final SnapshotGate gate;
+    private final ConcurrentHashMap<Long, ValueRecord> preserved = new ConcurrentHashMap<>();
+    private final AtomicLong preservedRecords = new AtomicLong();
+    private volatile AtomicLongArray[] exported;
+    private long takenAtMillis;
+    private long expectedRecords;
+
+    /**
+     * Receives the records of a snapshot, one key at a time.
+     */
+    @FunctionalInterface
+    public interface RecordSink {
+        void accept(long key, ValueRecord record) throws IOException;
+    }
+
+    StoreSnapshot(long epoch, ShardedStore store, SnapshotGate gate) {
+        this.epoch = epoch;
+        this.store = store;
+        this.gate = gate;
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Sizes the exported-key bitmaps once the snapshot instant is fixed: no
+     * key allocated later can have been live at that instant.
+     */
+    void capture() {
+        takenAtMillis = System.currentTimeMillis();
+        expectedRecords = store.size();
+        AtomicLongArray[] bitmaps = new AtomicLongArray[store.shardCount()];
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new AtomicLongArray((int) ((store.shard(i).allocatedKeys() + 63L) >>> 6));
+        }
+        exported = bitmaps;
+    }
+
+    /**
+     * Called by a write under this snapshot before it replaces {@code previous}.
+     */
+    void preserve(int shard, long key, long localKey, ValueRecord previous) {
+        AtomicLongArray[] bitmaps = exported;
+        if (bitmaps != null && (!inSnapshot(bitmaps[shard], localKey) || isExported(bitmaps[shard], localKey))) {
+            return;
+        }
+        if (preserved.putIfAbsent(key, previous == null ? ABSENT : previous) == null) {
+            preservedRecords.incrementAndGet();
+        }
+    }
+
+    public long takenAtMillis() {
+        return takenAtMillis;
+    }
+
+    /**
+     * Store size when the snapshot was taken; exact unless writes raced the capture.
+     */
+    public long expectedRecords() {
+        return expectedRecords;
+    }
+
+    /**
+     * Records copied because a writer replaced them during the export.
+     */
+    public long preservedRecords() {
+        return preservedRecords.get();
+    }
+
+    /**
+     * Emits every record that was live at the snapshot instant exactly once.
+     * Must be called at most once.
+     */
+    public void export(RecordSink sink) throws IOException {
+        int shards = store.shardCount();
+        for (int shard = 0; shard < shards; shard++) {
+            for (Map.Entry<Long, ValueRecord> entry : store.shard(shard).entries()) {
+                long key = entry.getKey();
+                ValueRecord current = entry.getValue();
+                ValueRecord before = preserved.get(key);
+                ValueRecord record = before != null ? before : current;
+                if (markExported(shard, key / shards) && record != ABSENT) {
+                    sink.accept(key, record);
+                }
+            }
+        }
+        for (Map.Entry<Long, ValueRecord> entry : preserved.entrySet()) {
+            long key = entry.getKey();
+            int shard = store.shardOf(key);
+            if (entry.getValue() != ABSENT && markExported(shard, key / shards)) {
+                sink.accept(key, entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        gate.uninstall(this);
+        preserved.clear();
+    }
+
+    private static boolean inSnapshot(AtomicLongArray bitmap, long localKey) {
+        return (localKey >>> 6) < bitmap.length();
+    }
+
+    private static boolean isExported(AtomicLongArray bitmap, long localKey) {
+        return (bitmap.get((int) (localKey >>> 6)) & (1L << localKey)) != 0L;
+    }
+
+    /**
+     * @return whether the key belongs to the snapshot and was not exported before
+     */
+    private boolean markExported(int shard, long localKey) {
+        AtomicLongArray bitmap = exported[shard];
+        if (!inSnapshot(bitmap, localKey)) {
+            return false;
+        }
+        long bit = 1L << localKey;
+        return (bitmap.getAndAccumulate((int) (localKey >>> 6), bit, (value, mask) -> value | mask) & bit) == 0L;
+    }
+}
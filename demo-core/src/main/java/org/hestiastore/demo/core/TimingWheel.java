@@ -0,0 +1,153 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of key deadlines: four levels of 64 slots, each
+ * level's slot spanning a full turn of the level below. An entry is filed by
+ * how far away its deadline is and moves one level down every time its slot
+ * comes around, so advancing the clock touches only due or cascading slots.
+ * Entries are kept in primitive arrays per slot; deadlines beyond the top
+ * level are parked in its farthest slot and re-filed when they cascade.
+ *
+ * <p>Not thread-safe; owned by the {@link ExpirationReaper} thread.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    interface ExpiredEntryHandler {
+        void expired(long key, long deadlineMillis);
+    }
+
+    private final long tickMillis;
+    private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+    private long currentTick;
+    private long size;
+
+    TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0L) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (Slot[] level : levels) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot();
+            }
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Start of the next tick that has not been processed yet.
+     */
+    long currentMillis() {
+        return currentTick * tickMillis;
+    }
+
+    void schedule(long key, long deadlineMillis) {
+        // Round up so an entry never fires before its deadline.
+        file(key, deadlineMillis, (deadlineMillis + tickMillis - 1L) / tickMillis);
+        size++;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis} and hands due entries to
+     * the handler.
+     *
+     * @return the number of expired entries
+     */
+    long advance(long nowMillis, ExpiredEntryHandler handler) {
+        long targetTick = nowMillis / tickMillis;
+        long expired = 0L;
+        while (currentTick <= targetTick) {
+            cascade();
+            Slot slot = levels[0][(int) (currentTick & SLOT_MASK)];
+            int count = slot.size;
+            long[] keys = slot.keys;
+            long[] deadlines = slot.deadlines;
+            slot.reset();
+            for (int i = 0; i < count; i++) {
+                if (deadlines[i] <= nowMillis) {
+                    size--;
+                    expired++;
+                    handler.expired(keys[i], deadlines[i]);
+                } else {
+                    file(keys[i], deadlines[i], currentTick + 1L);
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * At a level boundary, re-files the upper slots that now fall within the
+     * next turn of the level below, highest level first.
+     */
+    private void cascade() {
+        int top = 0;
+        while (top < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1L)) == 0L) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Slot slot = levels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            int count = slot.size;
+            long[] keys = slot.keys;
+            long[] deadlines = slot.deadlines;
+            slot.reset();
+            for (int i = 0; i < count; i++) {
+                file(keys[i], deadlines[i], (deadlines[i] + tickMillis - 1L) / tickMillis);
+            }
+        }
+    }
+
+    private void file(long key, long deadlineMillis, long tick) {
+        long dueTick = Math.max(tick, currentTick);
+        long delta = dueTick - currentTick;
+        for (int level = 0; level < LEVELS - 1; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                levels[level][(int) ((dueTick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(key, deadlineMillis);
+                return;
+            }
+        }
+        long parkedTick = Math.min(dueTick, currentTick + SPAN_TICKS - 1L);
+        levels[LEVELS - 1][(int) ((parkedTick >>> (SLOT_BITS * (LEVELS - 1))) & SLOT_MASK)].add(key, deadlineMillis);
+    }
+
+    private static final class Slot {
+        private static final long[] EMPTY = new long[0];
+
+        private long[] keys = EMPTY;
+        private long[] deadlines = EMPTY;
+        private int size;
+
+        private void add(long key, long deadlineMillis) {
+            if (size == keys.length) {
+                int capacity = Math.max(16, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            keys[size] = key;
+            deadlines[size] = deadlineMillis;
+            size++;
+        }
+
+        /**
+         * Detaches the current arrays; the caller iterates them while new
+         * entries go to fresh ones.
+         */
+        private void reset() {
+            keys = EMPTY;
+            deadlines = EMPTY;
+            size = 0;
+        }
+    }
+}
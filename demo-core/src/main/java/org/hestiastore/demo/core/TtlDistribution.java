@@ -0,0 +1,30 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shape of the time-to-live drawn for records written with an expiry.
+ */
+public enum TtlDistribution {
+    /**
+     * Every record lives exactly the mean TTL.
+     */
+    FIXED,
+    /**
+     * Uniform between zero and twice the mean.
+     */
+    UNIFORM,
+    /**
+     * Exponential with the given mean: most sessions are short, a few last long.
+     */
+    EXPONENTIAL;
+
+    public long sampleMillis(long meanMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (this) {
+            case FIXED -> meanMillis;
+            case UNIFORM -> random.nextLong(2L * meanMillis + 1L);
+            case EXPONENTIAL -> Math.round(-Math.log(1.0d - random.nextDouble()) * meanMillis);
+        };
+    }
+}
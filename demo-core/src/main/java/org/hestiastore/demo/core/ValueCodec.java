@@ -0,0 +1,126 @@
+package org.hestiastore.demo.core;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses payloads before they reach the store and restores them on read.
+ * Deflater/Inflater instances are pooled per worker thread, and payloads whose
+ * sampled prefix looks random are stored raw without invoking the compressor.
+ */
+public final class ValueCodec {
+    private static final int SAMPLE_SIZE = 256;
+    private static final double MAX_DISTINCT_BYTE_RATIO = 0.5d;
+
+    private final PayloadEncoding encoding;
+    private final DemoMetrics metrics;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters;
+    private final ThreadLocal<byte[]> scratchBuffers;
+
+    public ValueCodec(PayloadEncoding encoding, int compressionLevel, DemoMetrics metrics) {
+        this.encoding = encoding;
+        this.metrics = metrics;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(compressionLevel, true));
+        this.inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+        this.scratchBuffers = ThreadLocal.withInitial(() -> new byte[0]);
+    }
+
+    public ValueRecord encode(long version, long timestamp, byte[] payload) {
+        if (encoding == PayloadEncoding.RAW) {
+            return new ValueRecord(version, timestamp, payload);
+        }
+        if (!looksCompressible(payload)) {
+            metrics.recordCompressionSkipped(payload.length);
+            return new ValueRecord(version, timestamp, payload);
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] compressed = deflate(payload);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (compressed == null) {
+            metrics.recordCompression(payload.length, payload.length, elapsedNanos);
+            return new ValueRecord(version, timestamp, payload);
+        }
+        metrics.recordCompression(payload.length, compressed.length, elapsedNanos);
+        return new ValueRecord(version, timestamp, PayloadEncoding.DEFLATE, payload.length, compressed);
+    }
+
+    public byte[] decode(ValueRecord record) {
+        if (record.encoding() == PayloadEncoding.RAW) {
+            return record.payload();
+        }
+
+        long startNanos = System.nanoTime();
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(record.payload());
+        byte[] raw = new byte[record.rawLength()];
+        try {
+            int offset = 0;
+            while (offset < raw.length && !inflater.finished()) {
+                int read = inflater.inflate(raw, offset, raw.length - offset);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += read;
+            }
+            if (offset != raw.length) {
+                throw new IllegalStateException("Truncated compressed payload: " + offset + " of " + raw.length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed payload", e);
+        }
+        metrics.recordDecompression(System.nanoTime() - startNanos);
+        return raw;
+    }
+
+    /**
+     * Returns compressed bytes, or {@code null} when the output would not be
+     * smaller than the input.
+     */
+    private byte[] deflate(byte[] payload) {
+        byte[] scratch = scratchBuffers.get();
+        if (scratch.length < payload.length) {
+            scratch = new byte[payload.length];
+            scratchBuffers.set(scratch);
+        }
+
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(payload);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished() && length < payload.length - 1) {
+            length += deflater.deflate(scratch, length, payload.length - 1 - length);
+        }
+        if (!deflater.finished()) {
+            return null;
+        }
+        return Arrays.copyOf(scratch, length);
+    }
+
+    /**
+     * Counts distinct byte values in a prefix sample; random data covers most of
+     * the byte alphabet while compressible data reuses a small subset of it.
+     */
+    static boolean looksCompressible(byte[] payload) {
+        int sampleSize = Math.min(SAMPLE_SIZE, payload.length);
+        if (sampleSize == 0) {
+            return false;
+        }
+        long[] seen = new long[4];
+        int distinct = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            int value = payload[i] & 0xFF;
+            long mask = 1L << (value & 63);
+            if ((seen[value >>> 6] & mask) == 0L) {
+                seen[value >>> 6] |= mask;
+                distinct++;
+            }
+        }
+        return distinct <= sampleSize * MAX_DISTINCT_BYTE_RATIO;
+    }
+}
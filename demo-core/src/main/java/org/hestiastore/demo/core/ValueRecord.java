@@ -1,4 +1,54 @@
 package org.hestiastore.demo.core;
 
-public record ValueRecord(long version, long timestamp, byte[] payload) {
+public record ValueRecord(
+        long version,
+        long timestamp,
+        PayloadEncoding encoding,
+        int rawLength,
+        byte[] payload,
+        long checksum,
+        long expiresAtMillis
+) {
+    public static final long NO_CHECKSUM = -1L;
+    public static final long NO_EXPIRY = 0L;
+
+    public ValueRecord(long version, long timestamp, PayloadEncoding encoding, int rawLength, byte[] payload, long checksum) {
+        this(version, timestamp, encoding, rawLength, payload, checksum, NO_EXPIRY);
+    }
+
+    public ValueRecord(long version, long timestamp, PayloadEncoding encoding, int rawLength, byte[] payload) {
+        this(version, timestamp, encoding, rawLength, payload, NO_CHECKSUM);
+    }
+
+    public ValueRecord(long version, long timestamp, byte[] payload) {
+        this(version, timestamp, PayloadEncoding.RAW, payload.length, payload, NO_CHECKSUM);
+    }
+
+    public ValueRecord withVersion(long newVersion) {
+        return new ValueRecord(newVersion, timestamp, encoding, rawLength, payload, checksum, expiresAtMillis);
+    }
+
+    public ValueRecord withChecksum(long newChecksum) {
+        return new ValueRecord(version, timestamp, encoding, rawLength, payload, newChecksum, expiresAtMillis);
+    }
+
+    public ValueRecord withExpiry(long newExpiresAtMillis) {
+        return new ValueRecord(version, timestamp, encoding, rawLength, payload, checksum, newExpiresAtMillis);
+    }
+
+    public boolean expires() {
+        return expiresAtMillis != NO_EXPIRY;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis != NO_EXPIRY && expiresAtMillis <= nowMillis;
+    }
+
+    public boolean hasChecksum() {
+        return checksum != NO_CHECKSUM;
+    }
+
+    public int storedLength() {
+        return payload.length;
+    }
 }
@@ -0,0 +1,158 @@
+package org.hestiastore.demo.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-layout binary form of {@link ValueRecord}. All values are big-endian
+ * whatever the buffer's {@link ByteBuffer#order() order}, and are accessed at
+ * absolute offsets, so heap, direct and memory-mapped buffers are handled
+ * alike and the buffer position is untouched. Decoding rejects an unknown
+ * format version and a payload length that runs past the buffer limit.
+ *
+ * <pre>
+ * offset  size  field
+ *      0     8  version
+ *      8     8  timestamp
+ *     16     4  stored payload length
+ *     20     4  raw payload length (before compression)
+ *     24     1  payload encoding ordinal
+ *     25     1  flags (bit 0: checksum present)
+ *     26     2  format version ({@value #FORMAT_VERSION})
+ *     28     4  CRC32C of the record ({@link RecordChecksum}), 0 when absent
+ *     32     8  expiry (epoch millis), 0 when the record never expires
+ *     40     n  stored payload
+ * </pre>
+ */
+public final class ValueRecordBinaryCodec {
+    public static final int HEADER_SIZE = 40;
+    public static final short FORMAT_VERSION = 1;
+
+    static final int VERSION_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = 8;
+    static final int PAYLOAD_LENGTH_OFFSET = 16;
+    static final int RAW_LENGTH_OFFSET = 20;
+    static final int ENCODING_OFFSET = 24;
+    static final int FLAGS_OFFSET = 25;
+    static final int FORMAT_VERSION_OFFSET = 26;
+    static final int CHECKSUM_OFFSET = 28;
+    static final int EXPIRES_AT_OFFSET = 32;
+
+    static final byte FLAG_CHECKSUM = 0x01;
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    static final VarHandle SHORTS = MethodHandles.byteBufferViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final PayloadEncoding[] ENCODINGS = PayloadEncoding.values();
+
+    private final boolean checksumEnabled;
+    private final RecordChecksum checksums = new RecordChecksum();
+
+    public ValueRecordBinaryCodec(boolean checksumEnabled) {
+        this.checksumEnabled = checksumEnabled;
+    }
+
+    public int encodedLength(ValueRecord record) {
+        return HEADER_SIZE + record.payload().length;
+    }
+
+    /**
+     * Writes the record at {@code offset} and returns the number of bytes written.
+     */
+    public int encode(ValueRecord record, ByteBuffer target, int offset) {
+        byte[] payload = record.payload();
+        if (offset < 0 || payload.length > target.limit() - offset - HEADER_SIZE) {
+            throw new IndexOutOfBoundsException(
+                    "Record of " + HEADER_SIZE + " + " + payload.length + " bytes does not fit at offset " + offset);
+        }
+        int length = HEADER_SIZE + payload.length;
+
+        LONGS.set(target, offset + VERSION_OFFSET, record.version());
+        LONGS.set(target, offset + TIMESTAMP_OFFSET, record.timestamp());
+        INTS.set(target, offset + PAYLOAD_LENGTH_OFFSET, payload.length);
+        INTS.set(target, offset + RAW_LENGTH_OFFSET, record.rawLength());
+        target.put(offset + ENCODING_OFFSET, (byte) record.encoding().ordinal());
+        boolean withChecksum = checksumEnabled || record.hasChecksum();
+        target.put(offset + FLAGS_OFFSET, withChecksum ? FLAG_CHECKSUM : 0);
+        SHORTS.set(target, offset + FORMAT_VERSION_OFFSET, FORMAT_VERSION);
+        INTS.set(target, offset + CHECKSUM_OFFSET, withChecksum ? checksumOf(record) : 0);
+        LONGS.set(target, offset + EXPIRES_AT_OFFSET, record.expiresAtMillis());
+        target.put(offset + HEADER_SIZE, payload);
+        return length;
+    }
+
+    /**
+     * Materializes the record at {@code offset}. The payload is the only copy;
+     * use {@link ValueRecordView} to read fields without allocating.
+     *
+     * @throws IndexOutOfBoundsException if the header or payload runs past the limit
+     * @throws IllegalStateException if the format version is unknown or the checksum does not match
+     */
+    public ValueRecord decode(ByteBuffer source, int offset) {
+        int payloadLength = payloadLength(source, offset);
+        byte[] payload = new byte[payloadLength];
+        source.get(offset + HEADER_SIZE, payload);
+        ValueRecord record = new ValueRecord(
+                (long) LONGS.get(source, offset + VERSION_OFFSET),
+                (long) LONGS.get(source, offset + TIMESTAMP_OFFSET),
+                encoding(source.get(offset + ENCODING_OFFSET)),
+                (int) INTS.get(source, offset + RAW_LENGTH_OFFSET),
+                payload,
+                ValueRecord.NO_CHECKSUM,
+                (long) LONGS.get(source, offset + EXPIRES_AT_OFFSET)
+        );
+        if ((source.get(offset + FLAGS_OFFSET) & FLAG_CHECKSUM) == 0) {
+            return record;
+        }
+        long stored = Integer.toUnsignedLong((int) INTS.get(source, offset + CHECKSUM_OFFSET));
+        if (stored != checksums.of(record)) {
+            throw new IllegalStateException("Checksum mismatch for record at offset " + offset);
+        }
+        return record.withChecksum(stored);
+    }
+
+    /**
+     * Reads the stored payload length of the record at {@code offset} after
+     * checking the header fits, the format version is known and the payload
+     * ends within the limit, so a corrupt length never sizes an allocation.
+     */
+    static int payloadLength(ByteBuffer source, int offset) {
+        int available = source.limit() - offset - HEADER_SIZE;
+        if (offset < 0 || available < 0) {
+            throw new IndexOutOfBoundsException("No record header at offset " + offset);
+        }
+        short formatVersion = (short) SHORTS.get(source, offset + FORMAT_VERSION_OFFSET);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported record format version " + formatVersion + " at offset " + offset);
+        }
+        int payloadLength = (int) INTS.get(source, offset + PAYLOAD_LENGTH_OFFSET);
+        if (payloadLength < 0 || payloadLength > available) {
+            throw new IndexOutOfBoundsException("Payload of " + payloadLength + " bytes at offset " + offset
+                    + " exceeds the " + available + " bytes left in the buffer");
+        }
+        return payloadLength;
+    }
+
+    private int checksumOf(ValueRecord record) {
+        return (int) (record.hasChecksum() ? record.checksum() : checksums.of(record));
+    }
+
+    /**
+     * Checks the stored checksum of a record read in place by {@link ValueRecordView}.
+     */
+    boolean checksumMatches(ValueRecordView view) {
+        long computed = checksums.of(view.version(), view.timestamp(), view.rawLength(), view.encoding(),
+                view.expiresAtMillis(), view.payload());
+        return computed == Integer.toUnsignedLong(view.checksum());
+    }
+
+    static PayloadEncoding encoding(byte ordinal) {
+        if (ordinal < 0 || ordinal >= ENCODINGS.length) {
+            throw new IllegalStateException("Unknown payload encoding: " + ordinal);
+        }
+        return ENCODINGS[ordinal];
+    }
+}
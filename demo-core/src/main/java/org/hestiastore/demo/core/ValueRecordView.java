@@ -0,0 +1,77 @@
+package org.hestiastore.demo.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight over an encoded {@link ValueRecord}. Fields are read in place from
+ * the wrapped buffer, big-endian like the codec writes them; one instance can
+ * be re-pointed at successive records. {@link #wrap} checks the format version
+ * and that the payload ends within the buffer limit.
+ */
+public final class ValueRecordView {
+    private final ValueRecordBinaryCodec codec;
+    private ByteBuffer buffer;
+    private int offset;
+
+    public ValueRecordView(ValueRecordBinaryCodec codec) {
+        this.codec = codec;
+    }
+
+    public ValueRecordView wrap(ByteBuffer buffer, int offset) {
+        ValueRecordBinaryCodec.payloadLength(buffer, offset);
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public long version() {
+        return (long) ValueRecordBinaryCodec.LONGS.get(buffer, offset + ValueRecordBinaryCodec.VERSION_OFFSET);
+    }
+
+    public long timestamp() {
+        return (long) ValueRecordBinaryCodec.LONGS.get(buffer, offset + ValueRecordBinaryCodec.TIMESTAMP_OFFSET);
+    }
+
+    public int payloadLength() {
+        return (int) ValueRecordBinaryCodec.INTS.get(buffer, offset + ValueRecordBinaryCodec.PAYLOAD_LENGTH_OFFSET);
+    }
+
+    public int rawLength() {
+        return (int) ValueRecordBinaryCodec.INTS.get(buffer, offset + ValueRecordBinaryCodec.RAW_LENGTH_OFFSET);
+    }
+
+    public PayloadEncoding encoding() {
+        return ValueRecordBinaryCodec.encoding(buffer.get(offset + ValueRecordBinaryCodec.ENCODING_OFFSET));
+    }
+
+    public boolean hasChecksum() {
+        return (buffer.get(offset + ValueRecordBinaryCodec.FLAGS_OFFSET) & ValueRecordBinaryCodec.FLAG_CHECKSUM) != 0;
+    }
+
+    public int checksum() {
+        return (int) ValueRecordBinaryCodec.INTS.get(buffer, offset + ValueRecordBinaryCodec.CHECKSUM_OFFSET);
+    }
+
+    public long expiresAtMillis() {
+        return (long) ValueRecordBinaryCodec.LONGS.get(buffer, offset + ValueRecordBinaryCodec.EXPIRES_AT_OFFSET);
+    }
+
+    public int encodedLength() {
+        return ValueRecordBinaryCodec.HEADER_SIZE + payloadLength();
+    }
+
+    /**
+     * Returns a slice sharing the wrapped buffer's memory.
+     */
+    public ByteBuffer payload() {
+        return buffer.slice(offset + ValueRecordBinaryCodec.HEADER_SIZE, payloadLength());
+    }
+
+    public boolean verifyChecksum() {
+        return !hasChecksum() || codec.checksumMatches(this);
+    }
+
+    public ValueRecord toRecord() {
+        return codec.decode(buffer, offset);
+    }
+}
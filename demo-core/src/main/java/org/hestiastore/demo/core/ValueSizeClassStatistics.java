@@ -0,0 +1,24 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Written values and operation latency of one power-of-two value-size class.
+ *
+ * @param label size class, by its upper bound
+ * @param upperBoundBytes largest payload in the class, {@link Long#MAX_VALUE} for the last one
+ * @param writtenValues values of this size written by PUT and UPDATE since start
+ * @param writtenBytes payload bytes of those values
+ * @param writtenPercent share of all written values
+ * @param opsPerSecond operations that read or wrote a value of this size in the last window
+ */
+public record ValueSizeClassStatistics(
+        String label,
+        long upperBoundBytes,
+        long writtenValues,
+        long writtenBytes,
+        double writtenPercent,
+        long opsPerSecond,
+        double avgLatencyMs,
+        double p50LatencyMs,
+        double p99LatencyMs
+) {
+}
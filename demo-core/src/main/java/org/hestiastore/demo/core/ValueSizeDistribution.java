@@ -0,0 +1,25 @@
+package org.hestiastore.demo.core;
+
+/**
+ * Shape of the payload sizes written by PUT and UPDATE.
+ */
+public enum ValueSizeDistribution {
+    /**
+     * Every value has the configured size.
+     */
+    FIXED,
+    /**
+     * Uniform between the minimum and maximum size.
+     */
+    UNIFORM,
+    /**
+     * Log-normal around the configured median size, between the minimum and
+     * its own ceiling: most values are small, a long tail is much larger.
+     */
+    LOG_NORMAL,
+    /**
+     * The configured size, except for a fraction of large values; models
+     * metadata stores that occasionally hold blobs.
+     */
+    BIMODAL
+}
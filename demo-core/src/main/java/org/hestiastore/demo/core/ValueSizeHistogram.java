@@ -0,0 +1,93 @@
+package org.hestiastore.demo.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Value sizes in power-of-two classes from 64 B to 1 MiB plus one overflow
+ * class: counts every written value since start and keeps a window latency
+ * histogram per class, so latency can be compared across value sizes.
+ */
+public final class ValueSizeHistogram {
+    private static final int MIN_EXPONENT = 6;
+    private static final int MAX_EXPONENT = 20;
+    public static final int CLASSES = MAX_EXPONENT - MIN_EXPONENT + 2;
+
+    private final LongAdder[] writtenValues = new LongAdder[CLASSES];
+    private final LongAdder[] writtenBytes = new LongAdder[CLASSES];
+    private final LatencyHistogram[] windowLatency = new LatencyHistogram[CLASSES];
+
+    ValueSizeHistogram() {
+        for (int i = 0; i < CLASSES; i++) {
+            writtenValues[i] = new LongAdder();
+            writtenBytes[i] = new LongAdder();
+            windowLatency[i] = new LatencyHistogram();
+        }
+    }
+
+    public static int classIndex(int sizeBytes) {
+        if (sizeBytes <= 1 << MIN_EXPONENT) {
+            return 0;
+        }
+        int exponent = 32 - Integer.numberOfLeadingZeros(sizeBytes - 1);
+        return Math.min(CLASSES - 1, exponent - MIN_EXPONENT);
+    }
+
+    public static long upperBoundBytes(int index) {
+        return index == CLASSES - 1 ? Long.MAX_VALUE : 1L << (index + MIN_EXPONENT);
+    }
+
+    public static String label(int index) {
+        if (index == CLASSES - 1) {
+            return ">" + sizeLabel(1L << MAX_EXPONENT);
+        }
+        return "<=" + sizeLabel(upperBoundBytes(index));
+    }
+
+    private static String sizeLabel(long bytes) {
+        if (bytes >= 1L << 20) {
+            return (bytes >> 20) + "MB";
+        }
+        if (bytes >= 1L << 10) {
+            return (bytes >> 10) + "KB";
+        }
+        return bytes + "B";
+    }
+
+    void recordWrite(int sizeBytes) {
+        int index = classIndex(sizeBytes);
+        writtenValues[index].increment();
+        writtenBytes[index].add(sizeBytes);
+    }
+
+    void recordLatency(int sizeBytes, long latencyMicros) {
+        windowLatency[classIndex(sizeBytes)].record(latencyMicros);
+    }
+
+    List<ValueSizeClassStatistics> snapshotAndResetWindow() {
+        long[] values = new long[CLASSES];
+        long totalValues = 0L;
+        for (int i = 0; i < CLASSES; i++) {
+            values[i] = writtenValues[i].sum();
+            totalValues += values[i];
+        }
+        List<ValueSizeClassStatistics> classes = new ArrayList<>(CLASSES);
+        for (int i = 0; i < CLASSES; i++) {
+            long[] latency = windowLatency[i].snapshotAndReset();
+            long totalMicros = windowLatency[i].takeTotalMicros();
+            long ops = LatencyHistogram.count(latency);
+            classes.add(new ValueSizeClassStatistics(
+                    label(i),
+                    upperBoundBytes(i),
+                    values[i],
+                    writtenBytes[i].sum(),
+                    values[i] * 100.0d / Math.max(1L, totalValues),
+                    ops,
+                    ops == 0L ? 0.0d : totalMicros / 1000.0d / ops,
+                    LatencyHistogram.percentileMicros(latency, 0.50d) / 1000.0d,
+                    LatencyHistogram.percentileMicros(latency, 0.99d) / 1000.0d));
+        }
+        return List.copyOf(classes);
+    }
+}
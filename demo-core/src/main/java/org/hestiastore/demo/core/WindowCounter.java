@@ -0,0 +1,36 @@
+package org.hestiastore.demo.core;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter on the worker hot path that also yields the amount added
+ * since the previous window. Workers add to a {@link LongAdder}, so they do
+ * not contend on one cache line; the window is the difference between two
+ * sums, so nothing added while a window closes is lost.
+ */
+final class WindowCounter {
+    private final LongAdder total = new LongAdder();
+    private long windowStart;
+
+    void increment() {
+        total.increment();
+    }
+
+    void add(long amount) {
+        total.add(amount);
+    }
+
+    long total() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the amount added since the previous call and starts a new window.
+     */
+    synchronized long takeWindow() {
+        long sum = total.sum();
+        long window = sum - windowStart;
+        windowStart = sum;
+        return window;
+    }
+}
@@ -1,26 +1,80 @@
 package org.hestiastore.demo.core;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
 
 public final class WorkloadEngine {
+    private static final int MAX_UPDATE_ATTEMPTS = 16;
+    private static final int MEMORY_VALIDATION_WINDOWS = 30;
+    private static final int MEMORY_VALIDATION_SAMPLES = 4096;
+
     private final DemoConfiguration configuration;
-    private final InMemoryStore store;
+    private final ShardedStore store;
     private final PayloadGenerator payloadGenerator;
     private final ZipfLikeKeySelector keySelector;
     private final DemoMetrics metrics;
+    private final ValueCodec valueCodec;
+    private final IntegrityVerifier integrityVerifier;
+    private final double operationEventSampleRate;
+    private final SlowOperationSampler slowOperationSampler;
+    private final OperationCostProbe costProbe;
+    private final StoreMemoryValidator memoryValidator;
+    private final ShardRouting shardRouting;
+    private final double shardAffinity;
+    private final ShardOperationCounters shardCounters;
+    private final FrontCache frontCache;
+    private final ExpirationReaper expirationReaper;
+    private final HotKeyTracker hotKeys;
+    private final LongFunction<ValueRecord> storeReader;
 
     private final ExecutorService executor;
     private final AtomicBoolean running;
+    private long windows;
 
-    public WorkloadEngine(DemoConfiguration configuration, InMemoryStore store, DemoMetrics metrics) {
+    public WorkloadEngine(
+            DemoConfiguration configuration,
+            ShardedStore store,
+            DemoMetrics metrics,
+            ValueCodec valueCodec,
+            IntegrityVerifier integrityVerifier,
+            double operationEventSampleRate,
+            SlowOperationSampler slowOperationSampler,
+            OperationCostProbe costProbe,
+            ShardRouting shardRouting,
+            double shardAffinity,
+            FrontCache frontCache,
+            ExpirationReaper expirationReaper,
+            HotKeyTracker hotKeys,
+            PayloadGenerator payloadGenerator
+    ) {
+        if (operationEventSampleRate < 0.0d || operationEventSampleRate > 1.0d) {
+            throw new IllegalArgumentException("Operation event sample rate must be within [0.0, 1.0]");
+        }
+        if (shardAffinity < 0.0d || shardAffinity > 1.0d) {
+            throw new IllegalArgumentException("Shard affinity must be within [0.0, 1.0]");
+        }
         this.configuration = configuration;
         this.store = store;
         this.metrics = metrics;
-        this.payloadGenerator = new PayloadGenerator();
+        this.valueCodec = valueCodec;
+        this.integrityVerifier = integrityVerifier;
+        this.operationEventSampleRate = operationEventSampleRate;
+        this.slowOperationSampler = slowOperationSampler;
+        this.costProbe = costProbe;
+        this.memoryValidator = new StoreMemoryValidator(store, MEMORY_VALIDATION_SAMPLES, costProbe);
+        this.shardRouting = shardRouting;
+        this.shardAffinity = shardAffinity;
+        this.shardCounters = new ShardOperationCounters(store.shardCount());
+        this.frontCache = frontCache;
+        this.expirationReaper = expirationReaper;
+        this.hotKeys = hotKeys;
+        this.storeReader = store::get;
+        this.payloadGenerator = payloadGenerator;
         this.keySelector = new ZipfLikeKeySelector(2.5d);
         this.executor = Executors.newFixedThreadPool(configuration.threads());
         this.running = new AtomicBoolean(false);
@@ -29,7 +83,8 @@ public final class WorkloadEngine {
     public void start() {
         running.set(true);
         for (int i = 0; i < configuration.threads(); i++) {
-            executor.submit(this::workerLoop);
+            int homeShard = i % store.shardCount();
+            executor.submit(() -> workerLoop(homeShard));
         }
     }
 
@@ -48,50 +103,286 @@ public final class WorkloadEngine {
 
     public RuntimeMetricsSnapshot snapshotAndResetWindow() {
         metrics.setKeyCount(store.size());
-        return metrics.snapshotAndResetWindow();
+        metrics.setLiveKeyIndexBytes(store.liveKeyIndexBytes());
+        metrics.setSlowOperations(slowOperationSampler.snapshotAndReset());
+        metrics.setStoreMemory(store.memoryUsage());
+        List<ShardStatistics> shards = shardCounters.snapshotAndReset(store);
+        metrics.setShardStatistics(shards, ShardOperationCounters.skew(shards));
+        metrics.setFrontCache(frontCache == null ? FrontCacheStatistics.DISABLED : frontCache.snapshotAndResetWindow());
+        metrics.setExpiration(expirationReaper == null
+                ? ExpirationStatistics.DISABLED
+                : expirationReaper.snapshotAndResetWindow());
+        if (windows++ % MEMORY_VALIDATION_WINDOWS == 0L) {
+            metrics.setStoreMemoryDrift(memoryValidator.driftPercent());
+        }
+        RuntimeMetricsSnapshot snapshot = metrics.snapshotAndResetWindow();
+
+        SnapshotWindowEvent event = new SnapshotWindowEvent();
+        if (event.isEnabled()) {
+            event.operations = snapshot.opsPerSecond();
+            event.keyCount = snapshot.keyCount();
+            event.avgLatencyMs = snapshot.avgLatencyMs();
+            event.p99LatencyMs = snapshot.p99LatencyMs();
+            event.gteHitRatio = snapshot.gteHitRatio();
+            event.commit();
+        }
+        return snapshot;
+    }
+
+    private void workerLoop(int homeShard) {
+        SlowOperationReservoir slowOperations = slowOperationSampler.register();
+        try {
+            runOperations(slowOperations, homeShard);
+        } finally {
+            slowOperationSampler.unregister(slowOperations);
+        }
     }
 
-    private void workerLoop() {
+    private void runOperations(SlowOperationReservoir slowOperations, int homeShard) {
         while (running.get()) {
             try {
                 OperationType op = chooseOperation();
+                int affineShard = affineShard(homeShard);
+                WorkloadOperationEvent event = sampleOperationEvent();
+                boolean costSampled = costProbe.shouldSample();
+                long allocatedBefore = costSampled ? costProbe.allocatedBytes() : 0L;
+                long cpuBefore = costSampled ? costProbe.cpuNanos() : 0L;
+                if (event != null) {
+                    event.begin();
+                }
                 long startNanos = System.nanoTime();
+                long key = -1L;
+                long rank = -1L;
+                int payloadSize = 0;
+                boolean found = false;
                 boolean bloomHit = false;
                 boolean registryHit = false;
 
                 switch (op) {
                     case GTE -> {
                         if (!store.isEmpty()) {
-                            long key = keySelector.nextKey(Math.max(1L, store.nextKey()));
-                            ValueRecord record = store.get(key);
+                            if (ThreadLocalRandom.current().nextDouble() < configuration.gteHitTarget()) {
+                                rank = nextLiveRank(affineShard);
+                                key = liveKeyAt(rank);
+                            } else {
+                                key = nextMissKey(affineShard);
+                            }
+                            ValueRecord record = key < 0L ? null : unexpired(read(key));
+                            if (record != null) {
+                                if (hotKeys != null) {
+                                    hotKeys.record(key);
+                                }
+                                integrityVerifier.verifySampled(key, record);
+                                payloadSize = valueCodec.decode(record).length;
+                                metrics.recordLogicalRead(payloadSize);
+                            }
+                            metrics.recordGteLookup(record != null);
+                            found = record != null;
                             bloomHit = record != null;
                             registryHit = ThreadLocalRandom.current().nextInt(100) < 97;
                         }
                     }
                     case PUT -> {
-                        long key = store.allocateKey();
-                        store.put(key, new ValueRecord(1L, System.currentTimeMillis(), payloadGenerator.generate()));
+                        key = store.shard(affineShard >= 0
+                                ? affineShard
+                                : ThreadLocalRandom.current().nextInt(store.shardCount())).allocateKey();
+                        byte[] payload = payloadGenerator.generate();
+                        long nowMillis = System.currentTimeMillis();
+                        long expiresAtMillis = expirationReaper == null
+                                ? ValueRecord.NO_EXPIRY
+                                : expirationReaper.nextExpiresAt(nowMillis);
+                        ValueRecord record = integrityVerifier.stamp(
+                                valueCodec.encode(1L, nowMillis, payload).withExpiry(expiresAtMillis));
+                        store.put(key, record);
+                        if (expiresAtMillis != ValueRecord.NO_EXPIRY) {
+                            expirationReaper.schedule(key, expiresAtMillis);
+                        }
+                        if (frontCache != null) {
+                            frontCache.writeThrough(key, record);
+                        }
+                        metrics.recordLogicalWrite(payload.length);
+                        payloadSize = payload.length;
+                        found = true;
                         bloomHit = true;
                         registryHit = true;
                     }
+                    case UPDATE -> {
+                        if (!store.isEmpty()) {
+                            rank = nextLiveRank(affineShard);
+                            key = liveKeyAt(rank);
+                            byte[] payload = payloadGenerator.generate();
+                            found = key >= 0L && update(key, payload);
+                            payloadSize = payload.length;
+                            bloomHit = found;
+                            registryHit = ThreadLocalRandom.current().nextInt(100) < 97;
+                        }
+                    }
                     case DELETE -> {
                         if (!store.isEmpty()) {
-                            long key = keySelector.nextKey(Math.max(1L, store.nextKey()));
-                            ValueRecord deleted = store.delete(key);
-                            bloomHit = deleted != null;
+                            rank = nextLiveRank(affineShard);
+                            key = liveKeyAt(rank);
+                            ValueRecord deleted = key < 0L ? null : store.delete(key);
+                            if (deleted != null && frontCache != null) {
+                                frontCache.invalidate(key);
+                            }
+                            found = deleted != null && !deleted.isExpired(System.currentTimeMillis());
+                            bloomHit = found;
                             registryHit = ThreadLocalRandom.current().nextInt(100) < 95;
                         }
                     }
                 }
 
                 long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+                if (costSampled) {
+                    metrics.recordOperationCost(op, costProbe.allocatedBytes() - allocatedBefore, costProbe.cpuNanos() - cpuBefore);
+                }
                 metrics.record(op, latencyMicros, bloomHit, registryHit);
+                if (found && payloadSize > 0) {
+                    metrics.recordValueLatency(payloadSize, latencyMicros);
+                }
+                if (key >= 0L && store.shardCount() > 1) {
+                    shardCounters.record(store.shardOf(key));
+                }
+                slowOperations.record(op, key, rank, payloadSize, latencyMicros);
+                if (event != null && event.shouldCommit()) {
+                    event.operation = op.name();
+                    event.key = key;
+                    event.payloadSize = payloadSize;
+                    event.found = found;
+                    event.bloomHit = bloomHit;
+                    event.registryHit = registryHit;
+                    event.commit();
+                }
             } catch (Exception ignored) {
                 // Keep workers alive while recording long-running workload characteristics.
             }
         }
     }
 
+    /**
+     * Returns an enabled event for a sampled fraction of operations, or
+     * {@code null}; unsampled operations pay only for the random draw. The
+     * caller begins it next to the latency clock so the event duration
+     * excludes the cost probe reads.
+     */
+    private WorkloadOperationEvent sampleOperationEvent() {
+        if (operationEventSampleRate <= 0.0d || ThreadLocalRandom.current().nextDouble() >= operationEventSampleRate) {
+            return null;
+        }
+        WorkloadOperationEvent event = new WorkloadOperationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        return event;
+    }
+
+    private ValueRecord read(long key) {
+        return frontCache == null ? store.get(key) : frontCache.get(key, storeReader);
+    }
+
+    /**
+     * Hides a record whose TTL has passed but which the reaper has not
+     * reclaimed yet, so reads never observe expired data.
+     */
+    private ValueRecord unexpired(ValueRecord record) {
+        if (record == null || !record.isExpired(System.currentTimeMillis())) {
+            return record;
+        }
+        if (expirationReaper != null) {
+            expirationReaper.recordExpiredRead();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the home shard when this operation stays thread-affine, or -1
+     * when it is routed by key hash.
+     */
+    private int affineShard(int homeShard) {
+        if (shardRouting != ShardRouting.AFFINE) {
+            return -1;
+        }
+        return ThreadLocalRandom.current().nextDouble() < shardAffinity ? homeShard : -1;
+    }
+
+    /**
+     * Draws a Zipf rank over the live key set, so the hottest ranks always
+     * resolve to existing keys no matter how many low IDs were deleted.
+     * Affine operations draw over their shard's keys and map the local rank
+     * back onto the interleaved global ranks of {@link ShardedStore}.
+     */
+    private long nextLiveRank(int affineShard) {
+        if (affineShard >= 0) {
+            long liveKeys = store.shard(affineShard).liveKeyCount();
+            if (liveKeys <= 0L) {
+                return -1L;
+            }
+            return keySelector.nextKey(liveKeys) * store.shardCount() + affineShard;
+        }
+        long liveKeys = store.liveKeyCount();
+        if (liveKeys <= 0L) {
+            return -1L;
+        }
+        return keySelector.nextKey(liveKeys);
+    }
+
+    private long liveKeyAt(long rank) {
+        return rank < 0L ? -1L : store.liveKeyAt(rank);
+    }
+
+    /**
+     * Picks a deleted key from the Zipf-skewed allocated range of one shard,
+     * falling back to a never-allocated key when the sampled keys are all live.
+     */
+    private long nextMissKey(int affineShard) {
+        InMemoryStore shard = store.shard(affineShard >= 0
+                ? affineShard
+                : ThreadLocalRandom.current().nextInt(store.shardCount()));
+        long allocated = Math.max(1L, shard.allocatedKeys());
+        for (int attempt = 0; attempt < 4; attempt++) {
+            long key = shard.globalKey(keySelector.nextKey(allocated));
+            if (!shard.isLive(key)) {
+                return key;
+            }
+        }
+        return shard.globalKey(allocated + ThreadLocalRandom.current().nextLong(allocated));
+    }
+
+    /**
+     * Optimistic read-modify-write: the new record is built from the version
+     * that was read and installed only if that record is still current.
+     * Losers re-read and retry without taking any lock.
+     *
+     * @return whether the new record was installed; {@code false} when the
+     *         key is gone or every attempt lost the race
+     */
+    private boolean update(long key, byte[] payload) {
+        ValueRecord template = valueCodec.encode(0L, System.currentTimeMillis(), payload);
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            ValueRecord current = store.get(key);
+            if (current == null || current.isExpired(System.currentTimeMillis())) {
+                metrics.recordUpdateMiss();
+                return false;
+            }
+            ValueRecord updated = integrityVerifier.stamp(template.withVersion(current.version() + 1L)
+                    .withExpiry(current.expiresAtMillis()));
+            if (store.compareAndSet(key, current, updated)) {
+                if (frontCache != null) {
+                    frontCache.writeThrough(key, updated);
+                }
+                metrics.recordLogicalWrite(payload.length);
+                if (attempt > 0) {
+                    metrics.recordUpdateRetries(attempt);
+                }
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        metrics.recordUpdateRetries(MAX_UPDATE_ATTEMPTS);
+        metrics.recordUpdateAbandoned();
+        return false;
+    }
+
     private OperationType chooseOperation() {
         double value = ThreadLocalRandom.current().nextDouble();
         if (value < configuration.gteRatio()) {
@@ -100,6 +391,9 @@ public final class WorkloadEngine {
         if (value < configuration.gteRatio() + configuration.putRatio()) {
             return OperationType.PUT;
         }
+        if (value < configuration.gteRatio() + configuration.putRatio() + configuration.updateRatio()) {
+            return OperationType.UPDATE;
+        }
         return OperationType.DELETE;
     }
 }
@@ -0,0 +1,37 @@
+package org.hestiastore.demo.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Sampled workload operation; the event duration is the operation latency.
+ */
+@Name("org.hestiastore.demo.WorkloadOperation")
+@Label("Workload Operation")
+@Category({"HestiaStore Demo", "Workload"})
+@Description("Sampled GTE/PUT/UPDATE/DELETE executed by the workload engine")
+public final class WorkloadOperationEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key")
+    public long key;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadSize;
+
+    @Label("Found")
+    public boolean found;
+
+    @Label("Bloom Filter Hit")
+    public boolean bloomHit;
+
+    @Label("Simulated Registry Cache Hit")
+    @Description("Drawn at random with a 95-97% hit rate; the in-memory store has no registry cache")
+    public boolean registryHit;
+}
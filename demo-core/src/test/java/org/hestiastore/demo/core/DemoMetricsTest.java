@@ -0,0 +1,55 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DemoMetricsTest {
+    private DemoMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new DemoMetrics(
+                DemoConfiguration.defaults(1, 1_000L, 0.6d, 0.15d, 0.15d, 0.1d, 0.9d),
+                new SteadyStateDetector(10, 0.1d, 0.2d));
+    }
+
+    @Test
+    void windowRatesResetWhileTotalsKeepCounting() {
+        metrics.record(OperationType.GTE, 10L, true, true);
+        metrics.record(OperationType.PUT, 20L, false, false);
+        metrics.recordLogicalWrite(100);
+        metrics.recordGteLookup(true);
+
+        RuntimeMetricsSnapshot first = metrics.snapshotAndResetWindow();
+        assertEquals(2L, first.opsPerSecond());
+        assertEquals(1L, first.gtePerSecond());
+        assertEquals(100L, first.writeBytesPerSecond());
+        assertEquals(2L, LatencyHistogram.count(first.latencyHistogram()));
+
+        metrics.record(OperationType.GTE, 10L, true, true);
+        RuntimeMetricsSnapshot second = metrics.snapshotAndResetWindow();
+        assertEquals(1L, second.opsPerSecond());
+        assertEquals(0L, second.writeBytesPerSecond());
+        assertEquals(3L, second.totalOps());
+        assertEquals(2L, metrics.totalOps(OperationType.GTE));
+        assertEquals(1L, second.gteHits());
+        assertEquals(100L, second.logicalBytesWritten());
+    }
+
+    @Test
+    void singleShardIsReportedWithAllWindowOperations() {
+        metrics.setShardStatistics(List.of(new ShardStatistics(0, 0L, 5L, 0.0d)), 1.0d);
+        metrics.record(OperationType.GTE, 10L, true, true);
+        metrics.record(OperationType.PUT, 20L, false, false);
+
+        ShardStatistics shard = metrics.snapshotAndResetWindow().shardStatistics().get(0);
+
+        assertEquals(2L, shard.opsPerSecond());
+        assertEquals(5L, shard.keyCount());
+        assertEquals(100.0d, shard.sharePercent());
+    }
+}
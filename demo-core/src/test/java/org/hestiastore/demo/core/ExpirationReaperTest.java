@@ -0,0 +1,43 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpirationReaperTest {
+    private static final long NOW = 1_000_000L;
+
+    private ShardedStore store;
+    private ExpirationReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        store = new ShardedStore(2, 4L);
+        reaper = new ExpirationReaper(store, null, 0.0d, TtlDistribution.FIXED, 60_000L, 10L);
+    }
+
+    @Test
+    void scheduleLoadedDropsExpiredRecordsAndFilesTheRest() {
+        store.seed(0L, new ValueRecord(1L, 0L, new byte[] {1}));
+        store.seed(1L, new ValueRecord(1L, 0L, new byte[] {2}).withExpiry(NOW - 1L));
+        store.seed(2L, new ValueRecord(1L, 0L, new byte[] {3}).withExpiry(NOW));
+        store.seed(3L, new ValueRecord(1L, 0L, new byte[] {4}).withExpiry(NOW + 5_000L));
+
+        assertEquals(1L, reaper.scheduleLoaded(NOW));
+
+        assertNotNull(store.get(0L));
+        assertNull(store.get(1L));
+        assertNull(store.get(2L));
+        assertNotNull(store.get(3L));
+        assertEquals(2L, store.size());
+        assertEquals(1L, reaper.snapshotAndResetWindow().pending());
+    }
+
+    @Test
+    void withoutTtlRatioNoRecordIsGivenAnExpiry() {
+        assertEquals(ValueRecord.NO_EXPIRY, reaper.nextExpiresAt(NOW));
+    }
+}
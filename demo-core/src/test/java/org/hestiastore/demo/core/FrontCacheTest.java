@@ -0,0 +1,134 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrontCacheTest {
+    private static final int CAPACITY = 10;
+
+    private FrontCache cache;
+    private Map<Long, ValueRecord> store;
+    private LongFunction<ValueRecord> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FrontCache(CAPACITY, 0L);
+        store = new ConcurrentHashMap<>();
+        for (long key = 0L; key < 100L; key++) {
+            store.put(key, record(1L));
+        }
+        loader = store::get;
+    }
+
+    @Test
+    void loaderThatRacedAWriterDoesNotLeaveTheStaleRecordCached() {
+        ValueRecord stale = store.get(5L);
+        ValueRecord fresh = record(2L);
+        AtomicInteger loads = new AtomicInteger();
+        LongFunction<ValueRecord> racing = key -> {
+            if (loads.getAndIncrement() == 0) {
+                return stale;
+            }
+            // The writer replaced the record after the first load returned.
+            store.put(key, fresh);
+            return fresh;
+        };
+
+        assertSame(stale, cache.get(5L, racing));
+        assertSame(fresh, cache.get(5L, loader));
+        assertEquals(0L, cache.snapshotAndResetWindow().hits());
+        assertSame(fresh, cache.get(5L, loader));
+        assertEquals(1L, cache.snapshotAndResetWindow().hits());
+    }
+
+    @Test
+    void loaderThatRacedADeleteDoesNotCacheTheDeletedRecord() {
+        ValueRecord stale = store.get(6L);
+        AtomicInteger loads = new AtomicInteger();
+        assertSame(stale, cache.get(6L, key -> loads.getAndIncrement() == 0 ? stale : null));
+
+        store.remove(6L);
+        assertNull(cache.get(6L, loader));
+        assertEquals(0L, cache.snapshotAndResetWindow().entries());
+    }
+
+    @Test
+    void writeThroughOnlyReplacesCachedRecordsWithNewerVersions() {
+        cache.writeThrough(1L, record(5L));
+        assertEquals(1L, cache.get(1L, loader).version());
+
+        cache.writeThrough(1L, record(3L));
+        assertEquals(3L, cache.get(1L, loader).version());
+        cache.writeThrough(1L, record(2L));
+        assertEquals(3L, cache.get(1L, loader).version());
+    }
+
+    @Test
+    void writeThroughAfterInvalidateDoesNotResurrectTheKey() {
+        cache.get(2L, loader);
+        cache.invalidate(2L);
+        cache.writeThrough(2L, record(9L));
+
+        assertEquals(1L, cache.get(2L, loader).version());
+        FrontCacheStatistics statistics = cache.snapshotAndResetWindow();
+        assertEquals(0L, statistics.hits());
+        assertEquals(2L, statistics.misses());
+    }
+
+    @Test
+    void keyReadAgainInTheSmallQueueIsPromotedAndSurvivesAScan() {
+        cache.get(0L, loader);
+        cache.get(0L, loader);
+        for (long key = 1L; key <= 30L; key++) {
+            cache.get(key, loader);
+        }
+        cache.snapshotAndResetWindow();
+
+        cache.get(0L, loader);
+        cache.get(1L, loader);
+        FrontCacheStatistics statistics = cache.snapshotAndResetWindow();
+        assertEquals(1L, statistics.hits());
+        assertEquals(1L, statistics.misses());
+        assertTrue(statistics.entries() <= CAPACITY);
+    }
+
+    @Test
+    void ghostHitGoesStraightToMain() {
+        for (long key = 1L; key <= 20L; key++) {
+            cache.get(key, loader);
+        }
+        // Key 1 left the small queue unread, so only its ghost remains.
+        cache.get(1L, loader);
+        for (long key = 21L; key <= 40L; key++) {
+            cache.get(key, loader);
+        }
+        cache.snapshotAndResetWindow();
+
+        cache.get(1L, loader);
+        cache.get(21L, loader);
+        FrontCacheStatistics statistics = cache.snapshotAndResetWindow();
+        assertEquals(1L, statistics.hits());
+        assertEquals(1L, statistics.misses());
+    }
+
+    @Test
+    void rejectsMissingBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new FrontCache(0L, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new FrontCache(-1L, 10L));
+    }
+
+    private static ValueRecord record(long version) {
+        return new ValueRecord(version, 0L, new byte[16]);
+    }
+}
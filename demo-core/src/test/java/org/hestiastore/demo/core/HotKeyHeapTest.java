@@ -0,0 +1,69 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotKeyHeapTest {
+
+    @Test
+    void admitsUntilFullThenOnlyKeysBeatingTheColdest() {
+        HotKeyHeap heap = new HotKeyHeap(3);
+        heap.offer(1L, 5);
+        heap.offer(2L, 3);
+        assertFalse(heap.isFull());
+        heap.offer(3L, 7);
+        assertTrue(heap.isFull());
+        assertEquals(3, heap.minCount());
+
+        heap.offer(4L, 3);
+        assertArrayEquals(new long[] {3L, 1L, 2L}, heap.keysByCountDescending());
+
+        heap.offer(4L, 4);
+        assertArrayEquals(new long[] {3L, 1L, 4L}, heap.keysByCountDescending());
+        assertEquals(4, heap.minCount());
+    }
+
+    @Test
+    void raisesHeldKeyWithoutDuplicatingIt() {
+        HotKeyHeap heap = new HotKeyHeap(2);
+        heap.offer(1L, 1);
+        heap.offer(2L, 2);
+        heap.offer(1L, 9);
+        heap.offer(1L, 4);
+        assertEquals(2, heap.size());
+        assertEquals(2, heap.minCount());
+        assertArrayEquals(new long[] {1L, 2L}, heap.keysByCountDescending());
+    }
+
+    @Test
+    void halvingDropsKeysThatReachZero() {
+        HotKeyHeap heap = new HotKeyHeap(3);
+        heap.offer(1L, 1);
+        heap.offer(2L, 8);
+        heap.offer(3L, 5);
+        heap.halve();
+        assertEquals(2, heap.size());
+        assertEquals(2, heap.minCount());
+        assertArrayEquals(new long[] {2L, 3L}, heap.keysByCountDescending());
+
+        heap.offer(1L, 1);
+        assertArrayEquals(new long[] {2L, 3L, 1L}, heap.keysByCountDescending());
+    }
+
+    @Test
+    void keepsTheLargestCountsUnderChurn() {
+        HotKeyHeap heap = new HotKeyHeap(16);
+        for (int key = 0; key < 1000; key++) {
+            heap.offer(key, (key * 7919) % 1000);
+        }
+        long[] top = heap.keysByCountDescending();
+        assertEquals(16, top.length);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(999 - i, (top[i] * 7919) % 1000);
+        }
+    }
+}
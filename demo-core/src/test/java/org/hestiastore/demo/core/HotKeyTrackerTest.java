@@ -0,0 +1,40 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotKeyTrackerTest {
+
+    @Test
+    void reportsHottestKeysFirst() {
+        HotKeyTracker tracker = new HotKeyTracker(2, 1.0d);
+        for (int i = 0; i < 30; i++) {
+            tracker.record(7L);
+        }
+        for (int i = 0; i < 20; i++) {
+            tracker.record(3L);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(5L);
+        }
+        assertArrayEquals(new long[] {7L, 3L}, tracker.topKeys());
+    }
+
+    @Test
+    void decayLetsNewHotKeysDisplaceOldOnes() {
+        HotKeyTracker tracker = new HotKeyTracker(1, 1.0d);
+        for (int i = 0; i < 8; i++) {
+            tracker.record(1L);
+        }
+        for (int round = 0; round < 4; round++) {
+            tracker.decay();
+        }
+        assertEquals(0, tracker.topKeys().length);
+        for (int i = 0; i < 3; i++) {
+            tracker.record(2L);
+        }
+        assertArrayEquals(new long[] {2L}, tracker.topKeys());
+    }
+}
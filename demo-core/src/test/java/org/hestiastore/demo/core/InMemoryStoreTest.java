@@ -0,0 +1,37 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryStoreTest {
+    private InMemoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore(4L);
+    }
+
+    @Test
+    void memoryUsageFollowsPutReplaceAndDelete() {
+        ValueRecord small = new ValueRecord(1L, 0L, new byte[10]);
+        ValueRecord large = new ValueRecord(2L, 0L, new byte[100]);
+
+        store.put(0L, small);
+        store.put(1L, small);
+        assertEquals(20L, store.memoryUsage().payloadBytes());
+
+        assertTrue(store.compareAndSet(1L, small, large));
+        StoreMemoryUsage usage = store.memoryUsage();
+        assertEquals(110L, usage.payloadBytes());
+        assertEquals(ObjectLayout.CURRENT.recordBytes(small) + ObjectLayout.CURRENT.recordBytes(large),
+                usage.recordBytes());
+
+        store.delete(0L);
+        store.delete(1L);
+        assertEquals(0L, store.memoryUsage().payloadBytes());
+        assertEquals(0L, store.memoryUsage().recordBytes());
+    }
+}
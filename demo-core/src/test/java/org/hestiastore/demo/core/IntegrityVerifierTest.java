@@ -0,0 +1,75 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntegrityVerifierTest {
+    private static final ValueRecord RECORD =
+            new ValueRecord(3L, 500L, PayloadEncoding.RAW, 4, new byte[] {9, 8, 7, 6}, ValueRecord.NO_CHECKSUM, 60_000L);
+
+    private DemoMetrics metrics;
+    private IntegrityVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new DemoMetrics(
+                DemoConfiguration.defaults(1, 1_000L, 0.6d, 0.15d, 0.15d, 0.1d, 0.9d),
+                new SteadyStateDetector(10, 0.1d, 0.2d));
+        verifier = new IntegrityVerifier(1.0d, metrics);
+    }
+
+    @Test
+    void stampedRecordVerifies() {
+        assertTrue(verifier.verify(1L, verifier.stamp(RECORD)));
+        RuntimeMetricsSnapshot snapshot = metrics.snapshotAndResetWindow();
+        assertEquals(0L, snapshot.integrityFailures());
+        assertEquals(-1L, snapshot.lastIntegrityFailureKey());
+    }
+
+    @Test
+    void recordWithoutChecksumIsNotCounted() {
+        assertTrue(verifier.verify(1L, RECORD));
+        assertEquals(0L, metrics.snapshotAndResetWindow().verifiedRecords());
+    }
+
+    @Test
+    void damagedPayloadFails() {
+        ValueRecord stamped = verifier.stamp(RECORD);
+        stamped.payload()[0] ^= 1;
+
+        assertFalse(verifier.verify(7L, stamped));
+        RuntimeMetricsSnapshot snapshot = metrics.snapshotAndResetWindow();
+        assertEquals(1L, snapshot.integrityFailures());
+        assertEquals(7L, snapshot.lastIntegrityFailureKey());
+    }
+
+    @Test
+    void damagedHeaderFieldsFail() {
+        ValueRecord stamped = verifier.stamp(RECORD);
+
+        assertFalse(verifier.verify(1L, stamped.withVersion(4L)));
+        assertFalse(verifier.verify(1L, stamped.withExpiry(60_001L)));
+        assertFalse(verifier.verify(1L, new ValueRecord(stamped.version(), stamped.timestamp(), PayloadEncoding.DEFLATE,
+                stamped.rawLength(), stamped.payload(), stamped.checksum(), stamped.expiresAtMillis())));
+        assertFalse(verifier.verify(1L, new ValueRecord(stamped.version(), stamped.timestamp(), stamped.encoding(),
+                5, stamped.payload(), stamped.checksum(), stamped.expiresAtMillis())));
+    }
+
+    @Test
+    void agreesWithTheBinaryCodec() {
+        ValueRecordBinaryCodec codec = new ValueRecordBinaryCodec(true);
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+        codec.encode(RECORD, buffer, 0);
+
+        ValueRecord decoded = codec.decode(buffer, 0);
+
+        assertEquals(verifier.stamp(RECORD).checksum(), decoded.checksum());
+        assertTrue(verifier.verify(1L, decoded));
+    }
+}
@@ -0,0 +1,62 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void snapshotMergesStripesAndResets() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int thread = 0; thread < 4; thread++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        histogram.record(100L);
+                    }
+                });
+            }
+        }
+        long[] buckets = histogram.snapshotAndReset();
+        assertEquals(4000L, LatencyHistogram.count(buckets));
+        assertEquals(4000L, buckets[LatencyHistogram.bucketIndex(100L)]);
+        assertEquals(400_000L, histogram.takeTotalMicros());
+
+        assertEquals(0L, LatencyHistogram.count(histogram.snapshotAndReset()));
+        assertEquals(0L, histogram.takeTotalMicros());
+    }
+
+    @Test
+    void bucketBoundsContainTheirValues() {
+        for (long micros : new long[] {0L, 7L, 8L, 100L, 12_345L, 1L << 26}) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            long lower = LatencyHistogram.bucketLowerBound(index);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(lower <= micros && micros <= upper, micros + " in " + lower + ".." + upper);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void percentileIsTheMidpointOfTheRankBucket() {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(3L);
+        }
+        histogram.record(5L);
+        long[] buckets = histogram.snapshotAndReset();
+        assertEquals(3.0d, LatencyHistogram.percentileMicros(buckets, 0.99d));
+        assertEquals(5.0d, LatencyHistogram.percentileMicros(buckets, 1.0d));
+        assertEquals(0.0d, LatencyHistogram.percentileMicros(new long[LatencyHistogram.BUCKETS], 0.5d));
+    }
+}
@@ -0,0 +1,74 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveKeyBitmapTest {
+    private static final long CHUNK = 1L << 16;
+    private static final long GROUP = 1L << 22;
+
+    private LiveKeyBitmap bitmap;
+
+    @BeforeEach
+    void setUp() {
+        bitmap = new LiveKeyBitmap();
+    }
+
+    @Test
+    void selectWalksKeysInAscendingOrderAcrossChunksAndGroups() {
+        long[] keys = {
+                0L, 63L, 64L, CHUNK - 1L, CHUNK, CHUNK + 1L,
+                GROUP - 1L, GROUP, 3L * GROUP + 5L, 10L * GROUP
+        };
+        for (int i = keys.length - 1; i >= 0; i--) {
+            assertTrue(bitmap.set(keys[i]));
+        }
+        assertEquals(keys.length, bitmap.cardinality());
+        for (int rank = 0; rank < keys.length; rank++) {
+            assertEquals(keys[rank], bitmap.select(rank), "rank " + rank);
+        }
+        assertEquals(-1L, bitmap.select(keys.length));
+    }
+
+    @Test
+    void selectMatchesASortedReferenceUnderRandomSetsAndClears() {
+        TreeSet<Long> reference = new TreeSet<>();
+        Random random = new Random(11L);
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(3 * (int) GROUP);
+            if (random.nextInt(4) == 0) {
+                assertEquals(reference.remove(key), bitmap.clear(key));
+            } else {
+                assertEquals(reference.add(key), bitmap.set(key));
+            }
+        }
+        assertEquals(reference.size(), bitmap.cardinality());
+        List<Long> sorted = new ArrayList<>(reference);
+        for (int rank = 0; rank < sorted.size(); rank += 97) {
+            assertEquals(sorted.get(rank), bitmap.select(rank), "rank " + rank);
+        }
+        assertEquals(sorted.get(sorted.size() - 1), bitmap.select(sorted.size() - 1L));
+    }
+
+    @Test
+    void setAndClearReportWhetherTheKeyChanged() {
+        assertFalse(bitmap.clear(7L));
+        assertTrue(bitmap.set(7L));
+        assertFalse(bitmap.set(7L));
+        assertTrue(bitmap.contains(7L));
+        assertTrue(bitmap.clear(7L));
+        assertFalse(bitmap.contains(7L));
+        assertFalse(bitmap.contains(5L * GROUP));
+        assertEquals(0L, bitmap.cardinality());
+        assertEquals(-1L, bitmap.select(0L));
+    }
+}
@@ -0,0 +1,50 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadGeneratorTest {
+
+    @Test
+    void uniformStaysWithinInclusiveBounds() {
+        PayloadGenerator generator = new PayloadGenerator(
+                ValueSizeDistribution.UNIFORM, 0, 10, 12, 12, 0.0d, 0.0d, 0);
+        for (int i = 0; i < 1000; i++) {
+            int size = generator.generate().length;
+            assertTrue(size >= 10 && size <= 12, "size " + size);
+        }
+    }
+
+    @Test
+    void logNormalTailIsNotClampedToTheUniformMaximum() {
+        PayloadGenerator generator = new PayloadGenerator(
+                ValueSizeDistribution.LOG_NORMAL, 1024, 200, 2000, 1 << 20, 1.0d, 0.0d, 0);
+        int largest = 0;
+        for (int i = 0; i < 5000; i++) {
+            int size = generator.generate().length;
+            assertTrue(size >= 200 && size <= 1 << 20, "size " + size);
+            largest = Math.max(largest, size);
+        }
+        assertTrue(largest > 2000, "largest " + largest);
+    }
+
+    @Test
+    void fixedAlwaysUsesTheConfiguredSize() {
+        PayloadGenerator generator = new PayloadGenerator(
+                ValueSizeDistribution.FIXED, 77, 0, 0, 0, 0.0d, 0.0d, 0);
+        assertEquals(77, generator.generate().length);
+    }
+
+    @Test
+    void rejectsBoundsThatCannotBeSampled() {
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(
+                ValueSizeDistribution.UNIFORM, 0, 0, Integer.MAX_VALUE, Integer.MAX_VALUE, 0.0d, 0.0d, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(
+                ValueSizeDistribution.UNIFORM, 0, 20, 10, 20, 0.0d, 0.0d, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(
+                ValueSizeDistribution.LOG_NORMAL, 100, 50, 60, 40, 1.0d, 0.0d, 0));
+    }
+}
@@ -0,0 +1,38 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardOperationCountersTest {
+    private ShardedStore store;
+    private ShardOperationCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        store = new ShardedStore(2, 0L);
+        counters = new ShardOperationCounters(2);
+    }
+
+    @Test
+    void windowCountsResetBetweenSnapshots() {
+        counters.record(0);
+        counters.record(1);
+        counters.record(1);
+        counters.record(1);
+
+        List<ShardStatistics> first = counters.snapshotAndReset(store);
+        assertEquals(1L, first.get(0).opsPerSecond());
+        assertEquals(3L, first.get(1).opsPerSecond());
+        assertEquals(75.0d, first.get(1).sharePercent());
+        assertEquals(1.5d, ShardOperationCounters.skew(first));
+
+        counters.record(0);
+        List<ShardStatistics> second = counters.snapshotAndReset(store);
+        assertEquals(1L, second.get(0).opsPerSecond());
+        assertEquals(0L, second.get(1).opsPerSecond());
+    }
+}
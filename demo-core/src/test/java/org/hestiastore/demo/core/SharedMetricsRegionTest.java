@@ -0,0 +1,94 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SharedMetricsRegionTest {
+    private static final int METRICS = SharedMetric.values().length;
+
+    @TempDir
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve(SharedMetricsRegion.FILE_NAME);
+    }
+
+    @Test
+    void readerSeesWhatTheWriterPublished() throws IOException {
+        long[] values = new long[METRICS];
+        long[] histogram = new long[LatencyHistogram.BUCKETS];
+        for (int i = 0; i < METRICS; i++) {
+            values[i] = 100L + i;
+        }
+        histogram[3] = 7L;
+
+        try (SharedMetricsRegion writer = SharedMetricsRegion.create(file, 42L, 1_000L);
+             SharedMetricsRegion reader = SharedMetricsRegion.open(file)) {
+            writer.write(values, histogram, 2_000L);
+
+            long[] readValues = new long[METRICS];
+            long[] readHistogram = new long[LatencyHistogram.BUCKETS];
+            assertEquals(2_000L, reader.read(readValues, readHistogram));
+            assertArrayEquals(values, readValues);
+            assertArrayEquals(histogram, readHistogram);
+            assertEquals(42L, reader.pid());
+            assertEquals(1_000L, reader.startedAtMillis());
+
+            writer.write(new long[METRICS], null, 3_000L);
+            assertEquals(3_000L, reader.read(readValues, readHistogram));
+            assertArrayEquals(new long[METRICS], readValues);
+            assertArrayEquals(histogram, readHistogram);
+        }
+    }
+
+    @Test
+    void openRejectsAMismatchedLayout() throws IOException {
+        SharedMetricsRegion.create(file, 1L, 0L).close();
+        overwrite(4, ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, 99));
+
+        assertThrows(IOException.class, () -> SharedMetricsRegion.open(file));
+    }
+
+    @Test
+    void openRejectsATruncatedFile() throws IOException {
+        Files.write(file, new byte[16]);
+
+        assertThrows(IOException.class, () -> SharedMetricsRegion.open(file));
+    }
+
+    @Test
+    void readGivesUpWhileTheSequenceIsOdd() throws IOException {
+        try (SharedMetricsRegion writer = SharedMetricsRegion.create(file, 1L, 0L);
+             SharedMetricsRegion reader = SharedMetricsRegion.open(file)) {
+            writer.write(new long[METRICS], new long[LatencyHistogram.BUCKETS], 500L);
+            overwrite(8, ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 3L));
+
+            assertEquals(-1L, reader.read(new long[METRICS], new long[LatencyHistogram.BUCKETS]));
+
+            overwrite(8, ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 4L));
+            assertEquals(500L, reader.read(new long[METRICS], new long[LatencyHistogram.BUCKETS]));
+        }
+    }
+
+    private void overwrite(long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+        }
+    }
+}
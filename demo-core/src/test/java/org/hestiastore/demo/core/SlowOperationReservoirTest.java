@@ -0,0 +1,67 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowOperationReservoirTest {
+    private static final long FLOOR = 100L;
+
+    private SlowOperationReservoir reservoir;
+
+    @BeforeEach
+    void setUp() {
+        reservoir = new SlowOperationReservoir(3, FLOOR);
+    }
+
+    @Test
+    void keepsOnlyTheSlowestOperations() {
+        for (long latency : new long[] {150L, 900L, 120L, 400L, 700L, 130L, 500L}) {
+            reservoir.record(OperationType.GTE, latency, -1L, 0, latency);
+        }
+
+        assertEquals(List.of(500L, 700L, 900L), latencies(reservoir.drain()));
+    }
+
+    @Test
+    void ignoresOperationsAtOrBelowTheFloor() {
+        reservoir.record(OperationType.PUT, 1L, -1L, 0, FLOOR);
+        reservoir.record(OperationType.PUT, 2L, -1L, 0, FLOOR - 1L);
+
+        assertTrue(reservoir.drain().isEmpty());
+    }
+
+    @Test
+    void thresholdRisesOnlyOnceTheHeapIsFull() {
+        reservoir.record(OperationType.GTE, 1L, -1L, 0, 300L);
+        reservoir.record(OperationType.GTE, 2L, -1L, 0, 200L);
+        assertEquals(FLOOR, reservoir.threshold());
+
+        reservoir.record(OperationType.GTE, 3L, -1L, 0, 250L);
+        assertEquals(200L, reservoir.threshold());
+
+        reservoir.record(OperationType.GTE, 4L, -1L, 0, 260L);
+        assertEquals(250L, reservoir.threshold());
+    }
+
+    @Test
+    void drainResetsTheThresholdToTheFloor() {
+        for (long latency = 1_000L; latency < 1_003L; latency++) {
+            reservoir.record(OperationType.DELETE, latency, -1L, 0, latency);
+        }
+        assertEquals(1_000L, reservoir.threshold());
+
+        assertEquals(3, reservoir.drain().size());
+        assertEquals(FLOOR, reservoir.threshold());
+        reservoir.record(OperationType.DELETE, 9L, -1L, 0, FLOOR + 1L);
+        assertEquals(List.of(FLOOR + 1L), latencies(reservoir.drain()));
+    }
+
+    private static List<Long> latencies(List<SlowOperation> operations) {
+        return operations.stream().map(SlowOperation::latencyMicros).sorted().toList();
+    }
+}
@@ -0,0 +1,64 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowOperationSamplerTest {
+    private SlowOperationSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        sampler = new SlowOperationSampler(2, 10L, null);
+    }
+
+    @Test
+    void mergesWorkerReservoirsIntoTheWindowTopN() {
+        SlowOperationReservoir first = sampler.register();
+        SlowOperationReservoir second = sampler.register();
+        first.record(OperationType.GTE, 1L, -1L, 0, 50L);
+        first.record(OperationType.GTE, 2L, -1L, 0, 400L);
+        second.record(OperationType.PUT, 3L, -1L, 0, 300L);
+        second.record(OperationType.PUT, 4L, -1L, 0, 20L);
+
+        assertEquals(List.of(400L, 300L), latencies(sampler.snapshotAndReset()));
+        assertTrue(sampler.snapshotAndReset().isEmpty());
+    }
+
+    @Test
+    void sinceStartKeepsTheSlowestAcrossWindows() {
+        SlowOperationReservoir reservoir = sampler.register();
+        reservoir.record(OperationType.GTE, 1L, -1L, 0, 500L);
+        reservoir.record(OperationType.GTE, 2L, -1L, 0, 100L);
+        sampler.snapshotAndReset();
+
+        reservoir.record(OperationType.GTE, 3L, -1L, 0, 300L);
+        reservoir.record(OperationType.GTE, 4L, -1L, 0, 50L);
+        assertEquals(List.of(300L, 50L), latencies(sampler.snapshotAndReset()));
+
+        assertEquals(List.of(500L, 300L), latencies(sampler.slowestSinceStart()));
+    }
+
+    @Test
+    void unregisteredReservoirsAreNotDrained() {
+        SlowOperationReservoir reservoir = sampler.register();
+        reservoir.record(OperationType.UPDATE, 1L, -1L, 0, 500L);
+        sampler.unregister(reservoir);
+
+        assertTrue(sampler.snapshotAndReset().isEmpty());
+    }
+
+    @Test
+    void rejectsNonPositiveTopN() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowOperationSampler(0, 10L, null));
+    }
+
+    private static List<Long> latencies(List<SlowOperation> operations) {
+        return operations.stream().map(SlowOperation::latencyMicros).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SteadyStateDetectorTest {
+    private static final long WINDOW_MILLIS = 1_000L;
+
+    private SteadyStateDetector detector;
+    private long startedBefore;
+    private long startedAfter;
+    private long nowMillis;
+
+    @BeforeEach
+    void setUp() {
+        startedBefore = System.currentTimeMillis();
+        detector = new SteadyStateDetector(3, 0.1d, 0.2d);
+        startedAfter = System.currentTimeMillis();
+        nowMillis = startedAfter;
+    }
+
+    @Test
+    void staysInWarmUpUntilEnoughWindowsAreSeen() {
+        SteadyStateStatistics first = window(1000L, 100L);
+        assertFalse(first.reached());
+        assertEquals(-1L, first.warmupMillis());
+        assertEquals(-1.0d, first.opsCoefficientOfVariation());
+
+        assertFalse(window(1000L, 100L).reached());
+        assertEquals(-1L, detector.warmupMillis());
+    }
+
+    @Test
+    void warmUpEndsAtTheStartOfTheFirstStableStretch() {
+        window(100L, 5_000L);
+        window(500L, 3_000L);
+        assertFalse(window(1000L, 100L).reached());
+        assertFalse(window(1000L, 100L).reached());
+        SteadyStateStatistics steady = window(1000L, 100L);
+
+        assertTrue(steady.reached());
+        assertWarmup(2L * WINDOW_MILLIS, steady.warmupMillis());
+        assertEquals(3.0d, steady.steadySeconds(), 0.01d);
+        assertEquals(1000.0d, steady.steadyOpsPerSecond(), 1.0d);
+        assertEquals(0.1d, steady.steadyAvgLatencyMs(), 1e-9d);
+        assertTrue(steady.steadyP99LatencyMs() < 0.11d, "steady p99 " + steady.steadyP99LatencyMs());
+        assertTrue(steady.lifetimeP99LatencyMs() > 1.0d, "lifetime p99 " + steady.lifetimeP99LatencyMs());
+        assertTrue(steady.lifetimeOpsPerSecond() < steady.steadyOpsPerSecond());
+        assertEquals(0.0d, steady.opsCoefficientOfVariation(), 1e-3d);
+    }
+
+    @Test
+    void laterWindowsExtendTheSteadyFiguresAndDetectionHappensOnce() {
+        for (int i = 0; i < 3; i++) {
+            window(1000L, 100L);
+        }
+        long warmup = detector.warmupMillis();
+        assertWarmup(0L, warmup);
+
+        SteadyStateStatistics later = window(4000L, 9_000L);
+        assertTrue(later.reached());
+        assertEquals(warmup, later.warmupMillis());
+        assertEquals(4.0d, later.steadySeconds(), 0.01d);
+        assertEquals(1750.0d, later.steadyOpsPerSecond(), 2.0d);
+        assertTrue(later.opsCoefficientOfVariation() > 0.1d);
+    }
+
+    @Test
+    void noisyThroughputNeverSettles() {
+        for (int i = 0; i < 12; i++) {
+            assertFalse(window(i % 2 == 0 ? 500L : 1500L, 100L).reached());
+        }
+    }
+
+    @Test
+    void rejectsFewerThanTwoWindows() {
+        assertThrows(IllegalArgumentException.class, () -> new SteadyStateDetector(1, 0.1d, 0.2d));
+    }
+
+    private SteadyStateStatistics window(long ops, long latencyMicros) {
+        nowMillis += WINDOW_MILLIS;
+        long[] histogram = new long[LatencyHistogram.BUCKETS];
+        histogram[LatencyHistogram.bucketIndex(latencyMicros)] = ops;
+        return detector.onWindow(ops, histogram, ops * latencyMicros, nowMillis);
+    }
+
+    /**
+     * The detector reads the clock itself on construction, so its start is
+     * only known to lie between the two readings around it.
+     */
+    private void assertWarmup(long expectedAfterStart, long actual) {
+        long slack = startedAfter - startedBefore;
+        assertTrue(actual >= expectedAfterStart && actual <= expectedAfterStart + slack,
+                "warm-up " + actual + ", expected " + expectedAfterStart + " (+" + slack + ")");
+    }
+}
@@ -0,0 +1,34 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreMemoryValidatorTest {
+    private ShardedStore store;
+    private StoreMemoryValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        store = new ShardedStore(2, 512L);
+        validator = new StoreMemoryValidator(store, 256, new OperationCostProbe(0.0d));
+    }
+
+    @Test
+    void emptyStoreHasNoDrift() {
+        assertEquals(0.0d, validator.driftPercent());
+    }
+
+    @Test
+    void accountingMatchesMeasuredRecordSizes() {
+        for (long key = 0L; key < 512L; key++) {
+            store.seed(key, new ValueRecord(1L, 0L, new byte[1000]));
+        }
+
+        double drift = validator.driftPercent();
+
+        assertTrue(Math.abs(drift) < 1.0d, "drift " + drift);
+    }
+}
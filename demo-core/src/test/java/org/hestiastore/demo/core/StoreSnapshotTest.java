@@ -0,0 +1,156 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreSnapshotTest {
+    private static final int WRITERS = 4;
+    private static final int KEYS = 4096;
+
+    private ShardedStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ShardedStore(3, KEYS);
+    }
+
+    @Test
+    void exportsTheStateAtOpenAndIgnoresLaterWrites() throws Exception {
+        store.put(0L, record(1L));
+        store.put(1L, record(1L));
+        store.put(2L, record(1L));
+
+        Map<Long, Long> exported = new HashMap<>();
+        try (StoreSnapshot snapshot = store.openSnapshot()) {
+            store.put(0L, record(2L));
+            store.delete(1L);
+            store.put(3L, record(2L));
+            store.put(3L, record(3L));
+            store.delete(3L);
+            store.put(4L, record(2L));
+            assertEquals(3L, snapshot.expectedRecords());
+            snapshot.export((key, value) -> assertNull(exported.put(key, value.version())));
+            assertEquals(4L, snapshot.preservedRecords());
+        }
+
+        assertEquals(Map.of(0L, 1L, 1L, 1L, 2L, 1L), exported);
+        assertEquals(2L, store.get(0L).version());
+        assertNull(store.get(1L));
+        assertEquals(2L, store.get(4L).version());
+    }
+
+    @Test
+    void onlyOneSnapshotIsOpenAtATime() {
+        StoreSnapshot first = store.openSnapshot();
+        assertThrows(IllegalStateException.class, store::openSnapshot);
+        first.close();
+        store.openSnapshot().close();
+    }
+
+    /**
+     * Each writer owns the keys congruent to its id and logs every write in
+     * order. Writes are linearized by the gate, so the export must equal the
+     * state after some prefix of every writer's log, including keys that were
+     * absent at the snapshot and written during the export.
+     */
+    @Test
+    void exportWhileWritersRunEqualsACutOfEveryWritersHistory() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Future<List<long[]>>> logs = new ArrayList<>();
+        Map<Long, Long> exported = new HashMap<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(WRITERS)) {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int id = writer;
+                logs.add(executor.submit(() -> write(id, running)));
+            }
+            Thread.sleep(50L);
+            try (StoreSnapshot snapshot = store.openSnapshot()) {
+                snapshot.export((key, value) -> {
+                    assertNull(exported.put(key, value.version()), "exported twice: " + key);
+                    Thread.onSpinWait();
+                });
+            }
+            Thread.sleep(20L);
+            running.set(false);
+        }
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Map<Long, Long> expected = new HashMap<>();
+            for (Map.Entry<Long, Long> entry : exported.entrySet()) {
+                if (entry.getKey() % WRITERS == writer) {
+                    expected.put(entry.getKey(), entry.getValue());
+                }
+            }
+            assertTrue(matchesAPrefix(logs.get(writer).get(), expected), "writer " + writer);
+        }
+    }
+
+    private List<long[]> write(int writer, AtomicBoolean running) {
+        Random random = new Random(writer);
+        List<long[]> log = new ArrayList<>();
+        long version = 0L;
+        while (running.get()) {
+            long key = random.nextInt(KEYS / WRITERS) * (long) WRITERS + writer;
+            if (random.nextInt(3) == 0) {
+                store.delete(key);
+                log.add(new long[] {key, -1L});
+            } else {
+                version++;
+                store.put(key, record(version));
+                log.add(new long[] {key, version});
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Replays the log and reports whether the state after some prefix equals
+     * {@code expected}, tracking the number of differing keys incrementally.
+     */
+    private static boolean matchesAPrefix(List<long[]> log, Map<Long, Long> expected) {
+        Map<Long, Long> state = new HashMap<>();
+        int mismatches = expected.size();
+        if (mismatches == 0) {
+            return true;
+        }
+        for (long[] write : log) {
+            long key = write[0];
+            Long value = write[1] < 0L ? null : write[1];
+            Long wanted = expected.get(key);
+            boolean matchedBefore = Objects.equals(state.get(key), wanted);
+            if (value == null) {
+                state.remove(key);
+            } else {
+                state.put(key, value);
+            }
+            boolean matchesNow = Objects.equals(state.get(key), wanted);
+            if (matchedBefore != matchesNow) {
+                mismatches += matchesNow ? -1 : 1;
+            }
+            if (mismatches == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ValueRecord record(long version) {
+        return new ValueRecord(version, 0L, new byte[] {(byte) version});
+    }
+}
@@ -0,0 +1,154 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    private static final long LEVEL_1 = 64L;
+    private static final long LEVEL_2 = 64L * 64L;
+    private static final long LEVEL_3 = 64L * 64L * 64L;
+    private static final long SPAN = 64L * 64L * 64L * 64L;
+
+    private TimingWheel wheel;
+    private Map<Long, Long> firedAt;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel(1L, 0L);
+        firedAt = new HashMap<>();
+        now = 0L;
+    }
+
+    @Test
+    void firesExactlyOnTheDeadlineTickAcrossLevelBoundaries() {
+        long[] deadlines = {
+                1L, LEVEL_1 - 1L, LEVEL_1, LEVEL_1 + 1L,
+                LEVEL_2 - 1L, LEVEL_2, LEVEL_2 + 1L,
+                LEVEL_3 - 1L, LEVEL_3, LEVEL_3 + 1L
+        };
+        for (long deadline : deadlines) {
+            wheel.schedule(deadline, deadline);
+        }
+        stepTo(LEVEL_3 + 2L);
+
+        assertEquals(deadlines.length, firedAt.size());
+        for (long deadline : deadlines) {
+            assertEquals(deadline, firedAt.get(deadline), "deadline " + deadline);
+        }
+        assertEquals(0L, wheel.size());
+    }
+
+    @Test
+    void entriesFiledMidTurnStillFireOnTime() {
+        stepTo(LEVEL_1 * 3L + 17L);
+        long[] offsets = {LEVEL_1 - 1L, LEVEL_1, LEVEL_2 - 17L, LEVEL_2, LEVEL_2 + 63L, LEVEL_3 + 5L};
+        for (long offset : offsets) {
+            wheel.schedule(now + offset, now + offset);
+        }
+        long base = now;
+        stepTo(base + LEVEL_3 + 6L);
+        for (long offset : offsets) {
+            assertEquals(base + offset, firedAt.get(base + offset), "offset " + offset);
+        }
+    }
+
+    @Test
+    void entryParkedBeyondTheSpanFiresAfterCascading() {
+        long far = SPAN * 3L + 12_345L;
+        wheel.schedule(1L, far);
+        wheel.schedule(2L, SPAN + 1L);
+
+        advanceTo(SPAN);
+        assertTrue(firedAt.isEmpty());
+        assertEquals(2L, wheel.size());
+
+        advanceTo(SPAN + 1L);
+        assertEquals(SPAN + 1L, firedAt.get(2L));
+
+        advanceTo(far - 1L);
+        assertEquals(1, firedAt.size());
+        advanceTo(far);
+        assertEquals(far, firedAt.get(1L));
+        assertEquals(0L, wheel.size());
+    }
+
+    @Test
+    void catchesUpAfterALongGapWithoutFiringLaterDeadlines() {
+        for (long key = 0L; key < 1000L; key++) {
+            wheel.schedule(key, key * 997L);
+        }
+        long expired = advanceTo(500_000L);
+
+        long due = 500_000L / 997L + 1L;
+        assertEquals(due, expired);
+        assertEquals(1000L - due, wheel.size());
+        for (Map.Entry<Long, Long> entry : firedAt.entrySet()) {
+            assertTrue(entry.getKey() * 997L <= now);
+        }
+        stepTo(1000L * 997L);
+        assertEquals(1000, firedAt.size());
+        for (long key = due; key < 1000L; key++) {
+            assertEquals(key * 997L, firedAt.get(key));
+        }
+    }
+
+    @Test
+    void firesOnTheFirstAdvancePastTheRoundedUpDeadlineWithCoarseTicks() {
+        long tick = 7L;
+        wheel = new TimingWheel(tick, 1_000_003L);
+        now = 1_000_003L;
+        Random random = new Random(42L);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long key = 0L; key < 5000L; key++) {
+            long deadline = now + 1L + (long) Math.pow(2.0d, random.nextDouble() * 22.0d);
+            deadlines.put(key, deadline);
+            wheel.schedule(key, deadline);
+        }
+        long previous = now;
+        while (wheel.size() > 0L) {
+            advanceTo(now + 1L + random.nextInt(5000));
+            for (Map.Entry<Long, Long> entry : deadlines.entrySet()) {
+                Long fired = firedAt.get(entry.getKey());
+                long dueMillis = (entry.getValue() + tick - 1L) / tick * tick;
+                if (fired == null) {
+                    assertTrue(dueMillis > now, "missed: " + entry);
+                } else if (fired == now) {
+                    assertTrue(dueMillis > previous, "late: " + entry);
+                }
+            }
+            previous = now;
+        }
+        assertEquals(deadlines.size(), firedAt.size());
+    }
+
+    @Test
+    void rejectsNonPositiveTick() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(0L, 0L));
+    }
+
+    private long advanceTo(long target) {
+        now = target;
+        return wheel.advance(now, this::fired);
+    }
+
+    private void stepTo(long target) {
+        while (now < target) {
+            now++;
+            wheel.advance(now, this::fired);
+        }
+    }
+
+    private void fired(long key, long deadlineMillis) {
+        assertTrue(deadlineMillis <= now, "fired " + key + " at " + now + " before " + deadlineMillis);
+        assertEquals(null, firedAt.put(key, now), "fired twice: " + key);
+    }
+}
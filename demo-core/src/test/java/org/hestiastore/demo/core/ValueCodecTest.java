@@ -0,0 +1,82 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueCodecTest {
+    private DemoMetrics metrics;
+    private ValueCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new DemoMetrics(
+                DemoConfiguration.defaults(1, 1_000L, 0.6d, 0.15d, 0.15d, 0.1d, 0.9d),
+                new SteadyStateDetector(10, 0.1d, 0.2d));
+        codec = new ValueCodec(PayloadEncoding.DEFLATE, 1, metrics);
+    }
+
+    @Test
+    void compressiblePayloadRoundTripsDeflated() {
+        byte[] payload = new byte[1_000];
+        Arrays.fill(payload, (byte) 7);
+
+        ValueRecord record = codec.encode(3L, 10L, payload);
+
+        assertEquals(PayloadEncoding.DEFLATE, record.encoding());
+        assertEquals(1_000, record.rawLength());
+        assertTrue(record.storedLength() < payload.length);
+        assertEquals(3L, record.version());
+        assertArrayEquals(payload, codec.decode(record));
+    }
+
+    @Test
+    void randomPayloadIsStoredRawWithoutCompressing() {
+        byte[] payload = new byte[1_000];
+        new Random(42L).nextBytes(payload);
+
+        ValueRecord record = codec.encode(1L, 0L, payload);
+
+        assertEquals(PayloadEncoding.RAW, record.encoding());
+        assertEquals(1_000, record.rawLength());
+        assertSame(payload, codec.decode(record));
+    }
+
+    @Test
+    void payloadThatDeflateDoesNotShrinkFallsBackToRaw() {
+        byte[] payload = {1, 1, 2, 2};
+        assertTrue(ValueCodec.looksCompressible(payload));
+
+        ValueRecord record = codec.encode(1L, 0L, payload);
+
+        assertEquals(PayloadEncoding.RAW, record.encoding());
+        assertEquals(4, record.rawLength());
+        assertArrayEquals(payload, codec.decode(record));
+    }
+
+    @Test
+    void rawEncodingNeverCompresses() {
+        ValueCodec raw = new ValueCodec(PayloadEncoding.RAW, 1, metrics);
+        byte[] payload = new byte[1_000];
+
+        assertEquals(PayloadEncoding.RAW, raw.encode(1L, 0L, payload).encoding());
+    }
+
+    @Test
+    void truncatedDeflatedPayloadIsRejected() {
+        byte[] payload = new byte[1_000];
+        ValueRecord record = codec.encode(1L, 0L, payload);
+        ValueRecord truncated = new ValueRecord(record.version(), record.timestamp(), record.encoding(),
+                record.rawLength(), Arrays.copyOf(record.payload(), record.storedLength() / 2));
+
+        assertThrows(IllegalStateException.class, () -> codec.decode(truncated));
+    }
+}
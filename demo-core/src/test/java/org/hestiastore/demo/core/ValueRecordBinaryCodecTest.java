@@ -0,0 +1,115 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueRecordBinaryCodecTest {
+    private static final ValueRecord RECORD =
+            new ValueRecord(7L, 1_000L, PayloadEncoding.RAW, 3, new byte[] {1, 2, 3}, ValueRecord.NO_CHECKSUM, 42L);
+
+    private ValueRecordBinaryCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new ValueRecordBinaryCodec(true);
+    }
+
+    @Test
+    void writesBigEndianWhateverTheBufferOrder() {
+        ByteBuffer little = ByteBuffer.allocate(codec.encodedLength(RECORD)).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer big = ByteBuffer.allocate(codec.encodedLength(RECORD));
+
+        codec.encode(RECORD, little, 0);
+        codec.encode(RECORD, big, 0);
+
+        assertArrayEquals(big.array(), little.array());
+        assertEquals(7L, big.getLong(ValueRecordBinaryCodec.VERSION_OFFSET));
+        assertEquals(3, big.getInt(ValueRecordBinaryCodec.PAYLOAD_LENGTH_OFFSET));
+        assertEquals(ValueRecordBinaryCodec.FORMAT_VERSION, big.getShort(ValueRecordBinaryCodec.FORMAT_VERSION_OFFSET));
+    }
+
+    @Test
+    void roundTripsThroughLittleEndianDirectBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8 + codec.encodedLength(RECORD)).order(ByteOrder.LITTLE_ENDIAN);
+
+        codec.encode(RECORD, buffer, 8);
+        ValueRecord decoded = codec.decode(buffer, 8);
+
+        assertEquals(7L, decoded.version());
+        assertEquals(1_000L, decoded.timestamp());
+        assertEquals(42L, decoded.expiresAtMillis());
+        assertArrayEquals(RECORD.payload(), decoded.payload());
+        assertEquals(7L, new ValueRecordView(codec).wrap(buffer, 8).version());
+    }
+
+    @Test
+    void rejectsPayloadLengthPastTheLimit() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+        codec.encode(RECORD, buffer, 0);
+        buffer.putInt(ValueRecordBinaryCodec.PAYLOAD_LENGTH_OFFSET, Integer.MAX_VALUE);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.decode(buffer, 0));
+        buffer.putInt(ValueRecordBinaryCodec.PAYLOAD_LENGTH_OFFSET, -1);
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.decode(buffer, 0));
+    }
+
+    @Test
+    void rejectsTruncatedHeader() {
+        ByteBuffer buffer = ByteBuffer.allocate(ValueRecordBinaryCodec.HEADER_SIZE - 1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.decode(buffer, 0));
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+        codec.encode(RECORD, buffer, 0);
+        buffer.putShort(ValueRecordBinaryCodec.FORMAT_VERSION_OFFSET, (short) 99);
+
+        assertThrows(IllegalStateException.class, () -> codec.decode(buffer, 0));
+    }
+
+    @Test
+    void rejectsRecordWithoutFormatVersion() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+        codec.encode(RECORD, buffer, 0);
+        buffer.putShort(ValueRecordBinaryCodec.FORMAT_VERSION_OFFSET, (short) 0);
+
+        assertThrows(IllegalStateException.class, () -> codec.decode(buffer, 0));
+    }
+
+    @Test
+    void rejectsEncodeAtOffsetThatWouldOverflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.encode(RECORD, buffer, Integer.MAX_VALUE - 10));
+        assertThrows(IndexOutOfBoundsException.class, () -> codec.encode(RECORD, buffer, -1));
+    }
+
+    @Test
+    void verifiesChecksumInPlace() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+        codec.encode(RECORD, buffer, 0);
+
+        assertTrue(new ValueRecordView(codec).wrap(buffer, 0).verifyChecksum());
+    }
+
+    @Test
+    void checksumCoversHeaderFields() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedLength(RECORD));
+        codec.encode(RECORD, buffer, 0);
+        buffer.putLong(ValueRecordBinaryCodec.EXPIRES_AT_OFFSET, 43L);
+
+        assertFalse(new ValueRecordView(codec).wrap(buffer, 0).verifyChecksum());
+        assertThrows(IllegalStateException.class, () -> codec.decode(buffer, 0));
+    }
+}
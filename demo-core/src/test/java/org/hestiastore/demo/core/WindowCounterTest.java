@@ -0,0 +1,27 @@
+package org.hestiastore.demo.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WindowCounterTest {
+    private WindowCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new WindowCounter();
+    }
+
+    @Test
+    void windowHoldsOnlyWhatWasAddedSinceThePreviousWindow() {
+        counter.increment();
+        counter.add(4L);
+        assertEquals(5L, counter.takeWindow());
+
+        counter.add(2L);
+        assertEquals(2L, counter.takeWindow());
+        assertEquals(0L, counter.takeWindow());
+        assertEquals(7L, counter.total());
+    }
+}
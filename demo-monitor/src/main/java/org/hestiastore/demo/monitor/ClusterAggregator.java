@@ -0,0 +1,228 @@
+package org.hestiastore.demo.monitor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.LatencyHistogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Polls {@code /node/detail} of every runner concurrently, one virtual thread
+ * per node, and folds the answers into a {@link ClusterSnapshot}. Each node has
+ * its own deadline, so a slow or dead runner is reported as down for that
+ * round instead of delaying the others.
+ */
+public final class ClusterAggregator {
+    private static final double MICROS_PER_MILLI = 1000.0d;
+
+    private final List<String> targets;
+    private final Duration nodeTimeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final ExecutorService executor;
+
+    private volatile ClusterSnapshot latest;
+    private volatile boolean running;
+    private Thread pollerThread;
+
+    public ClusterAggregator(List<String> targets, Duration nodeTimeout, ObjectMapper objectMapper) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target is required.");
+        }
+        this.targets = List.copyOf(targets);
+        this.nodeTimeout = nodeTimeout;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(nodeTimeout)
+                .executor(executor)
+                .build();
+    }
+
+    public ClusterSnapshot latest() {
+        return latest;
+    }
+
+    public void start(Duration pollInterval, Duration printInterval) {
+        running = true;
+        pollerThread = Thread.ofVirtual().name("cluster-poller").start(() -> pollLoop(pollInterval, printInterval));
+    }
+
+    public void stop() {
+        running = false;
+        if (pollerThread != null) {
+            pollerThread.interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    private void pollLoop(Duration pollInterval, Duration printInterval) {
+        long nextPrint = 0L;
+        while (running) {
+            long startMillis = System.currentTimeMillis();
+            ClusterSnapshot snapshot = poll();
+            latest = snapshot;
+            if (!printInterval.isZero() && startMillis >= nextPrint) {
+                print(snapshot);
+                nextPrint = startMillis + printInterval.toMillis();
+            }
+            long sleepMillis = pollInterval.toMillis() - (System.currentTimeMillis() - startMillis);
+            try {
+                Thread.sleep(Math.max(0L, sleepMillis));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs one poll round; returns once every node answered or hit its deadline.
+     */
+    public ClusterSnapshot poll() {
+        long startNanos = System.nanoTime();
+        List<Future<ClusterNodeSample>> futures = new ArrayList<>(targets.size());
+        for (String target : targets) {
+            futures.add(executor.submit(() -> fetch(target)));
+        }
+        List<ClusterNodeSample> samples = new ArrayList<>(targets.size());
+        for (int i = 0; i < futures.size(); i++) {
+            samples.add(await(targets.get(i), futures.get(i), startNanos));
+        }
+        return aggregate(samples);
+    }
+
+    private ClusterNodeSample await(String target, Future<ClusterNodeSample> future, long startNanos) {
+        long remainingNanos = nodeTimeout.toNanos() - (System.nanoTime() - startNanos);
+        try {
+            return future.get(Math.max(0L, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return ClusterNodeSample.down(target, "timeout after " + nodeTimeout.toMillis() + " ms", nodeTimeout.toMillis());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            String error = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+            return ClusterNodeSample.down(target, error, elapsedMillis(startNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return ClusterNodeSample.down(target, "interrupted", elapsedMillis(startNanos));
+        }
+    }
+
+    private ClusterNodeSample fetch(String target) throws Exception {
+        long startNanos = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(target + "/node/detail"))
+                .timeout(nodeTimeout)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        long responseMillis = elapsedMillis(startNanos);
+        if (response.statusCode() != 200) {
+            return ClusterNodeSample.down(target, "HTTP " + response.statusCode(), responseMillis);
+        }
+        JsonNode detail = objectMapper.readTree(response.body());
+        return new ClusterNodeSample(
+                target,
+                true,
+                null,
+                responseMillis,
+                detail.path("uptimeSeconds").asLong(),
+                detail.path("opsPerSecond").asLong(),
+                detail.path("gtePerSecond").asLong(),
+                detail.path("putPerSecond").asLong(),
+                detail.path("updatePerSecond").asLong(),
+                detail.path("deletePerSecond").asLong(),
+                detail.path("keyCount").asLong(),
+                detail.path("p99LatencyMs").asDouble(),
+                histogram(detail.path("latencyHistogram")));
+    }
+
+    private long[] histogram(JsonNode node) {
+        if (!node.isArray() || node.size() != LatencyHistogram.BUCKETS) {
+            return null;
+        }
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = node.get(i).asLong();
+        }
+        return buckets;
+    }
+
+    static ClusterSnapshot aggregate(List<ClusterNodeSample> samples) {
+        long[] merged = new long[LatencyHistogram.BUCKETS];
+        int nodesUp = 0;
+        long ops = 0L;
+        long gte = 0L;
+        long put = 0L;
+        long update = 0L;
+        long delete = 0L;
+        long keys = 0L;
+        double worstP99 = 0.0d;
+        for (ClusterNodeSample sample : samples) {
+            if (!sample.up()) {
+                continue;
+            }
+            nodesUp++;
+            ops += sample.opsPerSecond();
+            gte += sample.gtePerSecond();
+            put += sample.putPerSecond();
+            update += sample.updatePerSecond();
+            delete += sample.deletePerSecond();
+            keys += sample.keyCount();
+            worstP99 = Math.max(worstP99, sample.p99LatencyMs());
+            if (sample.latencyHistogram() != null) {
+                LatencyHistogram.merge(merged, sample.latencyHistogram());
+            }
+        }
+        return new ClusterSnapshot(
+                System.currentTimeMillis(),
+                samples.size(),
+                nodesUp,
+                ops,
+                gte,
+                put,
+                update,
+                delete,
+                keys,
+                LatencyHistogram.percentileMicros(merged, 0.50d) / MICROS_PER_MILLI,
+                LatencyHistogram.percentileMicros(merged, 0.95d) / MICROS_PER_MILLI,
+                LatencyHistogram.percentileMicros(merged, 0.99d) / MICROS_PER_MILLI,
+                worstP99,
+                merged,
+                List.copyOf(samples));
+    }
+
+    private void print(ClusterSnapshot snapshot) {
+        System.out.printf("Cluster: %d/%d nodes up, %,d ops/s, %,d keys, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms (worst node p99 %.3f ms)%n",
+                snapshot.nodesUp(),
+                snapshot.nodes(),
+                snapshot.opsPerSecond(),
+                snapshot.keyCount(),
+                snapshot.p50LatencyMs(),
+                snapshot.p95LatencyMs(),
+                snapshot.p99LatencyMs(),
+                snapshot.worstNodeP99LatencyMs());
+        for (ClusterNodeSample sample : snapshot.nodeSamples()) {
+            if (!sample.up()) {
+                System.out.printf("  %-28s DOWN (%s)%n", sample.target(), sample.error());
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
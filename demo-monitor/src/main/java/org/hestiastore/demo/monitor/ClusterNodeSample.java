@@ -0,0 +1,27 @@
+package org.hestiastore.demo.monitor;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Result of one poll of one runner. A node that failed or timed out is kept
+ * with {@code up = false} and zeroed values so it is visible in the view.
+ */
+public record ClusterNodeSample(
+        String target,
+        boolean up,
+        String error,
+        long responseMillis,
+        long uptimeSeconds,
+        long opsPerSecond,
+        long gtePerSecond,
+        long putPerSecond,
+        long updatePerSecond,
+        long deletePerSecond,
+        long keyCount,
+        double p99LatencyMs,
+        @JsonIgnore long[] latencyHistogram
+) {
+    static ClusterNodeSample down(String target, String error, long responseMillis) {
+        return new ClusterNodeSample(target, false, error, responseMillis, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0.0d, null);
+    }
+}
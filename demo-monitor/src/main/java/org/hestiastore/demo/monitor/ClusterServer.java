@@ -0,0 +1,63 @@
+package org.hestiastore.demo.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the latest {@link ClusterSnapshot} as JSON at {@code /api/v1/cluster}.
+ */
+public final class ClusterServer {
+    private static final byte[] WARMING_UP_BODY = "{\"status\":\"warming-up\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final int port;
+    private final ClusterAggregator aggregator;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer httpServer;
+
+    public ClusterServer(int port, ClusterAggregator aggregator, ObjectMapper objectMapper) {
+        this.port = port;
+        this.aggregator = aggregator;
+        this.objectMapper = objectMapper;
+    }
+
+    public void start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        httpServer.createContext("/api/v1/cluster", this::handleCluster);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    private void handleCluster(HttpExchange exchange) throws IOException {
+        ClusterSnapshot snapshot = aggregator.latest();
+        if (snapshot == null) {
+            writeResponse(exchange, 503, WARMING_UP_BODY);
+            return;
+        }
+        writeResponse(exchange, 200, objectMapper.writeValueAsBytes(snapshot));
+    }
+
+    private void writeResponse(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.hestiastore.demo.monitor;
+
+import java.util.List;
+
+/**
+ * Cluster-level view of one poll round. Rates and key counts are summed;
+ * percentiles come from the merged latency histogram of all reachable nodes,
+ * never from averaging per-node percentiles.
+ */
+public record ClusterSnapshot(
+        long epochMillis,
+        int nodes,
+        int nodesUp,
+        long opsPerSecond,
+        long gtePerSecond,
+        long putPerSecond,
+        long updatePerSecond,
+        long deletePerSecond,
+        long keyCount,
+        double p50LatencyMs,
+        double p95LatencyMs,
+        double p99LatencyMs,
+        double worstNodeP99LatencyMs,
+        long[] latencyHistogram,
+        List<ClusterNodeSample> nodeSamples
+) {
+}
@@ -5,12 +5,12 @@ import picocli.CommandLine.Command;
 @Command(
         name = "demo",
         mixinStandardHelpOptions = true,
-        subcommands = {MonitorCommand.class},
+        subcommands = {MonitorCommand.class, TopCommand.class},
         description = "HestiaStore demo monitor"
 )
 public final class DemoMonitorRootCommand implements Runnable {
     @Override
     public void run() {
-        System.out.println("Use subcommand: monitor");
+        System.out.println("Use subcommand: monitor, top");
     }
 }
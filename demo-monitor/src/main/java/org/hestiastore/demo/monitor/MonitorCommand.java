@@ -15,6 +15,7 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -27,8 +28,8 @@ public final class MonitorCommand implements Runnable {
     @Option(names = "--backend-port", defaultValue = "8085")
     private int backendPort;
 
-    @Option(names = "--target", defaultValue = "http://localhost:9090")
-    private String target;
+    @Option(names = "--target", defaultValue = "http://localhost:9090", split = ",", description = "Runner base URL; repeat or separate with commas to monitor several runners")
+    private List<String> targets;
 
     @Option(names = "--write-token", defaultValue = "")
     private String writeToken;
@@ -39,6 +40,15 @@ public final class MonitorCommand implements Runnable {
     @Option(names = "--node-name", defaultValue = "HestiaStore Demo Node")
     private String nodeName;
 
+    @Option(names = "--cluster-port", defaultValue = "8088", description = "Port of the aggregated /api/v1/cluster endpoint, 0 disables it")
+    private int clusterPort;
+
+    @Option(names = "--cluster-poll-millis", defaultValue = "1000")
+    private long clusterPollMillis;
+
+    @Option(names = "--node-timeout-millis", defaultValue = "750", description = "Per-node deadline of one cluster poll")
+    private long nodeTimeoutMillis;
+
     @Override
     public void run() {
         MonitoringConsoleServer backend = null;
@@ -49,6 +59,12 @@ public final class MonitorCommand implements Runnable {
 
             assertPortAvailable(webPort, "web port");
             assertPortAvailable(backendPort, "backend port");
+            if (clusterPort > 0) {
+                if (clusterPort == webPort || clusterPort == backendPort) {
+                    throw new IllegalArgumentException("--cluster-port must differ from --port and --backend-port.");
+                }
+                assertPortAvailable(clusterPort, "cluster port");
+            }
 
             backend = new MonitoringConsoleServer("127.0.0.1", backendPort, writeToken);
             Runtime.getRuntime().addShutdownHook(new Thread(backend::close));
@@ -58,7 +74,33 @@ public final class MonitorCommand implements Runnable {
                     ? "demo-" + UUID.randomUUID().toString().substring(0, 8)
                     : nodeId;
 
-            registerNode(resolvedNodeId, nodeName, target);
+            List<String> baseUrls = targets.stream()
+                    .map(String::trim)
+                    .filter(target -> !target.isEmpty())
+                    .map(this::trimTrailingSlash)
+                    .distinct()
+                    .toList();
+            if (baseUrls.isEmpty()) {
+                throw new IllegalArgumentException("--target must name at least one runner.");
+            }
+            for (int i = 0; i < baseUrls.size(); i++) {
+                String id = baseUrls.size() == 1 ? resolvedNodeId : resolvedNodeId + "-" + (i + 1);
+                String name = baseUrls.size() == 1 ? nodeName : nodeName + " #" + (i + 1);
+                registerNode(id, name, baseUrls.get(i));
+                System.out.printf("Registered node: id=%s name=%s target=%s%n", id, name, baseUrls.get(i));
+            }
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            ClusterAggregator aggregator = new ClusterAggregator(baseUrls, Duration.ofMillis(nodeTimeoutMillis), objectMapper);
+            aggregator.start(
+                    Duration.ofMillis(clusterPollMillis),
+                    baseUrls.size() > 1 ? Duration.ofSeconds(5) : Duration.ZERO);
+            Runtime.getRuntime().addShutdownHook(new Thread(aggregator::stop));
+            if (clusterPort > 0) {
+                ClusterServer clusterServer = new ClusterServer(clusterPort, aggregator, objectMapper);
+                clusterServer.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(clusterServer::stop));
+            }
 
             System.setProperty("server.port", Integer.toString(webPort));
             System.setProperty("hestia.console.web.backend-base-url", "http://127.0.0.1:" + backendPort);
@@ -67,7 +109,9 @@ public final class MonitorCommand implements Runnable {
 
             System.out.printf("Monitoring Console backend: http://127.0.0.1:%d%n", backendPort);
             System.out.printf("Monitoring Console Web: http://127.0.0.1:%d%n", webPort);
-            System.out.printf("Registered node: id=%s name=%s target=%s%n", resolvedNodeId, nodeName, target);
+            if (clusterPort > 0) {
+                System.out.printf("Cluster aggregate (%d nodes): http://127.0.0.1:%d/api/v1/cluster%n", baseUrls.size(), clusterPort);
+            }
 
             MonitoringConsoleWebApplication.main(new String[0]);
 
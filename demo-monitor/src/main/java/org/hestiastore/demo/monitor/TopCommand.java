@@ -0,0 +1,163 @@
+package org.hestiastore.demo.monitor;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import org.hestiastore.demo.core.SharedMetric;
+import org.hestiastore.demo.core.SharedMetricsRegion;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Terminal view of a local runner read straight from its
+ * {@link SharedMetricsRegion}. Polling the mapped file costs the runner
+ * nothing, so the refresh interval can be far shorter than the HTTP snapshot
+ * window; throughput is derived from the live totals between refreshes.
+ */
+@Command(name = "top", description = "Live terminal view of a local runner via its shared metrics file")
+public final class TopCommand implements Runnable {
+    private static final String CLEAR_SCREEN = "\033[H\033[2J";
+    private static final long STALE_AFTER_MILLIS = 3000L;
+    private static final int RATE_SAMPLES = 10;
+    private static final int BAR_WIDTH = 40;
+
+    @Option(names = "--dir", required = true, description = "Runner data directory")
+    private Path directory;
+
+    @Option(names = "--interval-ms", defaultValue = "100")
+    private long intervalMillis;
+
+    @Option(names = "--iterations", defaultValue = "0", description = "Stop after this many refreshes, 0 runs until interrupted")
+    private long iterations;
+
+    private final long[] values = new long[SharedMetric.values().length];
+    private final long[] histogram = new long[LatencyHistogram.BUCKETS];
+    private final long[] totalSamples = new long[RATE_SAMPLES];
+    private final long[] nanoSamples = new long[RATE_SAMPLES];
+    private long samples;
+    private long inconsistentReads;
+
+    @Override
+    public void run() {
+        if (intervalMillis <= 0L) {
+            throw new IllegalArgumentException("--interval-ms must be positive.");
+        }
+        Path file = directory.resolve(SharedMetricsRegion.FILE_NAME);
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("No shared metrics file at " + file + "; is the runner started with --shared-metrics?");
+        }
+        try (SharedMetricsRegion region = SharedMetricsRegion.open(file)) {
+            for (long i = 0; iterations <= 0L || i < iterations; i++) {
+                long updatedAt = region.read(values, histogram);
+                if (updatedAt < 0L) {
+                    inconsistentReads++;
+                } else {
+                    render(System.out, region, updatedAt, sampleRate(System.nanoTime()));
+                }
+                Thread.sleep(intervalMillis);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read " + file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Operations per second over the last {@value #RATE_SAMPLES} refreshes.
+     */
+    private double sampleRate(long nowNanos) {
+        int slot = (int) (samples % RATE_SAMPLES);
+        int oldest = samples < RATE_SAMPLES ? 0 : (int) ((samples + 1) % RATE_SAMPLES);
+        totalSamples[slot] = SharedMetric.TOTAL_OPS.getLong(values);
+        nanoSamples[slot] = nowNanos;
+        samples++;
+        long elapsedNanos = nowNanos - nanoSamples[oldest];
+        if (elapsedNanos <= 0L) {
+            return 0.0d;
+        }
+        return (totalSamples[slot] - totalSamples[oldest]) * 1_000_000_000.0d / elapsedNanos;
+    }
+
+    private void render(PrintStream out, SharedMetricsRegion region, long updatedAt, double liveOpsPerSecond) {
+        long ageMillis = System.currentTimeMillis() - updatedAt;
+        StringBuilder screen = new StringBuilder(CLEAR_SCREEN);
+        screen.append(String.format("HestiaStore demo top - pid %d, started %s%s%n",
+                region.pid(),
+                Instant.ofEpochMilli(region.startedAtMillis()),
+                ageMillis > STALE_AFTER_MILLIS ? String.format("  [STALE %.1fs]", ageMillis / 1000.0d) : ""));
+        screen.append(String.format("Uptime:     %,d s   window #%,d   refresh %d ms   skipped reads %,d%n",
+                SharedMetric.UPTIME_SECONDS.getLong(values),
+                SharedMetric.WINDOW_SEQUENCE.getLong(values),
+                intervalMillis,
+                inconsistentReads));
+        screen.append(String.format("Ops/sec:    %,.0f live   %,d last window%n",
+                liveOpsPerSecond,
+                SharedMetric.OPS_PER_SECOND.getLong(values)));
+        screen.append(String.format("Totals:     %,d ops (GTE %,d, PUT %,d, UPDATE %,d, DELETE %,d)%n",
+                SharedMetric.TOTAL_OPS.getLong(values),
+                SharedMetric.TOTAL_GTE.getLong(values),
+                SharedMetric.TOTAL_PUT.getLong(values),
+                SharedMetric.TOTAL_UPDATE.getLong(values),
+                SharedMetric.TOTAL_DELETE.getLong(values)));
+        screen.append(String.format("Latency:    avg %.3f ms   p50 %.3f ms   p95 %.3f ms   p99 %.3f ms%n",
+                SharedMetric.AVG_LATENCY_MS.getDouble(values),
+                SharedMetric.P50_LATENCY_MS.getDouble(values),
+                SharedMetric.P95_LATENCY_MS.getDouble(values),
+                SharedMetric.P99_LATENCY_MS.getDouble(values)));
+        screen.append(String.format("Keys:       %,d   %.0f B/key   resident %,d B%n",
+                SharedMetric.KEY_COUNT.getLong(values),
+                SharedMetric.STORE_BYTES_PER_KEY.getDouble(values),
+                SharedMetric.STORE_RESIDENT_BYTES.getLong(values)));
+        screen.append(String.format("GTE hit:    %.2f%%   update conflicts %,d   integrity failures %,d%n%n",
+                SharedMetric.GTE_HIT_RATIO.getDouble(values),
+                SharedMetric.UPDATE_CONFLICTS.getLong(values),
+                SharedMetric.INTEGRITY_FAILURES.getLong(values)));
+        appendHistogram(screen);
+        out.print(screen);
+        out.flush();
+    }
+
+    /**
+     * One bar per power of two; the histogram's sub-buckets are folded so the
+     * chart fits a terminal.
+     */
+    private void appendHistogram(StringBuilder screen) {
+        int groupSize = LatencyHistogram.SUB_BUCKETS;
+        long total = LatencyHistogram.count(histogram);
+        if (total == 0L) {
+            screen.append("Latency histogram: no operations in the last window").append(System.lineSeparator());
+            return;
+        }
+        long[] groups = new long[(LatencyHistogram.BUCKETS + groupSize - 1) / groupSize];
+        long maxGroup = 0L;
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            int group = i / groupSize;
+            groups[group] += histogram[i];
+            maxGroup = Math.max(maxGroup, groups[group]);
+            if (histogram[i] > 0L) {
+                last = group;
+                if (first < 0) {
+                    first = group;
+                }
+            }
+        }
+        screen.append("Latency histogram (last window, micros)").append(System.lineSeparator());
+        for (int group = first; group <= last; group++) {
+            long lower = LatencyHistogram.bucketLowerBound(group * groupSize);
+            long upper = LatencyHistogram.bucketUpperBound(Math.min(LatencyHistogram.BUCKETS, (group + 1) * groupSize) - 1);
+            int width = (int) Math.round((double) groups[group] * BAR_WIDTH / maxGroup);
+            screen.append(String.format("%10d-%-10d %6.2f%% %s%n",
+                    lower,
+                    upper,
+                    groups[group] * 100.0d / total,
+                    "#".repeat(width)));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.hestiastore.demo.monitor;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClusterAggregatorTest {
+
+    @Test
+    void sumsRatesOfReachableNodesOnly() {
+        ClusterSnapshot snapshot = ClusterAggregator.aggregate(List.of(
+                up("http://a", 1000L, 40L, 1.0d, histogram(100L, 1000L)),
+                ClusterNodeSample.down("http://b", "timeout after 500 ms", 500L),
+                up("http://c", 3000L, 60L, 2.0d, histogram(100L, 3000L))));
+
+        assertEquals(3, snapshot.nodes());
+        assertEquals(2, snapshot.nodesUp());
+        assertEquals(4000L, snapshot.opsPerSecond());
+        assertEquals(2400L, snapshot.gtePerSecond());
+        assertEquals(800L, snapshot.putPerSecond());
+        assertEquals(400L, snapshot.updatePerSecond());
+        assertEquals(400L, snapshot.deletePerSecond());
+        assertEquals(100L, snapshot.keyCount());
+        assertEquals(2.0d, snapshot.worstNodeP99LatencyMs());
+        assertEquals(3, snapshot.nodeSamples().size());
+    }
+
+    @Test
+    void percentilesComeFromTheMergedHistogramNotFromAveragingNodes() {
+        long[] fast = histogram(100L, 990L);
+        long[] slow = histogram(20_000L, 10L);
+        ClusterSnapshot snapshot = ClusterAggregator.aggregate(List.of(
+                up("http://fast", 990L, 1L, 0.1d, fast),
+                up("http://slow", 10L, 1L, 20.0d, slow)));
+
+        long[] expected = new long[LatencyHistogram.BUCKETS];
+        LatencyHistogram.merge(expected, fast);
+        LatencyHistogram.merge(expected, slow);
+        assertEquals(LatencyHistogram.percentileMicros(expected, 0.99d) / 1000.0d, snapshot.p99LatencyMs());
+        assertEquals(1000L, LatencyHistogram.count(snapshot.latencyHistogram()));
+        assertEquals(LatencyHistogram.percentileMicros(fast, 0.5d) / 1000.0d, snapshot.p50LatencyMs());
+        assertEquals(20.0d, snapshot.worstNodeP99LatencyMs());
+    }
+
+    @Test
+    void nodeWithoutHistogramStillCountsTowardsRates() {
+        ClusterSnapshot snapshot = ClusterAggregator.aggregate(List.of(
+                up("http://old", 500L, 5L, 3.0d, null)));
+
+        assertEquals(1, snapshot.nodesUp());
+        assertEquals(500L, snapshot.opsPerSecond());
+        assertEquals(0L, LatencyHistogram.count(snapshot.latencyHistogram()));
+        assertEquals(0.0d, snapshot.p99LatencyMs());
+    }
+
+    @Test
+    void allNodesDownGivesAnEmptyView() {
+        ClusterSnapshot snapshot = ClusterAggregator.aggregate(List.of(
+                ClusterNodeSample.down("http://a", "HTTP 503", 3L)));
+
+        assertEquals(1, snapshot.nodes());
+        assertEquals(0, snapshot.nodesUp());
+        assertEquals(0L, snapshot.opsPerSecond());
+        assertEquals(0.0d, snapshot.p50LatencyMs());
+    }
+
+    private static ClusterNodeSample up(String target, long ops, long keys, double p99Ms, long[] histogram) {
+        return new ClusterNodeSample(target, true, null, 2L, 60L,
+                ops, ops * 6L / 10L, ops / 5L, ops / 10L, ops / 10L, keys, p99Ms, histogram);
+    }
+
+    private static long[] histogram(long micros, long count) {
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        buckets[LatencyHistogram.bucketIndex(micros)] = count;
+        return buckets;
+    }
+}
@@ -0,0 +1,154 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.ValueRecord;
+import org.hestiastore.demo.core.ValueRecordBinaryCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes exported records into gzip chunk files of about
+ * {@value #CHUNK_RAW_BYTES} uncompressed bytes each. A record is its key
+ * (8 bytes), the length of its binary form (4 bytes) and the
+ * {@link ValueRecordBinaryCodec} bytes. Compressed output is paced by the
+ * rate limiter as it reaches the file. One thread writes; progress counters
+ * may be read from any thread.
+ */
+final class BackupChunkWriter {
+    static final long CHUNK_RAW_BYTES = 8L * 1024L * 1024L;
+    static final String CHUNK_PREFIX = "chunk-";
+    static final String CHUNK_SUFFIX = ".gz";
+
+    private final Path directory;
+    private final BackupRateLimiter rateLimiter;
+    private final ValueRecordBinaryCodec codec = new ValueRecordBinaryCodec(false);
+    private final List<BackupManifest.BackupChunk> chunks = new ArrayList<>();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private volatile CountingOutputStream file;
+    private DataOutputStream out;
+    private String chunkName;
+    private long chunkRecords;
+    private volatile long chunkRawBytes;
+    private long pacedBytes;
+    private volatile long records;
+    private volatile long rawBytes;
+    private volatile long compressedBytes;
+
+    BackupChunkWriter(Path directory, BackupRateLimiter rateLimiter) {
+        this.directory = directory;
+        this.rateLimiter = rateLimiter;
+    }
+
+    void append(long key, ValueRecord record) throws IOException {
+        if (out == null) {
+            openChunk();
+        }
+        int length = codec.encodedLength(record);
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+        }
+        codec.encode(record, buffer, 0);
+        out.writeLong(key);
+        out.writeInt(length);
+        out.write(buffer.array(), 0, length);
+        chunkRecords++;
+        chunkRawBytes += Long.BYTES + Integer.BYTES + length;
+        records++;
+        pace();
+        if (chunkRawBytes >= CHUNK_RAW_BYTES) {
+            closeChunk();
+        }
+    }
+
+    /**
+     * Closes the open chunk and returns every chunk written.
+     */
+    List<BackupManifest.BackupChunk> finish() throws IOException {
+        if (out != null) {
+            closeChunk();
+        }
+        return List.copyOf(chunks);
+    }
+
+    long records() {
+        return records;
+    }
+
+    long rawBytes() {
+        return rawBytes + chunkRawBytes;
+    }
+
+    long compressedBytes() {
+        CountingOutputStream current = file;
+        return compressedBytes + (current == null ? 0L : current.count);
+    }
+
+    private void openChunk() throws IOException {
+        chunkName = String.format("%s%05d%s", CHUNK_PREFIX, chunks.size(), CHUNK_SUFFIX);
+        file = new CountingOutputStream(Files.newOutputStream(directory.resolve(chunkName)));
+        out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file, 64 * 1024), 64 * 1024));
+        chunkRecords = 0L;
+        chunkRawBytes = 0L;
+        pacedBytes = 0L;
+    }
+
+    private void closeChunk() throws IOException {
+        out.close();
+        pace();
+        chunks.add(new BackupManifest.BackupChunk(
+                chunkName, chunkRecords, chunkRawBytes, file.count, file.crc.getValue()));
+        rawBytes += chunkRawBytes;
+        compressedBytes += file.count;
+        out = null;
+        file = null;
+    }
+
+    private void pace() throws IOException {
+        long written = file.count - pacedBytes;
+        if (written <= 0L) {
+            return;
+        }
+        pacedBytes = file.count;
+        try {
+            rateLimiter.acquire(written);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Backup interrupted");
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final CRC32C crc = new CRC32C();
+        private volatile long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            count += len;
+        }
+    }
+}
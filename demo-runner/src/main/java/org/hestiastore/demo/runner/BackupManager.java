@@ -0,0 +1,220 @@
+package org.hestiastore.demo.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+import org.hestiastore.demo.core.ShardedStore;
+import org.hestiastore.demo.core.StoreSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Runs online backups of the store, one at a time. A backup opens a
+ * {@link StoreSnapshot}, streams its records through a
+ * {@link BackupChunkWriter} paced by a {@link BackupRateLimiter} and writes the
+ * manifest last. Metrics windows feed the limiter and record how foreground
+ * throughput and p99 compare with the windows before the backup.
+ */
+public final class BackupManager {
+    static final String DIRECTORY_NAME = "backups";
+    private static final double BASELINE_WEIGHT = 0.3d;
+    private static final Pattern BACKUP_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private final ShardedStore store;
+    private final ObjectMapper objectMapper;
+    private final Path backupsDirectory;
+    private final long maxBytesPerSecond;
+    private final double maxForegroundImpact;
+
+    private double baselineOpsPerSecond;
+    private double baselineP99Ms;
+    private Job job;
+
+    public BackupManager(
+            ShardedStore store,
+            ObjectMapper objectMapper,
+            Path dataDirectory,
+            long maxBytesPerSecond,
+            double maxForegroundImpact
+    ) {
+        if (maxBytesPerSecond <= 0L) {
+            throw new IllegalArgumentException("Backup rate must be positive");
+        }
+        if (maxForegroundImpact <= 0.0d || maxForegroundImpact >= 1.0d) {
+            throw new IllegalArgumentException("Foreground impact must be within (0.0, 1.0)");
+        }
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.backupsDirectory = dataDirectory.resolve(DIRECTORY_NAME).toAbsolutePath().normalize();
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.maxForegroundImpact = maxForegroundImpact;
+    }
+
+    /**
+     * Starts a backup into {@code <dir>/backups/<name>}, or into a new
+     * {@code backup-<millis>} directory there when {@code name} is {@code null}.
+     *
+     * @throws IllegalStateException if a backup is already running
+     * @throws IllegalArgumentException if the name is not a plain directory
+     *         name or the directory already holds a backup
+     */
+    public synchronized BackupStatus start(String name) throws IOException {
+        if (job != null && job.running) {
+            throw new IllegalStateException("A backup is already running");
+        }
+        Path directory = resolveTarget(backupsDirectory,
+                name == null ? "backup-" + System.currentTimeMillis() : name);
+        if (Files.exists(directory.resolve(BackupManifest.FILE_NAME))) {
+            throw new IllegalArgumentException("Target already holds a backup: " + directory);
+        }
+        Files.createDirectories(directory);
+        job = new Job(directory, new BackupRateLimiter(maxBytesPerSecond, maxForegroundImpact),
+                baselineOpsPerSecond, baselineP99Ms);
+        job.thread.start();
+        return job.status();
+    }
+
+    /**
+     * Resolves a backup name inside the backups directory. Only a single
+     * path segment of letters, digits, dots, dashes and underscores is
+     * accepted, so a request can never write outside {@code backupsDirectory}.
+     */
+    static Path resolveTarget(Path backupsDirectory, String name) {
+        if (!BACKUP_NAME.matcher(name).matches() || name.contains("..")) {
+            throw new IllegalArgumentException("Backup name must be a plain directory name: " + name);
+        }
+        Path directory = backupsDirectory.resolve(name).normalize();
+        if (!backupsDirectory.equals(directory.getParent())) {
+            throw new IllegalArgumentException("Backup name must be a plain directory name: " + name);
+        }
+        return directory;
+    }
+
+    /**
+     * Status of the running or latest backup, {@code null} if there was none.
+     */
+    public synchronized BackupStatus status() {
+        return job == null ? null : job.status();
+    }
+
+    public synchronized void onSnapshot(RuntimeMetricsSnapshot snapshot) {
+        if (job != null && job.running) {
+            job.onSnapshot(snapshot);
+            return;
+        }
+        if (baselineOpsPerSecond == 0.0d) {
+            baselineOpsPerSecond = snapshot.opsPerSecond();
+            baselineP99Ms = snapshot.p99LatencyMs();
+            return;
+        }
+        baselineOpsPerSecond += BASELINE_WEIGHT * (snapshot.opsPerSecond() - baselineOpsPerSecond);
+        baselineP99Ms += BASELINE_WEIGHT * (snapshot.p99LatencyMs() - baselineP99Ms);
+    }
+
+    public void stop() {
+        Job current;
+        synchronized (this) {
+            current = job;
+        }
+        if (current != null && current.running) {
+            current.thread.interrupt();
+            try {
+                current.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private final class Job {
+        private final Path directory;
+        private final BackupRateLimiter rateLimiter;
+        private final BackupChunkWriter writer;
+        private final double baselineOps;
+        private final double baselineP99;
+        private final long startedAtMillis = System.currentTimeMillis();
+        private final Thread thread;
+
+        private volatile boolean running = true;
+        private volatile StoreSnapshot snapshot;
+        private volatile long finishedAtMillis;
+        private volatile String error;
+        private double opsSum;
+        private double p99Sum;
+        private long windows;
+
+        private Job(Path directory, BackupRateLimiter rateLimiter, double baselineOps, double baselineP99) {
+            this.directory = directory;
+            this.rateLimiter = rateLimiter;
+            this.writer = new BackupChunkWriter(directory, rateLimiter);
+            this.baselineOps = baselineOps;
+            this.baselineP99 = baselineP99;
+            this.thread = new Thread(this::run, "store-backup");
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            try (StoreSnapshot opened = store.openSnapshot()) {
+                snapshot = opened;
+                opened.export(writer::append);
+                List<BackupManifest.BackupChunk> chunks = writer.finish();
+                BackupManifest manifest = new BackupManifest(
+                        BackupManifest.FORMAT_VERSION,
+                        opened.takenAtMillis(),
+                        System.currentTimeMillis(),
+                        store.shardCount(),
+                        store.nextKey(),
+                        writer.records(),
+                        writer.rawBytes(),
+                        writer.compressedBytes(),
+                        chunks);
+                objectMapper.writerWithDefaultPrettyPrinter()
+                        .writeValue(directory.resolve(BackupManifest.FILE_NAME).toFile(), manifest);
+            } catch (Exception e) {
+                error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            } finally {
+                finishedAtMillis = System.currentTimeMillis();
+                running = false;
+            }
+        }
+
+        private void onSnapshot(RuntimeMetricsSnapshot metrics) {
+            rateLimiter.adjust(baselineOps, metrics.opsPerSecond());
+            opsSum += metrics.opsPerSecond();
+            p99Sum += metrics.p99LatencyMs();
+            windows++;
+        }
+
+        private BackupStatus status() {
+            StoreSnapshot current = snapshot;
+            long expected = current == null ? 0L : current.expectedRecords();
+            long exported = writer.records();
+            long elapsedMillis = Math.max(1L, (running ? System.currentTimeMillis() : finishedAtMillis) - startedAtMillis);
+            double ops = windows == 0L ? 0.0d : opsSum / windows;
+            String state = running ? "RUNNING" : error == null ? "COMPLETED" : "FAILED";
+            return new BackupStatus(
+                    state,
+                    directory.toString(),
+                    startedAtMillis,
+                    elapsedMillis,
+                    expected,
+                    exported,
+                    state.equals("COMPLETED") ? 100.0d : Math.min(100.0d, exported * 100.0d / Math.max(1L, expected)),
+                    current == null ? 0L : current.preservedRecords(),
+                    writer.rawBytes(),
+                    writer.compressedBytes(),
+                    writer.compressedBytes() * 1000L / elapsedMillis,
+                    rateLimiter.bytesPerSecond(),
+                    baselineOps,
+                    ops,
+                    windows == 0L || baselineOps <= 0.0d ? 0.0d : (1.0d - ops / baselineOps) * 100.0d,
+                    baselineP99,
+                    windows == 0L ? 0.0d : p99Sum / windows,
+                    error);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.hestiastore.demo.runner;
+
+import java.util.List;
+
+/**
+ * {@code manifest.json} of a backup, written after the last chunk; a backup
+ * directory without it is incomplete.
+ *
+ * @param takenAtMillis snapshot instant the records are consistent at
+ * @param nextKey exclusive upper bound of the keys allocated at that instant
+ */
+public record BackupManifest(
+        int formatVersion,
+        long takenAtMillis,
+        long completedAtMillis,
+        int shards,
+        long nextKey,
+        long records,
+        long rawBytes,
+        long compressedBytes,
+        List<BackupChunk> chunks
+) {
+    static final String FILE_NAME = "manifest.json";
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * @param crc32c checksum of the compressed chunk file
+     */
+    public record BackupChunk(String file, long records, long rawBytes, long compressedBytes, long crc32c) {
+    }
+}
@@ -0,0 +1,76 @@
+package org.hestiastore.demo.runner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket on backup bytes written whose rate follows the foreground
+ * (additive increase, multiplicative decrease): each metrics window the rate
+ * is halved when foreground ops/s fell more than the allowed fraction below
+ * the pre-backup baseline, and otherwise raised by a fixed sixteenth of the
+ * configured maximum, up to that maximum.
+ */
+final class BackupRateLimiter {
+    private static final long MIN_BYTES_PER_SECOND = 256L * 1024L;
+    private static final int INCREASE_STEPS = 16;
+
+    private final long maxBytesPerSecond;
+    private final double maxForegroundImpact;
+
+    private long bytesPerSecond;
+    private double availableBytes;
+    private long refilledAtNanos;
+
+    BackupRateLimiter(long maxBytesPerSecond, double maxForegroundImpact) {
+        if (maxBytesPerSecond <= 0L) {
+            throw new IllegalArgumentException("Backup rate must be positive");
+        }
+        if (maxForegroundImpact <= 0.0d || maxForegroundImpact >= 1.0d) {
+            throw new IllegalArgumentException("Foreground impact must be within (0.0, 1.0)");
+        }
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.maxForegroundImpact = maxForegroundImpact;
+        this.bytesPerSecond = maxBytesPerSecond;
+        this.refilledAtNanos = System.nanoTime();
+    }
+
+    synchronized long bytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Blocks until {@code bytes} may be written.
+     */
+    void acquire(long bytes) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            availableBytes -= bytes;
+            waitNanos = availableBytes >= 0.0d
+                    ? 0L
+                    : (long) (-availableBytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+        }
+        if (waitNanos > 0L) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    synchronized void adjust(double baselineOpsPerSecond, double opsPerSecond) {
+        if (baselineOpsPerSecond <= 0.0d) {
+            return;
+        }
+        refill();
+        if (opsPerSecond < baselineOpsPerSecond * (1.0d - maxForegroundImpact)) {
+            bytesPerSecond = Math.max(MIN_BYTES_PER_SECOND, bytesPerSecond / 2L);
+        } else {
+            bytesPerSecond = Math.min(maxBytesPerSecond,
+                    bytesPerSecond + Math.max(1L, maxBytesPerSecond / INCREASE_STEPS));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        availableBytes = Math.min(bytesPerSecond,
+                availableBytes + (now - refilledAtNanos) * bytesPerSecond / (double) TimeUnit.SECONDS.toNanos(1));
+        refilledAtNanos = now;
+    }
+}
@@ -0,0 +1,133 @@
+package org.hestiastore.demo.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.ShardedStore;
+import org.hestiastore.demo.core.ValueRecordBinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk-loads a backup written by {@link BackupManager}: chunks are read,
+ * checksummed and decoded in parallel and put straight into the store.
+ */
+public final class BackupReader {
+    private final ObjectMapper objectMapper;
+
+    public BackupReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public BackupManifest manifest(Path backupDirectory) throws IOException {
+        Path file = backupDirectory.resolve(BackupManifest.FILE_NAME);
+        if (!Files.exists(file)) {
+            throw new IOException("No complete backup in " + backupDirectory + " (manifest missing)");
+        }
+        BackupManifest manifest = objectMapper.readValue(file.toFile(), BackupManifest.class);
+        if (manifest.formatVersion() != BackupManifest.FORMAT_VERSION) {
+            throw new IOException("Unsupported backup format version " + manifest.formatVersion());
+        }
+        return manifest;
+    }
+
+    /**
+     * Loads every chunk of the backup into {@code store} using {@code threads}
+     * loader threads.
+     *
+     * @return number of records loaded
+     */
+    public long load(Path backupDirectory, BackupManifest manifest, ShardedStore store, int threads) throws IOException {
+        AtomicLong loaded = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (BackupManifest.BackupChunk chunk : manifest.chunks()) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        loaded.addAndGet(loadChunk(backupDirectory, chunk, store));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Restore interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            throw cause instanceof IOException io ? io : new IOException("Restore failed", cause);
+        } finally {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (loaded.get() != manifest.records()) {
+            throw new IOException("Backup holds " + loaded.get() + " records, manifest lists " + manifest.records());
+        }
+        return loaded.get();
+    }
+
+    private long loadChunk(Path backupDirectory, BackupManifest.BackupChunk chunk, ShardedStore store) throws IOException {
+        ValueRecordBinaryCodec codec = new ValueRecordBinaryCodec(false);
+        CRC32C crc = new CRC32C();
+        long records = 0L;
+        byte[] buffer = new byte[4096];
+        try (CheckedInputStream checked = new CheckedInputStream(Files.newInputStream(backupDirectory.resolve(chunk.file())), crc);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(checked, 64 * 1024), 64 * 1024))) {
+            while (true) {
+                long key;
+                try {
+                    key = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                int length = in.readInt();
+                if (length < ValueRecordBinaryCodec.HEADER_SIZE) {
+                    throw new IOException("Corrupt record of " + length + " bytes in " + chunk.file());
+                }
+                if (buffer.length < length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                in.readFully(buffer, 0, length);
+                store.put(key, codec.decode(ByteBuffer.wrap(buffer, 0, length), 0));
+                records++;
+            }
+            drain(checked);
+        }
+        if (crc.getValue() != chunk.crc32c() || records != chunk.records()) {
+            throw new IOException("Chunk " + chunk.file() + " does not match the manifest");
+        }
+        return records;
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] skip = new byte[8192];
+        while (in.read(skip) >= 0) {
+            // Consume the gzip trailer so the checksum covers the whole file.
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.hestiastore.demo.runner;
+
+/**
+ * Progress of the current or latest backup and its effect on the foreground
+ * workload, compared with the metrics windows before it started.
+ *
+ * @param state RUNNING, COMPLETED or FAILED
+ * @param preservedRecords records copied because writers replaced them during the export
+ * @param rateLimitBytesPerSecond current pace of the adaptive rate limiter
+ * @param throughputImpactPercent drop of foreground ops/s against the baseline
+ * @param error failure message, {@code null} unless FAILED
+ */
+public record BackupStatus(
+        String state,
+        String target,
+        long startedAtMillis,
+        long elapsedMillis,
+        long expectedRecords,
+        long exportedRecords,
+        double progressPercent,
+        long preservedRecords,
+        long rawBytes,
+        long compressedBytes,
+        long bytesPerSecond,
+        long rateLimitBytesPerSecond,
+        double baselineOpsPerSecond,
+        double opsPerSecond,
+        double throughputImpactPercent,
+        double baselineP99Ms,
+        double p99Ms,
+        String error
+) {
+    public boolean running() {
+        return "RUNNING".equals(state);
+    }
+}
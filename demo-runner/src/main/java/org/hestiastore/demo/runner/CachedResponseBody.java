@@ -0,0 +1,36 @@
+package org.hestiastore.demo.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable response body serialized once and served to every request, with
+ * an optional pre-compressed variant. Each variant has its own strong ETag,
+ * made of a per-process nonce and the snapshot sequence so that a restarted
+ * runner never revalidates a client's copy from the previous process.
+ */
+public record CachedResponseBody(byte[] identity, byte[] gzip, String etag, String gzipEtag) {
+    private static final String PROCESS_NONCE = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    public static CachedResponseBody of(byte[] identity, long sequence, boolean withGzip) {
+        String tag = PROCESS_NONCE + "-" + Long.toHexString(sequence);
+        return new CachedResponseBody(
+                identity,
+                withGzip ? gzip(identity) : null,
+                "\"" + tag + "\"",
+                withGzip ? "\"" + tag + "-gzip\"" : null);
+    }
+
+    private static byte[] gzip(byte[] identity) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, identity.length / 4));
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
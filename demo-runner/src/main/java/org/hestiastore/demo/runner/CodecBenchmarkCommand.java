@@ -0,0 +1,129 @@
+package org.hestiastore.demo.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.PayloadGenerator;
+import org.hestiastore.demo.core.ValueRecord;
+import org.hestiastore.demo.core.ValueRecordBinaryCodec;
+import org.hestiastore.demo.core.ValueRecordView;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+
+@Command(name = "bench-codec", description = "Compare binary ValueRecord codec throughput with Jackson serialization")
+public final class CodecBenchmarkCommand implements Runnable {
+    @Option(names = "--records", defaultValue = "10000")
+    private int records;
+
+    @Option(names = "--rounds", defaultValue = "20")
+    private int rounds;
+
+    @Option(names = "--warmup-rounds", defaultValue = "5")
+    private int warmupRounds;
+
+    private volatile long blackhole;
+
+    @Override
+    public void run() {
+        PayloadGenerator generator = new PayloadGenerator();
+        ValueRecord[] values = new ValueRecord[records];
+        long totalPayloadBytes = 0L;
+        for (int i = 0; i < records; i++) {
+            values[i] = new ValueRecord(i, System.currentTimeMillis(), generator.generate());
+            totalPayloadBytes += values[i].payload().length;
+        }
+
+        ValueRecordBinaryCodec plainCodec = new ValueRecordBinaryCodec(false);
+        ValueRecordBinaryCodec checksumCodec = new ValueRecordBinaryCodec(true);
+        ValueRecordView view = new ValueRecordView(checksumCodec);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        int capacity = Math.toIntExact(totalPayloadBytes + (long) records * ValueRecordBinaryCodec.HEADER_SIZE);
+        ByteBuffer heapBuffer = ByteBuffer.allocate(capacity);
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(capacity);
+        int[] offsets = new int[records];
+        byte[][] jsonValues = new byte[records][];
+
+        System.out.printf("Records: %,d, payload bytes: %s%n", records, ConsoleStatsPrinter.humanReadableBytes(totalPayloadBytes));
+        measure("binary encode (heap)", totalPayloadBytes, () -> encodeAll(plainCodec, values, heapBuffer, offsets));
+        measure("binary encode (direct)", totalPayloadBytes, () -> encodeAll(plainCodec, values, directBuffer, offsets));
+        measure("binary encode + crc32c", totalPayloadBytes, () -> encodeAll(checksumCodec, values, directBuffer, offsets));
+        measure("binary decode", totalPayloadBytes, () -> decodeAll(checksumCodec, directBuffer, offsets));
+        measure("flyweight header read", totalPayloadBytes, () -> readHeaders(view, directBuffer, offsets));
+        measure("flyweight crc32c verify", totalPayloadBytes, () -> verifyAll(view, directBuffer, offsets));
+        measure("jackson serialize", totalPayloadBytes, () -> serializeAll(objectMapper, values, jsonValues));
+        measure("jackson deserialize", totalPayloadBytes, () -> deserializeAll(objectMapper, jsonValues));
+    }
+
+    private void measure(String label, long payloadBytes, Callable<Long> round) {
+        try {
+            for (int i = 0; i < warmupRounds; i++) {
+                blackhole += round.call();
+            }
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                blackhole += round.call();
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0d;
+            double recordsPerSecond = (double) records * rounds / seconds;
+            double megabytesPerSecond = (double) payloadBytes * rounds / seconds / (1024.0d * 1024.0d);
+            System.out.printf("%-26s %,14.0f records/s %,10.1f MB/s%n", label, recordsPerSecond, megabytesPerSecond);
+        } catch (Exception e) {
+            throw new IllegalStateException("Benchmark '" + label + "' failed", e);
+        }
+    }
+
+    private long encodeAll(ValueRecordBinaryCodec codec, ValueRecord[] values, ByteBuffer buffer, int[] offsets) {
+        int offset = 0;
+        for (int i = 0; i < values.length; i++) {
+            offsets[i] = offset;
+            offset += codec.encode(values[i], buffer, offset);
+        }
+        return offset;
+    }
+
+    private long decodeAll(ValueRecordBinaryCodec codec, ByteBuffer buffer, int[] offsets) {
+        long sum = 0L;
+        for (int offset : offsets) {
+            sum += codec.decode(buffer, offset).version();
+        }
+        return sum;
+    }
+
+    private long readHeaders(ValueRecordView view, ByteBuffer buffer, int[] offsets) {
+        long sum = 0L;
+        for (int offset : offsets) {
+            view.wrap(buffer, offset);
+            sum += view.version() + view.timestamp() + view.payloadLength();
+        }
+        return sum;
+    }
+
+    private long verifyAll(ValueRecordView view, ByteBuffer buffer, int[] offsets) {
+        long valid = 0L;
+        for (int offset : offsets) {
+            if (view.wrap(buffer, offset).verifyChecksum()) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    private long serializeAll(ObjectMapper objectMapper, ValueRecord[] values, byte[][] jsonValues) throws Exception {
+        long bytes = 0L;
+        for (int i = 0; i < values.length; i++) {
+            jsonValues[i] = objectMapper.writeValueAsBytes(values[i]);
+            bytes += jsonValues[i].length;
+        }
+        return bytes;
+    }
+
+    private long deserializeAll(ObjectMapper objectMapper, byte[][] jsonValues) throws Exception {
+        long sum = 0L;
+        for (byte[] json : jsonValues) {
+            sum += objectMapper.readValue(json, ValueRecord.class).version();
+        }
+        return sum;
+    }
+}
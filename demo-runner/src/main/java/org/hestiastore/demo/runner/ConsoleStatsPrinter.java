@@ -1,20 +1,243 @@
 package org.hestiastore.demo.runner;
 
+import org.hestiastore.demo.core.OperationCost;
+import org.hestiastore.demo.core.OperationType;
 import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+import org.hestiastore.demo.core.ShardStatistics;
+import org.hestiastore.demo.core.SlowOperation;
+import org.hestiastore.demo.core.SteadyStateStatistics;
+import org.hestiastore.demo.core.ValueSizeClassStatistics;
+
+import java.util.List;
+import java.util.Map;
 
 public final class ConsoleStatsPrinter {
-    public void print(RuntimeMetricsSnapshot snapshot) {
+    public void print(RuntimeMetricsSnapshot snapshot, DiskUsageSnapshot disk, BackupStatus backup) {
         System.out.println("[HestiaStore Demo]");
         System.out.printf("Keys:          %,d%n", snapshot.keyCount());
         System.out.printf("Ops/sec:       %,d%n", snapshot.opsPerSecond());
+        System.out.printf("Value bytes:   read %s/s, write %s/s%n",
+                humanReadableBytes(snapshot.readBytesPerSecond()),
+                humanReadableBytes(snapshot.writeBytesPerSecond()));
+        printShards(snapshot);
+        System.out.printf("Store memory:  %s resident, %.0f B/key, payload %.1f%% (overhead %s), drift %+.2f%%%n",
+                humanReadableBytes(snapshot.storeResidentBytes()),
+                snapshot.storeBytesPerKey(),
+                snapshot.storePayloadRatio(),
+                humanReadableBytes(snapshot.storeOverheadBytes()),
+                snapshot.storeAccountingDriftPercent());
         System.out.printf("P99 latency:   %.3f ms%n", snapshot.p99LatencyMs());
+        printSteadyState(snapshot.steadyState());
+        printValueSizes(snapshot);
+        System.out.printf("GTE Hit %%:     %.2f%% (target %.2f%%), live-key index %s%n",
+                snapshot.gteHitRatio(),
+                snapshot.gteHitTarget(),
+                humanReadableBytes(snapshot.liveKeyIndexBytes()));
+        if (snapshot.frontCache().enabled()) {
+            System.out.printf("Front cache:   %.2f%% hit, %,d entries, %s, %,d evictions/s%n",
+                    snapshot.frontCache().hitRatio(),
+                    snapshot.frontCache().entries(),
+                    humanReadableBytes(snapshot.frontCache().memoryBytes()),
+                    snapshot.frontCache().evictionsPerSecond());
+        }
+        if (snapshot.expiration().enabled()) {
+            System.out.printf("TTL:           %,d scheduled (%,d pending), %,d expired/s, max reclaim lag %,d ms, %,d expired reads/s%n",
+                    snapshot.expiration().scheduled(),
+                    snapshot.expiration().pending(),
+                    snapshot.expiration().expiredPerSecond(),
+                    snapshot.expiration().maxReclaimLagMillis(),
+                    snapshot.expiration().expiredReadsPerSecond());
+        }
+        System.out.printf("Updates/sec:   %,d (conflicts %,d, retries %,d, abandoned %,d)%n",
+                snapshot.updatePerSecond(),
+                snapshot.updateConflicts(),
+                snapshot.updateRetries(),
+                snapshot.updateAbandoned());
+        printOperationCosts(snapshot);
+        printSlowOperations(snapshot);
         System.out.printf("Bloom Index:   %s%n", humanReadableBytes(snapshot.bloomIndexSizeBytes()));
         System.out.printf("Bloom Hit %%:   %.2f%%%n", snapshot.bloomHitRatio());
         System.out.printf("Registry Hit %%: %.2f%%%n", snapshot.registryCacheHitRatio());
         System.out.printf("Registry Fill: %.2f%%%n", snapshot.registryCacheFill());
+        System.out.printf("Compression:   %.2fx, saved %s, %.1f us/compress, %.1f us/decompress%n",
+                snapshot.compressionRatio(),
+                humanReadableBytes(snapshot.compressionBytesSaved()),
+                snapshot.compressMicrosPerValue(),
+                snapshot.decompressMicrosPerValue());
+        System.out.printf("Integrity:     %,d verified/s (%s/s), %,d failures%s, scrub pass %,d at %.1f%%%n",
+                snapshot.verificationsPerSecond(),
+                humanReadableBytes(snapshot.verifiedBytesPerSecond()),
+                snapshot.integrityFailures(),
+                snapshot.lastIntegrityFailureKey() < 0L ? "" : " (last key " + snapshot.lastIntegrityFailureKey() + ")",
+                snapshot.scrubPasses() + 1,
+                snapshot.scrubProgressPercent());
+        if (disk != null) {
+            printDisk(disk);
+        }
+        if (backup != null) {
+            printBackup(backup);
+        }
         System.out.println();
     }
 
+    public void printWarmup(WarmupReport warmup, SteadyStateStatistics steadyState) {
+        String start = warmup.prewarmed()
+                ? String.format("warm start, %,d of %,d hot keys pre-warmed%s",
+                        warmup.warmedKeys(),
+                        warmup.hotSetKeys(),
+                        warmup.warmMillis() < 0L ? ", still loading" : String.format(" in %,d ms", warmup.warmMillis()))
+                : "cold start";
+        System.out.printf("Warm-up:       steady state reached %.1f s after start (%s, ops/s CV %.3f, p99 CV %.3f); latest warm start %s, latest cold start %s%n",
+                warmup.steadyStateMillis() / 1000.0d,
+                start,
+                steadyState.opsCoefficientOfVariation(),
+                steadyState.p99CoefficientOfVariation(),
+                seconds(warmup.warmSteadyStateMillis()),
+                seconds(warmup.coldSteadyStateMillis()));
+    }
+
+    private void printSteadyState(SteadyStateStatistics steadyState) {
+        if (!steadyState.reached()) {
+            System.out.printf("Steady state:  warming up (ops/s CV %.3f, p99 CV %.3f); lifetime %,.0f ops/s, p50 %.3f ms, p99 %.3f ms%n",
+                    steadyState.opsCoefficientOfVariation(),
+                    steadyState.p99CoefficientOfVariation(),
+                    steadyState.lifetimeOpsPerSecond(),
+                    steadyState.lifetimeP50LatencyMs(),
+                    steadyState.lifetimeP99LatencyMs());
+            return;
+        }
+        System.out.printf("Steady state:  %,.0f ops/s, p50 %.3f ms, p99 %.3f ms over %.0f s after %.1f s warm-up; lifetime %,.0f ops/s, p50 %.3f ms, p99 %.3f ms%n",
+                steadyState.steadyOpsPerSecond(),
+                steadyState.steadyP50LatencyMs(),
+                steadyState.steadyP99LatencyMs(),
+                steadyState.steadySeconds(),
+                steadyState.warmupMillis() / 1000.0d,
+                steadyState.lifetimeOpsPerSecond(),
+                steadyState.lifetimeP50LatencyMs(),
+                steadyState.lifetimeP99LatencyMs());
+    }
+
+    private static String seconds(long millis) {
+        return millis < 0L ? "n/a" : String.format("%.1f s", millis / 1000.0d);
+    }
+
+    private void printBackup(BackupStatus backup) {
+        if (backup.error() != null) {
+            System.out.printf("Backup:        FAILED after %,d records: %s%n", backup.exportedRecords(), backup.error());
+            return;
+        }
+        System.out.printf("Backup:        %s %.1f%% (%,d of %,d records, %,d preserved), %s at %s/s (limit %s/s), foreground %+.1f%% ops/s, p99 %.3f ms vs %.3f ms before%n",
+                backup.state(),
+                backup.progressPercent(),
+                backup.exportedRecords(),
+                backup.expectedRecords(),
+                backup.preservedRecords(),
+                humanReadableBytes(backup.compressedBytes()),
+                humanReadableBytes(backup.bytesPerSecond()),
+                humanReadableBytes(backup.rateLimitBytesPerSecond()),
+                -backup.throughputImpactPercent(),
+                backup.p99Ms(),
+                backup.baselineP99Ms());
+    }
+
+    private void printDisk(DiskUsageSnapshot disk) {
+        System.out.printf("Disk:          %s in %,d files (metrics log %s, jfr %s, backups %s, data %s)%n",
+                humanReadableBytes(disk.totalBytes()),
+                disk.files(),
+                humanReadableBytes(disk.bytesByCategory().getOrDefault(DiskFileCategory.METRICS_LOG, 0L)),
+                humanReadableBytes(disk.bytesByCategory().getOrDefault(DiskFileCategory.JFR, 0L)),
+                humanReadableBytes(disk.bytesByCategory().getOrDefault(DiskFileCategory.BACKUP, 0L)),
+                humanReadableBytes(disk.bytesByCategory().getOrDefault(DiskFileCategory.DATA, 0L)));
+        // The store keeps no data files, so it has no segments to count or
+        // compact and no write amplification of its own.
+        System.out.println("Segments:      n/a (in-memory store)");
+        System.out.println("Compactions:   n/a (in-memory store)");
+        if (disk.writeBytesPerSecond() < 0L) {
+            System.out.println("I/O:           /proc/self/io not available");
+            return;
+        }
+        System.out.printf("I/O:           read %s/s (%,d syscalls/s), write %s/s (%,d syscalls/s), "
+                        + "diagnostic writes %.3f B per logical B, write amplification n/a (in-memory store)%n",
+                humanReadableBytes(disk.readBytesPerSecond()),
+                disk.readSyscallsPerSecond(),
+                humanReadableBytes(disk.writeBytesPerSecond()),
+                disk.writeSyscallsPerSecond(),
+                disk.diagnosticWriteRatio());
+    }
+
+    private void printOperationCosts(RuntimeMetricsSnapshot snapshot) {
+        StringBuilder line = new StringBuilder("Cost/op:      ");
+        for (Map.Entry<OperationType, OperationCost> entry : snapshot.operationCosts().entrySet()) {
+            OperationCost cost = entry.getValue();
+            if (cost.samples() == 0L) {
+                continue;
+            }
+            line.append(String.format("%s %s %.1f us  ",
+                    entry.getKey(),
+                    humanReadableBytes(Math.round(cost.allocatedBytesPerOp())),
+                    cost.cpuMicrosPerOp()));
+        }
+        System.out.println(line.toString().stripTrailing());
+    }
+
+    private void printValueSizes(RuntimeMetricsSnapshot snapshot) {
+        StringBuilder line = new StringBuilder("Value sizes:   ");
+        for (ValueSizeClassStatistics sizeClass : snapshot.valueSizes()) {
+            if (sizeClass.writtenValues() == 0L && sizeClass.opsPerSecond() == 0L) {
+                continue;
+            }
+            line.append(String.format("%s %.1f%% p99 %.3f ms  ",
+                    sizeClass.label(),
+                    sizeClass.writtenPercent(),
+                    sizeClass.p99LatencyMs()));
+        }
+        System.out.println(line.toString().stripTrailing());
+    }
+
+    private void printShards(RuntimeMetricsSnapshot snapshot) {
+        List<ShardStatistics> shards = snapshot.shardStatistics();
+        if (shards.size() <= 1) {
+            return;
+        }
+        ShardStatistics busiest = shards.get(0);
+        ShardStatistics idlest = shards.get(0);
+        for (ShardStatistics shard : shards) {
+            if (shard.opsPerSecond() > busiest.opsPerSecond()) {
+                busiest = shard;
+            }
+            if (shard.opsPerSecond() < idlest.opsPerSecond()) {
+                idlest = shard;
+            }
+        }
+        System.out.printf("Shards:        %d, skew %.2f (busiest #%d %,d ops/s %.1f%%, idlest #%d %,d ops/s %.1f%%)%n",
+                shards.size(),
+                snapshot.shardSkew(),
+                busiest.shard(),
+                busiest.opsPerSecond(),
+                busiest.sharePercent(),
+                idlest.shard(),
+                idlest.opsPerSecond(),
+                idlest.sharePercent());
+    }
+
+    private void printSlowOperations(RuntimeMetricsSnapshot snapshot) {
+        List<SlowOperation> operations = snapshot.slowOperations();
+        if (operations.isEmpty()) {
+            System.out.println("Slow ops:      none captured");
+            return;
+        }
+        SlowOperation slowest = operations.get(0);
+        long duringGc = operations.stream().filter(SlowOperation::gcOverlap).count();
+        System.out.printf("Slow ops:      max %.3f ms (%s key %d, rank bucket %d, %s), %d of top %d overlapped GC%n",
+                slowest.latencyMicros() / 1000.0d,
+                slowest.operation(),
+                slowest.key(),
+                slowest.rankBucket(),
+                slowest.thread(),
+                duringGc,
+                operations.size());
+    }
+
     public static String humanReadableBytes(long bytes) {
         if (bytes < 1024L) {
             return bytes + "B";
@@ -5,12 +5,12 @@ import picocli.CommandLine.Command;
 @Command(
         name = "demo",
         mixinStandardHelpOptions = true,
-        subcommands = {RunCommand.class},
+        subcommands = {RunCommand.class, ReportCommand.class, CodecBenchmarkCommand.class, RestoreCommand.class},
         description = "HestiaStore demo runner"
 )
 public final class DemoRunnerRootCommand implements Runnable {
     @Override
     public void run() {
-        System.out.println("Use subcommand: run");
+        System.out.println("Use subcommand: run, report, bench-codec, restore");
     }
 }
@@ -0,0 +1,36 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.SharedMetricsRegion;
+
+import java.nio.file.Path;
+
+/**
+ * Grouping of files under the runner data directory for disk usage reporting.
+ */
+public enum DiskFileCategory {
+    STATE,
+    METRICS_LOG,
+    JFR,
+    BACKUP,
+    DATA;
+
+    static DiskFileCategory of(Path relative) {
+        String first = relative.getNameCount() == 0 ? "" : relative.getName(0).toString();
+        if (relative.getNameCount() == 1
+                && (first.equals(RunnerStateStore.STATE_FILE_NAME)
+                || first.equals(SharedMetricsRegion.FILE_NAME)
+                || first.startsWith(HotSetStore.FILE_NAME))) {
+            return STATE;
+        }
+        if (first.equals(MetricsLogFormat.DIRECTORY_NAME)) {
+            return METRICS_LOG;
+        }
+        if (first.equals(JfrSpikeRecorder.DIRECTORY_NAME)) {
+            return JFR;
+        }
+        if (first.equals(BackupManager.DIRECTORY_NAME)) {
+            return BACKUP;
+        }
+        return DATA;
+    }
+}
@@ -0,0 +1,221 @@
+package org.hestiastore.demo.runner;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Tracks the size of the data directory by {@link DiskFileCategory} without
+ * rescanning it: the tree is walked once, then a {@link WatchService} reports
+ * changed paths, which are re-stat'ed at most once per second. An event
+ * overflow falls back to a full rescan. Process I/O comes from
+ * {@code /proc/self/io} when the platform has it.
+ */
+public final class DiskUsageCollector {
+    private static final long REFRESH_INTERVAL_MILLIS = 1000L;
+
+    private final Path root;
+    private final Map<Path, Long> fileSizes = new ConcurrentHashMap<>();
+    private final Map<DiskFileCategory, AtomicLong> categoryBytes = new EnumMap<>(DiskFileCategory.class);
+    private final Set<Path> dirtyPaths = new HashSet<>();
+
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread thread;
+
+    private ProcessIoCounters baselineIo;
+    private ProcessIoCounters previousIo;
+    private long previousNanos;
+    private long baselineLogicalBytes = -1L;
+
+    public DiskUsageCollector(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        for (DiskFileCategory category : DiskFileCategory.values()) {
+            categoryBytes.put(category, new AtomicLong());
+        }
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(root);
+        watchService = FileSystems.getDefault().newWatchService();
+        registerTree(root);
+        baselineIo = ProcessIoCounters.read();
+        previousIo = baselineIo;
+        previousNanos = System.nanoTime();
+
+        running = true;
+        thread = new Thread(this::watchLoop, "disk-usage-collector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException ignored) {
+            // Closing only wakes the watcher thread.
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Called once per window from the runner loop.
+     *
+     * @param logicalBytesWritten payload bytes written by the workload since start
+     */
+    public DiskUsageSnapshot snapshot(long logicalBytesWritten) {
+        Map<DiskFileCategory, Long> bytes = new EnumMap<>(DiskFileCategory.class);
+        long total = 0L;
+        for (Map.Entry<DiskFileCategory, AtomicLong> entry : categoryBytes.entrySet()) {
+            long value = entry.getValue().get();
+            bytes.put(entry.getKey(), value);
+            total += value;
+        }
+
+        if (baselineLogicalBytes < 0L) {
+            baselineLogicalBytes = logicalBytesWritten;
+        }
+        ProcessIoCounters io = ProcessIoCounters.read();
+        long nowNanos = System.nanoTime();
+        double seconds = Math.max(1e-3d, (nowNanos - previousNanos) / 1_000_000_000.0d);
+        boolean available = io.available() && previousIo.available();
+        long logicalBytes = logicalBytesWritten - baselineLogicalBytes;
+        DiskUsageSnapshot snapshot = new DiskUsageSnapshot(
+                total,
+                fileSizes.size(),
+                bytes,
+                io.readBytes(),
+                io.writeBytes(),
+                io.readSyscalls(),
+                io.writeSyscalls(),
+                available ? Math.round((io.readBytes() - previousIo.readBytes()) / seconds) : -1L,
+                available ? Math.round((io.writeBytes() - previousIo.writeBytes()) / seconds) : -1L,
+                available ? Math.round((io.readSyscalls() - previousIo.readSyscalls()) / seconds) : -1L,
+                available ? Math.round((io.writeSyscalls() - previousIo.writeSyscalls()) / seconds) : -1L,
+                available && baselineIo.available() && logicalBytes > 0L
+                        ? (io.writeBytes() - baselineIo.writeBytes()) / (double) logicalBytes
+                        : 0.0d
+        );
+        previousIo = io;
+        previousNanos = nowNanos;
+        return snapshot;
+    }
+
+    private void watchLoop() {
+        long nextRefresh = System.currentTimeMillis() + REFRESH_INTERVAL_MILLIS;
+        try {
+            while (running) {
+                WatchKey key = watchService.poll(REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handleEvents(key);
+                }
+                if (System.currentTimeMillis() >= nextRefresh) {
+                    for (Path path : dirtyPaths) {
+                        refresh(path);
+                    }
+                    dirtyPaths.clear();
+                    nextRefresh = System.currentTimeMillis() + REFRESH_INTERVAL_MILLIS;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Stopped.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Disk usage collector stopped: " + e.getMessage());
+        }
+    }
+
+    private void handleEvents(WatchKey key) throws IOException {
+        Path directory = (Path) key.watchable();
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                registerTree(child);
+            } else {
+                dirtyPaths.add(child);
+            }
+        }
+        if (!key.reset()) {
+            forgetTree(directory);
+        }
+        if (overflow) {
+            rescan();
+        }
+    }
+
+    private void registerTree(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    path.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+                } else {
+                    refresh(path);
+                }
+            }
+        }
+    }
+
+    private void rescan() throws IOException {
+        for (Path tracked : List.copyOf(fileSizes.keySet())) {
+            refresh(tracked);
+        }
+        registerTree(root);
+    }
+
+    private void forgetTree(Path directory) {
+        for (Path tracked : List.copyOf(fileSizes.keySet())) {
+            if (tracked.startsWith(directory)) {
+                refresh(tracked);
+            }
+        }
+    }
+
+    void refresh(Path path) {
+        long size;
+        try {
+            size = Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) ? Files.size(path) : -1L;
+        } catch (IOException e) {
+            size = -1L;
+        }
+        Long previous = size < 0L ? fileSizes.remove(path) : fileSizes.put(path, size);
+        long delta = Math.max(0L, size) - (previous == null ? 0L : previous);
+        if (delta != 0L) {
+            categoryBytes.get(DiskFileCategory.of(root.relativize(path))).addAndGet(delta);
+        }
+    }
+}
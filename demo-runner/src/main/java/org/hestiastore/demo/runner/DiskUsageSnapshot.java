@@ -0,0 +1,27 @@
+package org.hestiastore.demo.runner;
+
+import java.util.Map;
+
+/**
+ * Data directory size and process I/O for one runner window. I/O fields are
+ * -1 when {@code /proc/self/io} is not available. The store is in memory, so
+ * the process writes only the runner's own files (metrics log, JFR, backups,
+ * state); {@code diagnosticWriteRatio} is those bytes written since start per
+ * logical payload byte written by PUT and UPDATE, not store write
+ * amplification, which is not available until the store persists data.
+ */
+public record DiskUsageSnapshot(
+        long totalBytes,
+        long files,
+        Map<DiskFileCategory, Long> bytesByCategory,
+        long readBytes,
+        long writeBytes,
+        long readSyscalls,
+        long writeSyscalls,
+        long readBytesPerSecond,
+        long writeBytesPerSecond,
+        long readSyscallsPerSecond,
+        long writeSyscallsPerSecond,
+        double diagnosticWriteRatio
+) {
+}
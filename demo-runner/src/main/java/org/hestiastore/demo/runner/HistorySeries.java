@@ -0,0 +1,37 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Snapshot values retained by {@link MetricsHistory}.
+ */
+public enum HistorySeries {
+    OPS_PER_SECOND("opsPerSecond", RuntimeMetricsSnapshot::opsPerSecond),
+    GTE_PER_SECOND("gtePerSecond", RuntimeMetricsSnapshot::gtePerSecond),
+    PUT_PER_SECOND("putPerSecond", RuntimeMetricsSnapshot::putPerSecond),
+    UPDATE_PER_SECOND("updatePerSecond", RuntimeMetricsSnapshot::updatePerSecond),
+    DELETE_PER_SECOND("deletePerSecond", RuntimeMetricsSnapshot::deletePerSecond),
+    AVG_LATENCY_MS("avgLatencyMs", RuntimeMetricsSnapshot::avgLatencyMs),
+    P50_LATENCY_MS("p50LatencyMs", RuntimeMetricsSnapshot::p50LatencyMs),
+    P95_LATENCY_MS("p95LatencyMs", RuntimeMetricsSnapshot::p95LatencyMs),
+    P99_LATENCY_MS("p99LatencyMs", RuntimeMetricsSnapshot::p99LatencyMs),
+    KEY_COUNT("keyCount", RuntimeMetricsSnapshot::keyCount);
+
+    private final String fieldName;
+    private final ToDoubleFunction<RuntimeMetricsSnapshot> extractor;
+
+    HistorySeries(String fieldName, ToDoubleFunction<RuntimeMetricsSnapshot> extractor) {
+        this.fieldName = fieldName;
+        this.extractor = extractor;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public double valueOf(RuntimeMetricsSnapshot snapshot) {
+        return extractor.applyAsDouble(snapshot);
+    }
+}
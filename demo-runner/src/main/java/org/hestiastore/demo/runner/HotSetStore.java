@@ -0,0 +1,68 @@
+package org.hestiastore.demo.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Persists the hot key set next to {@code runner-state.json}.
+ *
+ * <pre>
+ * "HDHS" magic, format version byte, saved-at millis (varint),
+ * key count (varint), keys hottest first (varint)
+ * </pre>
+ *
+ * The file is written to a temporary sibling and moved into place, so a
+ * runner killed mid-write leaves the previous hot set intact.
+ */
+public final class HotSetStore {
+    static final String FILE_NAME = "hot-set.bin";
+    private static final byte[] MAGIC = {'H', 'D', 'H', 'S'};
+    private static final int VERSION = 1;
+
+    /**
+     * Returns the persisted hot keys, or an empty array when there are none
+     * or the file is unreadable.
+     */
+    public long[] load(Path directory) {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return new long[0];
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            if (!Arrays.equals(in.readNBytes(MAGIC.length), MAGIC) || in.read() != VERSION) {
+                return new long[0];
+            }
+            MetricsLogFormat.readVarLong(in);
+            long[] keys = new long[Math.toIntExact(MetricsLogFormat.readVarLong(in))];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = MetricsLogFormat.readVarLong(in);
+            }
+            return keys;
+        } catch (IOException | ArithmeticException e) {
+            return new long[0];
+        }
+    }
+
+    public void save(Path directory, long[] keys) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(FILE_NAME);
+        Path temporary = directory.resolve(FILE_NAME + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+            out.write(MAGIC);
+            out.write(VERSION);
+            MetricsLogFormat.writeVarLong(out, System.currentTimeMillis());
+            MetricsLogFormat.writeVarLong(out, keys.length);
+            for (long key : keys) {
+                MetricsLogFormat.writeVarLong(out, key);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
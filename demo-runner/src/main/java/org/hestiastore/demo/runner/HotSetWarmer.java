@@ -0,0 +1,85 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.FrontCache;
+import org.hestiastore.demo.core.ShardedStore;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads the persisted hot set into the front cache on virtual threads while
+ * the workload is already running. Each task takes every n-th key of the
+ * hottest-first list, so the hottest keys are warm first whatever the
+ * parallelism.
+ */
+public final class HotSetWarmer {
+    private final ShardedStore store;
+    private final FrontCache frontCache;
+    private final long[] keys;
+    private final int parallelism;
+    private final LongAdder warmedKeys = new LongAdder();
+
+    private volatile long durationMillis = -1L;
+    private Thread thread;
+
+    public HotSetWarmer(ShardedStore store, FrontCache frontCache, long[] keys, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Pre-warm parallelism must be positive");
+        }
+        this.store = store;
+        this.frontCache = frontCache;
+        this.keys = keys;
+        this.parallelism = parallelism;
+    }
+
+    public void start() {
+        thread = new Thread(this::warm, "hot-set-warmer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    public boolean isDone() {
+        return durationMillis >= 0L;
+    }
+
+    public int hotSetKeys() {
+        return keys.length;
+    }
+
+    /**
+     * Hot keys that still existed and were loaded.
+     */
+    public long warmedKeys() {
+        return warmedKeys.sum();
+    }
+
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    private void warm() {
+        long startNanos = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < parallelism; task++) {
+                int first = task;
+                executor.submit(() -> {
+                    for (int i = first; i < keys.length && !Thread.currentThread().isInterrupted(); i += parallelism) {
+                        if (frontCache.preload(keys[i], store::get)) {
+                            warmedKeys.increment();
+                        }
+                    }
+                });
+            }
+        }
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,121 @@
+package org.hestiastore.demo.runner;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.hestiastore.demo.core.MaintenanceEvent;
+import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+import org.hestiastore.demo.core.SnapshotWindowEvent;
+import org.hestiastore.demo.core.SteadyStateEvent;
+import org.hestiastore.demo.core.WorkloadOperationEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an in-memory JFR recording (JDK "default" settings plus the demo
+ * events) running and dumps it to {@code <dir>/jfr} whenever a window's p99
+ * crosses the threshold. Dumps run on their own thread and are rate limited
+ * by a cooldown, so a sustained slowdown produces one file, not one per second.
+ */
+public final class JfrSpikeRecorder {
+    static final String DIRECTORY_NAME = "jfr";
+
+    private final Path directory;
+    private final double p99ThresholdMs;
+    private final long cooldownMillis;
+    private final AtomicBoolean dumping = new AtomicBoolean(false);
+    private final AtomicLong dumps = new AtomicLong();
+
+    private Recording recording;
+    private ExecutorService dumpExecutor;
+    private long lastDumpMillis = Long.MIN_VALUE;
+
+    public JfrSpikeRecorder(Path directory, double p99ThresholdMs, long cooldownSeconds) {
+        this.directory = directory.resolve(DIRECTORY_NAME);
+        this.p99ThresholdMs = p99ThresholdMs;
+        this.cooldownMillis = TimeUnit.SECONDS.toMillis(cooldownSeconds);
+    }
+
+    public long dumps() {
+        return dumps.get();
+    }
+
+    public void start() {
+        if (!FlightRecorder.isAvailable()) {
+            System.err.println("JFR is not available in this JVM, spike dumps disabled");
+            return;
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            System.err.println("Cannot load JFR default settings, spike dumps disabled: " + e.getMessage());
+            return;
+        }
+        recording.setName("hestia-demo-spike");
+        recording.setToDisk(false);
+        recording.enable(WorkloadOperationEvent.class).withoutThreshold();
+        recording.enable(SnapshotWindowEvent.class);
+        recording.enable(MaintenanceEvent.class).withoutThreshold();
+        recording.enable(SteadyStateEvent.class);
+        recording.start();
+        dumpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-spike-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void stop() {
+        if (dumpExecutor != null) {
+            dumpExecutor.shutdown();
+            try {
+                dumpExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * Called from the runner loop after every window.
+     */
+    public void onSnapshot(RuntimeMetricsSnapshot snapshot, long epochMillis) {
+        if (recording == null || snapshot.p99LatencyMs() <= p99ThresholdMs) {
+            return;
+        }
+        if (lastDumpMillis != Long.MIN_VALUE && epochMillis - lastDumpMillis < cooldownMillis) {
+            return;
+        }
+        if (!dumping.compareAndSet(false, true)) {
+            return;
+        }
+        lastDumpMillis = epochMillis;
+        Path file = directory.resolve(String.format(Locale.ROOT, "spike-%d-p99-%.3fms.jfr", epochMillis, snapshot.p99LatencyMs()));
+        dumpExecutor.execute(() -> dump(file, snapshot.p99LatencyMs()));
+    }
+
+    private void dump(Path file, double p99Ms) {
+        try {
+            Files.createDirectories(directory);
+            recording.dump(file);
+            dumps.incrementAndGet();
+            System.out.printf("P99 %.3f ms above %.3f ms, JFR dumped to %s%n", p99Ms, p99ThresholdMs, file);
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("JFR spike dump failed: " + e.getMessage());
+        } finally {
+            dumping.set(false);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded in-process history of runner snapshots: 1 s buckets for the last
+ * hour, 10 s buckets for 6 hours and 1 min buckets for 24 hours. Each tier is a
+ * preallocated ring, so memory stays flat (about 8 MB) however long the runner
+ * lives. Written once per second by the runner loop and read by HTTP handlers.
+ */
+public final class MetricsHistory {
+    private static final HistorySeries[] SERIES = HistorySeries.values();
+
+    private final MetricsHistoryTier[] tiers = {
+            new MetricsHistoryTier(1, 3_600),
+            new MetricsHistoryTier(10, 2_160),
+            new MetricsHistoryTier(60, 1_440)
+    };
+
+    public synchronized void record(RuntimeMetricsSnapshot snapshot, long epochMillis) {
+        double[] values = new double[SERIES.length];
+        for (HistorySeries series : SERIES) {
+            values[series.ordinal()] = series.valueOf(snapshot);
+        }
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        for (MetricsHistoryTier tier : tiers) {
+            tier.add(epochSecond, values, snapshot.latencyHistogram());
+        }
+    }
+
+    public long memoryBytes() {
+        long bytes = 0L;
+        for (MetricsHistoryTier tier : tiers) {
+            bytes += tier.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the points between {@code fromMillis} and {@code toMillis}. The
+     * source tier is the coarsest one that still covers {@code fromMillis} at
+     * or below the requested step; a non-positive step picks the finest tier
+     * that covers the range. Steps are rounded up to a multiple of the tier step.
+     */
+    public synchronized Map<String, Object> query(long fromMillis, long toMillis, int stepSeconds, long nowMillis) {
+        long fromSecond = Math.floorDiv(fromMillis, 1000L);
+        long toSecond = Math.floorDiv(toMillis, 1000L);
+        MetricsHistoryTier tier = selectTier(Math.floorDiv(nowMillis, 1000L) - fromSecond, stepSeconds);
+        int tierStep = tier.stepSeconds();
+        int step = Math.max(tierStep, (int) Math.ceil(Math.max(1, stepSeconds) / (double) tierStep) * tierStep);
+
+        List<Map<String, Object>> points = new ArrayList<>();
+        tier.query(fromSecond, toSecond, step, point -> points.add(toJson(point)));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", fromMillis);
+        response.put("to", toMillis);
+        response.put("step", step);
+        response.put("resolutionSeconds", tierStep);
+        response.put("points", points);
+        return response;
+    }
+
+    private MetricsHistoryTier selectTier(long ageSeconds, int stepSeconds) {
+        MetricsHistoryTier selected = null;
+        for (MetricsHistoryTier tier : tiers) {
+            if (tier.retentionSeconds() < ageSeconds) {
+                continue;
+            }
+            if (selected == null || tier.stepSeconds() <= stepSeconds) {
+                selected = tier;
+            }
+        }
+        return selected == null ? tiers[tiers.length - 1] : selected;
+    }
+
+    private Map<String, Object> toJson(MetricsHistoryTier.HistoryPoint point) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("timestamp", point.startSecond * 1000L);
+        json.put("samples", point.samples);
+        for (HistorySeries series : SERIES) {
+            int i = series.ordinal();
+            Map<String, Object> aggregate = new LinkedHashMap<>();
+            aggregate.put("min", point.min[i]);
+            aggregate.put("max", point.max[i]);
+            aggregate.put("avg", point.samples == 0 ? 0.0d : point.sum[i] / point.samples);
+            json.put(series.fieldName(), aggregate);
+        }
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", LatencyHistogram.count(point.histogram));
+        latency.put("p50", LatencyHistogram.percentileMicros(point.histogram, 0.50d) / 1000.0d);
+        latency.put("p95", LatencyHistogram.percentileMicros(point.histogram, 0.95d) / 1000.0d);
+        latency.put("p99", LatencyHistogram.percentileMicros(point.histogram, 0.99d) / 1000.0d);
+        latency.put("p999", LatencyHistogram.percentileMicros(point.histogram, 0.999d) / 1000.0d);
+        json.put("latencyMs", latency);
+        return json;
+    }
+}
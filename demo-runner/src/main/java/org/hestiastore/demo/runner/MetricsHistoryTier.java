@@ -0,0 +1,140 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+
+import java.util.Arrays;
+
+/**
+ * Ring of fixed-width time buckets. Every bucket keeps min/max/sum per
+ * {@link HistorySeries} and the merged latency histogram of the snapshots that
+ * fell into it; all storage is allocated up front as flat primitive arrays.
+ */
+final class MetricsHistoryTier {
+    private static final int SERIES = HistorySeries.values().length;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int stepSeconds;
+    private final int capacity;
+    private final long[] starts;
+    private final int[] samples;
+    private final double[] min;
+    private final double[] max;
+    private final double[] sum;
+    private final int[] histograms;
+    private int head = -1;
+    private int size;
+
+    MetricsHistoryTier(int stepSeconds, int capacity) {
+        this.stepSeconds = stepSeconds;
+        this.capacity = capacity;
+        this.starts = new long[capacity];
+        this.samples = new int[capacity];
+        this.min = new double[capacity * SERIES];
+        this.max = new double[capacity * SERIES];
+        this.sum = new double[capacity * SERIES];
+        this.histograms = new int[capacity * LatencyHistogram.BUCKETS];
+        Arrays.fill(starts, EMPTY);
+    }
+
+    int stepSeconds() {
+        return stepSeconds;
+    }
+
+    long retentionSeconds() {
+        return (long) stepSeconds * capacity;
+    }
+
+    long memoryBytes() {
+        return (long) capacity * (Long.BYTES + Integer.BYTES + 3L * SERIES * Double.BYTES
+                + (long) LatencyHistogram.BUCKETS * Integer.BYTES);
+    }
+
+    void add(long epochSecond, double[] values, long[] histogram) {
+        long start = epochSecond - Math.floorMod(epochSecond, stepSeconds);
+        if (head < 0 || starts[head] != start) {
+            if (head >= 0 && start < starts[head]) {
+                return;
+            }
+            head = (head + 1) % capacity;
+            size = Math.min(capacity, size + 1);
+            starts[head] = start;
+            samples[head] = 0;
+            Arrays.fill(histograms, head * LatencyHistogram.BUCKETS, (head + 1) * LatencyHistogram.BUCKETS, 0);
+        }
+
+        int base = head * SERIES;
+        boolean first = samples[head] == 0;
+        for (int i = 0; i < SERIES; i++) {
+            double value = values[i];
+            min[base + i] = first ? value : Math.min(min[base + i], value);
+            max[base + i] = first ? value : Math.max(max[base + i], value);
+            sum[base + i] = first ? value : sum[base + i] + value;
+        }
+        samples[head]++;
+        if (histogram != null) {
+            int histogramBase = head * LatencyHistogram.BUCKETS;
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                long merged = histograms[histogramBase + i] + histogram[i];
+                histograms[histogramBase + i] = (int) Math.min(Integer.MAX_VALUE, merged);
+            }
+        }
+    }
+
+    /**
+     * Folds the buckets between {@code fromSecond} and {@code toSecond} into
+     * {@code stepSeconds}-wide points, oldest first.
+     */
+    void query(long fromSecond, long toSecond, int stepSeconds, HistoryPointSink sink) {
+        HistoryPoint point = null;
+        for (int i = 0; i < size; i++) {
+            int slot = Math.floorMod(head - size + 1 + i, capacity);
+            long start = starts[slot];
+            if (start + this.stepSeconds <= fromSecond || start > toSecond) {
+                continue;
+            }
+            long pointStart = start - Math.floorMod(start, stepSeconds);
+            if (point == null || point.startSecond != pointStart) {
+                if (point != null) {
+                    sink.accept(point);
+                }
+                point = new HistoryPoint(pointStart);
+            }
+            point.merge(slot);
+        }
+        if (point != null) {
+            sink.accept(point);
+        }
+    }
+
+    interface HistoryPointSink {
+        void accept(HistoryPoint point);
+    }
+
+    final class HistoryPoint {
+        final long startSecond;
+        final double[] min = new double[SERIES];
+        final double[] max = new double[SERIES];
+        final double[] sum = new double[SERIES];
+        final long[] histogram = new long[LatencyHistogram.BUCKETS];
+        int samples;
+
+        private HistoryPoint(long startSecond) {
+            this.startSecond = startSecond;
+        }
+
+        private void merge(int slot) {
+            int base = slot * SERIES;
+            boolean first = samples == 0;
+            for (int i = 0; i < SERIES; i++) {
+                min[i] = first ? MetricsHistoryTier.this.min[base + i] : Math.min(min[i], MetricsHistoryTier.this.min[base + i]);
+                max[i] = first ? MetricsHistoryTier.this.max[base + i] : Math.max(max[i], MetricsHistoryTier.this.max[base + i]);
+                sum[i] += MetricsHistoryTier.this.sum[base + i];
+            }
+            samples += MetricsHistoryTier.this.samples[slot];
+            int histogramBase = slot * LatencyHistogram.BUCKETS;
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                histogram[i] += histograms[histogramBase + i];
+            }
+        }
+    }
+}
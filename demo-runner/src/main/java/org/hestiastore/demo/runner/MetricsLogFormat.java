@@ -0,0 +1,72 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Layout of the runner metrics log ({@code metrics/metrics-<start>.bin}).
+ *
+ * <pre>
+ * header:  "HDML" magic, format version byte, histogram bucket count (varint)
+ * record:  payload length (varint), payload
+ * payload: timestamp delta, ops/gte/put/update/delete per second, key count
+ *          delta, average latency us, GC count delta, GC time delta, heap used,
+ *          non-empty histogram bucket count, then (index delta, count) pairs
+ * </pre>
+ *
+ * Deltas are taken against the previous record and zigzag-encoded; every
+ * number is an unsigned LEB128 varint. A truncated trailing record (runner
+ * killed mid-write), or a length no record can have, reads as end of log.
+ */
+final class MetricsLogFormat {
+    static final byte[] MAGIC = {'H', 'D', 'M', 'L'};
+    static final int VERSION = 1;
+    static final String DIRECTORY_NAME = "metrics";
+    static final String FILE_PREFIX = "metrics-";
+    static final String FILE_SUFFIX = ".bin";
+    static final int MAX_VARLONG_BYTES = 10;
+    /**
+     * Eleven scalar fields and the bucket count, then an (index delta, count)
+     * pair for every bucket, each a varint of at most {@value #MAX_VARLONG_BYTES} bytes.
+     */
+    static final int MAX_RECORD_BYTES = (12 + 2 * LatencyHistogram.BUCKETS) * MAX_VARLONG_BYTES;
+
+    private MetricsLogFormat() {
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0L) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeSignedVarLong(OutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated varint");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static long readSignedVarLong(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1L);
+    }
+}
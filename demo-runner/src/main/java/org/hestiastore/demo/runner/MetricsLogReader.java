@@ -0,0 +1,97 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Forward-only reader for the binary metrics log. Holds only the previous
+ * record needed to undo delta encoding, so memory does not grow with the log.
+ */
+public final class MetricsLogReader implements Closeable {
+    private final DataInputStream in;
+    private final int histogramBuckets;
+    private MetricsLogRecord previous;
+
+    public MetricsLogReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        byte[] magic = new byte[MetricsLogFormat.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MetricsLogFormat.MAGIC)) {
+            in.close();
+            throw new IOException("Not a metrics log: " + file);
+        }
+        int version = in.readUnsignedByte();
+        if (version != MetricsLogFormat.VERSION) {
+            in.close();
+            throw new IOException("Unsupported metrics log version " + version + ": " + file);
+        }
+        this.histogramBuckets = Math.toIntExact(MetricsLogFormat.readVarLong(in));
+        if (histogramBuckets != LatencyHistogram.BUCKETS) {
+            in.close();
+            throw new IOException("Metrics log uses " + histogramBuckets + " latency buckets, expected "
+                    + LatencyHistogram.BUCKETS + ": " + file);
+        }
+    }
+
+    /**
+     * Returns the next record, or {@code null} at the end of the log.
+     */
+    public MetricsLogRecord next() throws IOException {
+        byte[] payload;
+        try {
+            long length = MetricsLogFormat.readVarLong(in);
+            if (length < 0L || length > MetricsLogFormat.MAX_RECORD_BYTES) {
+                // A torn tail; never size an allocation from it.
+                return null;
+            }
+            payload = new byte[(int) length];
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        previous = decode(new ByteArrayInputStream(payload), previous);
+        return previous;
+    }
+
+    private MetricsLogRecord decode(InputStream payload, MetricsLogRecord previous) throws IOException {
+        long timestamp = MetricsLogFormat.readSignedVarLong(payload) + (previous == null ? 0L : previous.timestampMillis());
+        long ops = MetricsLogFormat.readVarLong(payload);
+        long gte = MetricsLogFormat.readVarLong(payload);
+        long put = MetricsLogFormat.readVarLong(payload);
+        long update = MetricsLogFormat.readVarLong(payload);
+        long delete = MetricsLogFormat.readVarLong(payload);
+        long keyCount = MetricsLogFormat.readSignedVarLong(payload) + (previous == null ? 0L : previous.keyCount());
+        long avgLatencyMicros = MetricsLogFormat.readVarLong(payload);
+        long gcCount = MetricsLogFormat.readSignedVarLong(payload) + (previous == null ? 0L : previous.gcCount());
+        long gcTime = MetricsLogFormat.readSignedVarLong(payload) + (previous == null ? 0L : previous.gcTimeMillis());
+        long heapUsed = MetricsLogFormat.readVarLong(payload);
+
+        long[] histogram = new long[histogramBuckets];
+        long nonEmpty = MetricsLogFormat.readVarLong(payload);
+        int index = 0;
+        for (long i = 0; i < nonEmpty; i++) {
+            index += Math.toIntExact(MetricsLogFormat.readVarLong(payload));
+            if (index >= histogramBuckets) {
+                throw new IOException("Histogram bucket " + index + " out of range");
+            }
+            histogram[index] = MetricsLogFormat.readVarLong(payload);
+        }
+        return new MetricsLogRecord(timestamp, ops, gte, put, update, delete, keyCount, avgLatencyMicros,
+                gcCount, gcTime, heapUsed, histogram);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
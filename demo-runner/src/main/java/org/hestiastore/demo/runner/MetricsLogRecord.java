@@ -0,0 +1,21 @@
+package org.hestiastore.demo.runner;
+
+/**
+ * One snapshot window as stored in the binary metrics log. GC count and time
+ * are cumulative JVM totals; the histogram holds the window's latency buckets.
+ */
+public record MetricsLogRecord(
+        long timestampMillis,
+        long opsPerSecond,
+        long gtePerSecond,
+        long putPerSecond,
+        long updatePerSecond,
+        long deletePerSecond,
+        long keyCount,
+        long avgLatencyMicros,
+        long gcCount,
+        long gcTimeMillis,
+        long heapUsedBytes,
+        long[] latencyHistogram
+) {
+}
@@ -0,0 +1,168 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends every snapshot to the binary metrics log described in
+ * {@link MetricsLogFormat}. The sampling loop only enqueues; a daemon thread
+ * encodes and writes, and records are dropped (and counted) rather than
+ * blocking when the disk falls behind.
+ */
+public final class MetricsRecorder {
+    private static final int QUEUE_CAPACITY = 600;
+
+    private final Path file;
+    private final BlockingQueue<MetricsLogRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public MetricsRecorder(Path directory, long startedAtMillis) {
+        this.file = directory.resolve(MetricsLogFormat.DIRECTORY_NAME)
+                .resolve(MetricsLogFormat.FILE_PREFIX + startedAtMillis + MetricsLogFormat.FILE_SUFFIX);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public long droppedRecords() {
+        return droppedRecords.get();
+    }
+
+    public long bytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(file.getParent());
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+        out.write(MetricsLogFormat.MAGIC);
+        out.write(MetricsLogFormat.VERSION);
+        MetricsLogFormat.writeVarLong(out, LatencyHistogram.BUCKETS);
+        out.flush();
+
+        running = true;
+        writerThread = new Thread(() -> writeLoop(out), "metrics-recorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (droppedRecords.get() > 0L) {
+            System.err.printf("Metrics recorder dropped %,d snapshots%n", droppedRecords.get());
+        }
+    }
+
+    public void record(RuntimeMetricsSnapshot snapshot, long epochMillis) {
+        if (!running) {
+            return;
+        }
+        long gcCount = 0L;
+        long gcTimeMillis = 0L;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0L, gc.getCollectionCount());
+            gcTimeMillis += Math.max(0L, gc.getCollectionTime());
+        }
+        long samples = LatencyHistogram.count(snapshot.latencyHistogram());
+        MetricsLogRecord record = new MetricsLogRecord(
+                epochMillis,
+                snapshot.opsPerSecond(),
+                snapshot.gtePerSecond(),
+                snapshot.putPerSecond(),
+                snapshot.updatePerSecond(),
+                snapshot.deletePerSecond(),
+                snapshot.keyCount(),
+                samples == 0L ? 0L : Math.round(snapshot.avgLatencyMs() * 1000.0d),
+                gcCount,
+                gcTimeMillis,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+                snapshot.latencyHistogram()
+        );
+        if (!queue.offer(record)) {
+            droppedRecords.incrementAndGet();
+        }
+    }
+
+    private void writeLoop(OutputStream out) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(512);
+        MetricsLogRecord previous = null;
+        try (out) {
+            while (running || !queue.isEmpty()) {
+                MetricsLogRecord record = queue.poll(200L, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    continue;
+                }
+                payload.reset();
+                encode(payload, record, previous);
+                MetricsLogFormat.writeVarLong(out, payload.size());
+                payload.writeTo(out);
+                bytesWritten.addAndGet(payload.size());
+                previous = record;
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Metrics recorder stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void encode(OutputStream out, MetricsLogRecord record, MetricsLogRecord previous) throws IOException {
+        MetricsLogFormat.writeSignedVarLong(out, record.timestampMillis() - (previous == null ? 0L : previous.timestampMillis()));
+        MetricsLogFormat.writeVarLong(out, record.opsPerSecond());
+        MetricsLogFormat.writeVarLong(out, record.gtePerSecond());
+        MetricsLogFormat.writeVarLong(out, record.putPerSecond());
+        MetricsLogFormat.writeVarLong(out, record.updatePerSecond());
+        MetricsLogFormat.writeVarLong(out, record.deletePerSecond());
+        MetricsLogFormat.writeSignedVarLong(out, record.keyCount() - (previous == null ? 0L : previous.keyCount()));
+        MetricsLogFormat.writeVarLong(out, record.avgLatencyMicros());
+        MetricsLogFormat.writeSignedVarLong(out, record.gcCount() - (previous == null ? 0L : previous.gcCount()));
+        MetricsLogFormat.writeSignedVarLong(out, record.gcTimeMillis() - (previous == null ? 0L : previous.gcTimeMillis()));
+        MetricsLogFormat.writeVarLong(out, record.heapUsedBytes());
+
+        long[] histogram = record.latencyHistogram();
+        int nonEmpty = 0;
+        for (long count : histogram) {
+            if (count != 0L) {
+                nonEmpty++;
+            }
+        }
+        MetricsLogFormat.writeVarLong(out, nonEmpty);
+        int previousIndex = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] != 0L) {
+                MetricsLogFormat.writeVarLong(out, i - previousIndex);
+                MetricsLogFormat.writeVarLong(out, histogram[i]);
+                previousIndex = i;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.hestiastore.demo.runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Process I/O counters from {@code /proc/self/io}. {@code rchar}/{@code wchar}
+ * count bytes passed to read/write syscalls (page cache included),
+ * {@code read_bytes}/{@code write_bytes} what actually reached the block layer.
+ */
+record ProcessIoCounters(
+        long readChars,
+        long writeChars,
+        long readSyscalls,
+        long writeSyscalls,
+        long readBytes,
+        long writeBytes
+) {
+    private static final Path PROC_SELF_IO = Path.of("/proc/self/io");
+
+    static final ProcessIoCounters UNAVAILABLE = new ProcessIoCounters(-1L, -1L, -1L, -1L, -1L, -1L);
+
+    static ProcessIoCounters read() {
+        if (!Files.isReadable(PROC_SELF_IO)) {
+            return UNAVAILABLE;
+        }
+        long rchar = 0L;
+        long wchar = 0L;
+        long syscr = 0L;
+        long syscw = 0L;
+        long readBytes = 0L;
+        long writeBytes = 0L;
+        try {
+            for (String line : Files.readAllLines(PROC_SELF_IO)) {
+                int separator = line.indexOf(':');
+                if (separator < 0) {
+                    continue;
+                }
+                long value = Long.parseLong(line.substring(separator + 1).trim());
+                switch (line.substring(0, separator)) {
+                    case "rchar" -> rchar = value;
+                    case "wchar" -> wchar = value;
+                    case "syscr" -> syscr = value;
+                    case "syscw" -> syscw = value;
+                    case "read_bytes" -> readBytes = value;
+                    case "write_bytes" -> writeBytes = value;
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return UNAVAILABLE;
+        }
+        return new ProcessIoCounters(rchar, wchar, syscr, syscw, readBytes, writeBytes);
+    }
+
+    boolean available() {
+        return readChars >= 0L;
+    }
+}
@@ -0,0 +1,71 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate of the log records falling into one report row. Reset and reused
+ * for every row, so the report keeps a single bucket in memory.
+ */
+final class ReportBucket {
+    final long[] histogram = new long[LatencyHistogram.BUCKETS];
+    long startMillis = Long.MIN_VALUE;
+    int records;
+    long minOps;
+    long maxOps;
+    long sumOps;
+    long sumGte;
+    long sumPut;
+    long sumUpdate;
+    long sumDelete;
+    long keyCount;
+    long gcCount;
+    long gcTimeMillis;
+    long maxHeapUsedBytes;
+
+    boolean isEmpty() {
+        return records == 0;
+    }
+
+    void reset(long startMillis) {
+        this.startMillis = startMillis;
+        records = 0;
+        minOps = 0L;
+        maxOps = 0L;
+        sumOps = 0L;
+        sumGte = 0L;
+        sumPut = 0L;
+        sumUpdate = 0L;
+        sumDelete = 0L;
+        keyCount = 0L;
+        gcCount = 0L;
+        gcTimeMillis = 0L;
+        maxHeapUsedBytes = 0L;
+        Arrays.fill(histogram, 0L);
+    }
+
+    void add(MetricsLogRecord record, long gcCountDelta, long gcTimeDelta) {
+        minOps = records == 0 ? record.opsPerSecond() : Math.min(minOps, record.opsPerSecond());
+        maxOps = records == 0 ? record.opsPerSecond() : Math.max(maxOps, record.opsPerSecond());
+        records++;
+        sumOps += record.opsPerSecond();
+        sumGte += record.gtePerSecond();
+        sumPut += record.putPerSecond();
+        sumUpdate += record.updatePerSecond();
+        sumDelete += record.deletePerSecond();
+        keyCount = record.keyCount();
+        gcCount += gcCountDelta;
+        gcTimeMillis += gcTimeDelta;
+        maxHeapUsedBytes = Math.max(maxHeapUsedBytes, record.heapUsedBytes());
+        LatencyHistogram.merge(histogram, record.latencyHistogram());
+    }
+
+    double average(long sum) {
+        return records == 0 ? 0.0d : sum / (double) records;
+    }
+
+    double percentileMs(double percentile) {
+        return LatencyHistogram.percentileMicros(histogram, percentile) / 1000.0d;
+    }
+}
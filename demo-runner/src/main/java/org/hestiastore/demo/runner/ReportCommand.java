@@ -0,0 +1,206 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Command(name = "report", description = "Summarize a recorded metrics log as CSV and HTML")
+public final class ReportCommand implements Runnable {
+    @Option(names = "--dir", required = true, description = "Runner data directory")
+    private Path directory;
+
+    @Option(names = "--log", description = "Metrics log file, defaults to the newest log in --dir")
+    private Path logFile;
+
+    @Option(names = "--output", description = "Report directory, defaults to <dir>/report")
+    private Path output;
+
+    @Option(names = "--bucket-seconds", defaultValue = "60", description = "Width of one report row")
+    private int bucketSeconds;
+
+    @Option(names = "--warmup-seconds", defaultValue = "300", description = "Initial span excluded from steady-state statistics")
+    private long warmupSeconds;
+
+    private final long[] totalHistogram = new long[LatencyHistogram.BUCKETS];
+    private final long[] steadyHistogram = new long[LatencyHistogram.BUCKETS];
+    private final RunningStatistics steadyOps = new RunningStatistics();
+    private final RunningStatistics steadyP99 = new RunningStatistics();
+    private final RunningStatistics p99DuringGc = new RunningStatistics();
+    private final RunningStatistics p99WithoutGc = new RunningStatistics();
+    private final StreamingCorrelation gcTimeToP99 = new StreamingCorrelation();
+
+    @Override
+    public void run() {
+        if (bucketSeconds <= 0) {
+            throw new IllegalArgumentException("--bucket-seconds must be positive");
+        }
+        Path log = logFile == null ? newestLog() : logFile;
+        Path reportDirectory = output == null ? directory.resolve("report") : output;
+        try {
+            Files.createDirectories(reportDirectory);
+            try (MetricsLogReader reader = new MetricsLogReader(log);
+                 BufferedWriter csv = Files.newBufferedWriter(reportDirectory.resolve("timeseries.csv"), StandardCharsets.UTF_8);
+                 BufferedWriter html = Files.newBufferedWriter(reportDirectory.resolve("report.html"), StandardCharsets.UTF_8)) {
+                writeHeaders(log, csv, html);
+                long records = analyze(reader, csv, html);
+                writeSummary(records, html);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot build report from " + log, e);
+        }
+        System.out.printf("Report written to %s%n", reportDirectory.toAbsolutePath());
+    }
+
+    private Path newestLog() {
+        Path logDirectory = directory.resolve(MetricsLogFormat.DIRECTORY_NAME);
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(MetricsLogFormat.FILE_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(MetricsLogFormat.FILE_SUFFIX))
+                    .max(Comparator.comparing(file -> file.toFile().lastModified()))
+                    .orElseThrow(() -> new IllegalStateException("No metrics log in " + logDirectory));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list " + logDirectory, e);
+        }
+    }
+
+    /**
+     * Single pass over the log: rows are written as soon as their bucket
+     * closes, summary statistics are accumulated online.
+     */
+    private long analyze(MetricsLogReader reader, BufferedWriter csv, BufferedWriter html) throws IOException {
+        ReportBucket bucket = new ReportBucket();
+        long bucketMillis = bucketSeconds * 1000L;
+        long records = 0L;
+        long firstTimestamp = 0L;
+        MetricsLogRecord previous = null;
+
+        MetricsLogRecord record;
+        while ((record = reader.next()) != null) {
+            if (records++ == 0L) {
+                firstTimestamp = record.timestampMillis();
+            }
+            long gcCountDelta = previous == null ? 0L : Math.max(0L, record.gcCount() - previous.gcCount());
+            long gcTimeDelta = previous == null ? 0L : Math.max(0L, record.gcTimeMillis() - previous.gcTimeMillis());
+            double p99Ms = LatencyHistogram.percentileMicros(record.latencyHistogram(), 0.99d) / 1000.0d;
+
+            long start = record.timestampMillis() - Math.floorMod(record.timestampMillis(), bucketMillis);
+            if (bucket.startMillis != start) {
+                if (!bucket.isEmpty()) {
+                    writeRow(bucket, csv, html);
+                }
+                bucket.reset(start);
+            }
+            bucket.add(record, gcCountDelta, gcTimeDelta);
+
+            LatencyHistogram.merge(totalHistogram, record.latencyHistogram());
+            gcTimeToP99.add(gcTimeDelta, p99Ms);
+            (gcCountDelta > 0L ? p99DuringGc : p99WithoutGc).add(p99Ms);
+            if (record.timestampMillis() - firstTimestamp >= warmupSeconds * 1000L) {
+                LatencyHistogram.merge(steadyHistogram, record.latencyHistogram());
+                steadyOps.add(record.opsPerSecond());
+                steadyP99.add(p99Ms);
+            }
+            previous = record;
+        }
+        if (!bucket.isEmpty()) {
+            writeRow(bucket, csv, html);
+        }
+        return records;
+    }
+
+    private void writeHeaders(Path log, BufferedWriter csv, BufferedWriter html) throws IOException {
+        csv.write("time,records,ops_per_sec_avg,ops_per_sec_min,ops_per_sec_max,gte_per_sec,put_per_sec,"
+                + "update_per_sec,delete_per_sec,key_count,p50_ms,p95_ms,p99_ms,p999_ms,gc_count,gc_time_ms,heap_used_max_bytes\n");
+        html.write("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>HestiaStore demo report</title>\n");
+        html.write("<style>body{font-family:sans-serif}table{border-collapse:collapse}"
+                + "td,th{border:1px solid #ccc;padding:2px 6px;text-align:right}</style></head><body>\n");
+        html.write("<h1>HestiaStore demo report</h1>\n<p>Log: " + escape(log.toString()) + "</p>\n");
+        html.write("<h2>Over time (" + bucketSeconds + " s rows)</h2>\n<table>\n<tr><th>Time</th><th>Ops/s avg</th>"
+                + "<th>Ops/s min</th><th>Ops/s max</th><th>Keys</th><th>p50 ms</th><th>p95 ms</th><th>p99 ms</th>"
+                + "<th>p99.9 ms</th><th>GCs</th><th>GC ms</th><th>Heap max</th></tr>\n");
+    }
+
+    private void writeRow(ReportBucket bucket, BufferedWriter csv, BufferedWriter html) throws IOException {
+        String time = Instant.ofEpochMilli(bucket.startMillis).toString();
+        csv.write(String.format(Locale.ROOT, "%s,%d,%.1f,%d,%d,%.1f,%.1f,%.1f,%.1f,%d,%.3f,%.3f,%.3f,%.3f,%d,%d,%d%n",
+                time,
+                bucket.records,
+                bucket.average(bucket.sumOps),
+                bucket.minOps,
+                bucket.maxOps,
+                bucket.average(bucket.sumGte),
+                bucket.average(bucket.sumPut),
+                bucket.average(bucket.sumUpdate),
+                bucket.average(bucket.sumDelete),
+                bucket.keyCount,
+                bucket.percentileMs(0.50d),
+                bucket.percentileMs(0.95d),
+                bucket.percentileMs(0.99d),
+                bucket.percentileMs(0.999d),
+                bucket.gcCount,
+                bucket.gcTimeMillis,
+                bucket.maxHeapUsedBytes));
+        html.write(String.format(Locale.ROOT,
+                "<tr><td>%s</td><td>%,.0f</td><td>%,d</td><td>%,d</td><td>%,d</td><td>%.3f</td><td>%.3f</td>"
+                        + "<td>%.3f</td><td>%.3f</td><td>%d</td><td>%d</td><td>%s</td></tr>%n",
+                time,
+                bucket.average(bucket.sumOps),
+                bucket.minOps,
+                bucket.maxOps,
+                bucket.keyCount,
+                bucket.percentileMs(0.50d),
+                bucket.percentileMs(0.95d),
+                bucket.percentileMs(0.99d),
+                bucket.percentileMs(0.999d),
+                bucket.gcCount,
+                bucket.gcTimeMillis,
+                ConsoleStatsPrinter.humanReadableBytes(bucket.maxHeapUsedBytes)));
+    }
+
+    private void writeSummary(long records, BufferedWriter html) throws IOException {
+        String[][] rows = {
+                {"Records", String.format(Locale.ROOT, "%,d", records)},
+                {"Whole run p50 / p99 / p99.9 ms", percentiles(totalHistogram)},
+                {"Steady-state windows (after " + warmupSeconds + " s)", String.format(Locale.ROOT, "%,d", steadyOps.count())},
+                {"Steady-state ops/s mean &plusmn; stddev", String.format(Locale.ROOT, "%,.0f &plusmn; %,.0f (CV %.1f%%)",
+                        steadyOps.mean(), steadyOps.standardDeviation(), steadyOps.coefficientOfVariation() * 100.0d)},
+                {"Steady-state ops/s min / max", String.format(Locale.ROOT, "%,.0f / %,.0f", steadyOps.min(), steadyOps.max())},
+                {"Steady-state window p99 ms mean &plusmn; stddev", String.format(Locale.ROOT, "%.3f &plusmn; %.3f",
+                        steadyP99.mean(), steadyP99.standardDeviation())},
+                {"Steady-state p50 / p99 / p99.9 ms", percentiles(steadyHistogram)},
+                {"Windows with GC / without", String.format(Locale.ROOT, "%,d / %,d", p99DuringGc.count(), p99WithoutGc.count())},
+                {"Mean window p99 ms with GC / without", String.format(Locale.ROOT, "%.3f / %.3f",
+                        p99DuringGc.mean(), p99WithoutGc.mean())},
+                {"Correlation GC time vs window p99", String.format(Locale.ROOT, "%.3f", gcTimeToP99.coefficient())}
+        };
+        html.write("</table>\n<h2>Summary</h2>\n<table>\n");
+        for (String[] row : rows) {
+            html.write("<tr><th style=\"text-align:left\">" + row[0] + "</th><td>" + row[1] + "</td></tr>\n");
+            System.out.printf("%-48s %s%n", row[0].replace("&plusmn;", "+/-"), row[1].replace("&plusmn;", "+/-"));
+        }
+        html.write("</table>\n</body></html>\n");
+    }
+
+    private String percentiles(long[] histogram) {
+        return String.format(Locale.ROOT, "%.3f / %.3f / %.3f",
+                LatencyHistogram.percentileMicros(histogram, 0.50d) / 1000.0d,
+                LatencyHistogram.percentileMicros(histogram, 0.99d) / 1000.0d,
+                LatencyHistogram.percentileMicros(histogram, 0.999d) / 1000.0d);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
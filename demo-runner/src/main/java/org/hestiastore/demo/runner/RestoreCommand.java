@@ -0,0 +1,47 @@
+package org.hestiastore.demo.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.ShardedStore;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+@Command(name = "restore", description = "Bulk-load and verify a backup taken with POST /api/v1/actions/backup")
+public final class RestoreCommand implements Runnable {
+    @Option(names = "--from", required = true, description = "Backup directory holding manifest.json and the chunks")
+    private Path from;
+
+    @Option(names = "--threads", defaultValue = "4", description = "Chunks decoded and loaded in parallel")
+    private int threads;
+
+    @Option(names = "--shards", defaultValue = "0", description = "Store partitions to load into; 0 keeps the backup's shard count")
+    private int shards;
+
+    @Override
+    public void run() {
+        BackupReader reader = new BackupReader(new ObjectMapper());
+        try {
+            BackupManifest manifest = reader.manifest(from);
+            ShardedStore store = new ShardedStore(shards > 0 ? shards : manifest.shards(), manifest.nextKey());
+            System.out.printf("Restoring %,d records (%s in %,d chunks) taken at %tFT%<tT%n",
+                    manifest.records(),
+                    ConsoleStatsPrinter.humanReadableBytes(manifest.compressedBytes()),
+                    manifest.chunks().size(),
+                    manifest.takenAtMillis());
+            long startNanos = System.nanoTime();
+            long records = reader.load(from, manifest, store, threads);
+            double seconds = Math.max(1e-9d, (System.nanoTime() - startNanos) / 1_000_000_000.0d);
+            System.out.printf("Loaded %,d records in %.3f s: %,.0f records/s, %.1f MB/s (uncompressed), store %s resident%n",
+                    records,
+                    seconds,
+                    records / seconds,
+                    manifest.rawBytes() / seconds / (1024.0d * 1024.0d),
+                    ConsoleStatsPrinter.humanReadableBytes(store.memoryUsage().residentBytes()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Restore from " + from + " failed", e);
+        }
+    }
+}
@@ -4,19 +4,38 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import org.hestiastore.demo.core.DemoConfiguration;
 import org.hestiastore.demo.core.DemoMetrics;
-import org.hestiastore.demo.core.InMemoryStore;
+import org.hestiastore.demo.core.ExpirationReaper;
+import org.hestiastore.demo.core.FrontCache;
+import org.hestiastore.demo.core.GcPauseTracker;
+import org.hestiastore.demo.core.HotKeyTracker;
+import org.hestiastore.demo.core.IntegrityScrubber;
+import org.hestiastore.demo.core.IntegrityVerifier;
+import org.hestiastore.demo.core.OperationCostProbe;
+import org.hestiastore.demo.core.PayloadGenerator;
+import org.hestiastore.demo.core.PayloadEncoding;
 import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+import org.hestiastore.demo.core.ShardRouting;
+import org.hestiastore.demo.core.ShardedStore;
+import org.hestiastore.demo.core.SlowOperationSampler;
+import org.hestiastore.demo.core.SteadyStateDetector;
+import org.hestiastore.demo.core.TtlDistribution;
+import org.hestiastore.demo.core.ValueCodec;
 import org.hestiastore.demo.core.ValueRecord;
+import org.hestiastore.demo.core.ValueSizeDistribution;
 import org.hestiastore.demo.core.WorkloadEngine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Command(name = "run", description = "Run workload and expose monitoring endpoints")
 public final class RunCommand implements Runnable {
+    private static final double HOT_KEY_SAMPLE_RATE = 1.0d / 16.0d;
+
     @Option(names = "--dir", required = true)
     private Path directory;
 
@@ -29,15 +48,150 @@ public final class RunCommand implements Runnable {
     @Option(names = "--gte-ratio", defaultValue = "0.6")
     private double gteRatio;
 
-    @Option(names = "--put-ratio", defaultValue = "0.3")
+    @Option(names = "--put-ratio", defaultValue = "0.15")
     private double putRatio;
 
+    @Option(names = "--update-ratio", defaultValue = "0.15")
+    private double updateRatio;
+
     @Option(names = "--delete-ratio", defaultValue = "0.1")
     private double deleteRatio;
 
+    @Option(names = "--gte-hit-target", defaultValue = "0.95", description = "Fraction of GTE reads aimed at live keys")
+    private double gteHitTarget;
+
+    @Option(names = "--value-size-distribution", defaultValue = "UNIFORM", description = "Payload size shape: FIXED, UNIFORM, LOG_NORMAL or BIMODAL")
+    private ValueSizeDistribution valueSizeDistribution;
+
+    @Option(names = "--value-size", defaultValue = "1024", description = "FIXED size, LOG_NORMAL median and BIMODAL small size in bytes")
+    private int valueSize;
+
+    @Option(names = "--value-min-bytes", defaultValue = "200", description = "UNIFORM lower bound and LOG_NORMAL floor")
+    private int valueMinBytes;
+
+    @Option(names = "--value-max-bytes", defaultValue = "2000", description = "UNIFORM upper bound")
+    private int valueMaxBytes;
+
+    @Option(names = "--value-log-normal-max-bytes", defaultValue = "1048576", description = "LOG_NORMAL ceiling")
+    private int valueLogNormalMaxBytes;
+
+    @Option(names = "--value-size-sigma", defaultValue = "1.0", description = "LOG_NORMAL spread: standard deviation of ln(size)")
+    private double valueSizeSigma;
+
+    @Option(names = "--value-large-fraction", defaultValue = "0.05", description = "BIMODAL share of large values")
+    private double valueLargeFraction;
+
+    @Option(names = "--value-large-bytes", defaultValue = "65536", description = "BIMODAL large value size in bytes")
+    private int valueLargeBytes;
+
+    @Option(names = "--shards", defaultValue = "1", description = "Independent store partitions; 1 keeps a single shared store")
+    private int shards;
+
+    @Option(names = "--shard-routing", defaultValue = "HASH", description = "Shard selection: HASH or AFFINE (workers prefer a home shard)")
+    private ShardRouting shardRouting;
+
+    @Option(names = "--shard-affinity", defaultValue = "0.9", description = "Share of operations an AFFINE worker sends to its home shard")
+    private double shardAffinity;
+
+    @Option(names = "--front-cache-entries", defaultValue = "65536", description = "S3-FIFO read cache in front of the store, bounded by entries; 0 for no entry bound")
+    private long frontCacheEntries;
+
+    @Option(names = "--front-cache-bytes", defaultValue = "0", description = "Bound on cached record bytes; the cache is off when both bounds are 0")
+    private long frontCacheBytes;
+
+    @Option(names = "--ttl-ratio", defaultValue = "0.0", description = "Fraction of PUTs written with a time-to-live")
+    private double ttlRatio;
+
+    @Option(names = "--ttl-distribution", defaultValue = "EXPONENTIAL", description = "TTL shape: FIXED, UNIFORM or EXPONENTIAL")
+    private TtlDistribution ttlDistribution;
+
+    @Option(names = "--ttl-seconds", defaultValue = "300", description = "Mean time-to-live of expiring records")
+    private long ttlSeconds;
+
+    @Option(names = "--ttl-tick-millis", defaultValue = "100", description = "Timing wheel tick; bounds how late expired records are reclaimed")
+    private long ttlTickMillis;
+
+    @Option(names = "--steady-state-windows", defaultValue = "10", description = "Consecutive 1 s windows that must be stable to end warm-up")
+    private int steadyStateWindows;
+
+    @Option(names = "--steady-state-max-ops-variation", defaultValue = "0.1", description = "Largest coefficient of variation of ops/s over those windows")
+    private double steadyStateMaxOpsVariation;
+
+    @Option(names = "--steady-state-max-p99-variation", defaultValue = "0.2", description = "Largest coefficient of variation of window p99 over those windows")
+    private double steadyStateMaxP99Variation;
+
     @Option(names = "--metrics-port", defaultValue = "9090")
     private int metricsPort;
 
+    @Option(names = "--http-gzip", defaultValue = "true", fallbackValue = "true", arity = "0..1", description = "Serve gzip bodies to clients that accept them")
+    private boolean httpGzip;
+
+    @Option(names = "--compression", defaultValue = "DEFLATE", description = "Payload encoding: RAW or DEFLATE")
+    private PayloadEncoding compression;
+
+    @Option(names = "--compression-level", defaultValue = "1", description = "Deflate level 1 (fastest) to 9 (smallest)")
+    private int compressionLevel;
+
+    @Option(names = "--verify-sample-rate", defaultValue = "0.01", description = "Fraction of GTE reads whose CRC32C is verified")
+    private double verifySampleRate;
+
+    @Option(names = "--scrub-keys-per-second", defaultValue = "10000", description = "Background scrubber rate, 0 disables it")
+    private long scrubKeysPerSecond;
+
+    @Option(names = "--metrics-log", defaultValue = "true", fallbackValue = "true", arity = "0..1", description = "Append every snapshot to a binary log under <dir>/metrics")
+    private boolean metricsLog;
+
+    @Option(names = "--jfr", defaultValue = "true", fallbackValue = "true", arity = "0..1", description = "Keep an in-memory JFR recording and dump it on p99 spikes")
+    private boolean jfr;
+
+    @Option(names = "--jfr-sample-rate", defaultValue = "0.001", description = "Fraction of operations emitted as JFR events")
+    private double jfrSampleRate;
+
+    @Option(names = "--jfr-p99-threshold-ms", defaultValue = "50", description = "Window p99 that triggers a JFR dump")
+    private double jfrP99ThresholdMs;
+
+    @Option(names = "--jfr-dump-cooldown-seconds", defaultValue = "300", description = "Minimum time between JFR dumps")
+    private long jfrDumpCooldownSeconds;
+
+    @Option(names = "--slow-ops-top-n", defaultValue = "16", description = "Slowest operations kept per window")
+    private int slowOpsTopN;
+
+    @Option(names = "--slow-ops-min-micros", defaultValue = "0", description = "Latency below which operations are never captured")
+    private long slowOpsMinMicros;
+
+    @Option(names = "--cost-sample-rate", defaultValue = "0.01", description = "Fraction of operations measured for allocated bytes and CPU time")
+    private double costSampleRate;
+
+    @Option(names = "--shared-metrics", defaultValue = "true", fallbackValue = "true", arity = "0..1", description = "Publish live counters to a memory-mapped file in --dir for demo top")
+    private boolean sharedMetrics;
+
+    @Option(names = "--shared-metrics-interval-ms", defaultValue = "100", description = "Refresh interval of the shared metrics file")
+    private long sharedMetricsIntervalMillis;
+
+    @Option(names = "--hot-set-size", defaultValue = "4096", description = "Hottest GTE keys tracked and persisted for restart pre-warming, only with a front cache; 0 disables")
+    private int hotSetSize;
+
+    @Option(names = "--hot-set-save-seconds", defaultValue = "30", description = "Interval at which the hot set is persisted and its counts halved")
+    private long hotSetSaveSeconds;
+
+    @Option(names = "--prewarm", defaultValue = "true", fallbackValue = "true", arity = "0..1", description = "Load the persisted hot set into the front cache on startup")
+    private boolean prewarm;
+
+    @Option(names = "--prewarm-threads", defaultValue = "8", description = "Virtual threads loading the hot set")
+    private int prewarmThreads;
+
+    @Option(names = "--backup-max-mb-per-second", defaultValue = "64", description = "Upper bound of the compressed backup write rate")
+    private long backupMaxMegabytesPerSecond;
+
+    @Option(names = "--backup-max-foreground-impact", defaultValue = "0.1", description = "Fraction of foreground ops/s a backup may cost before it slows down")
+    private double backupMaxForegroundImpact;
+
+    @Option(names = "--restore-from", description = "Backup directory bulk-loaded on startup instead of the recovery seed")
+    private Path restoreFrom;
+
+    @Option(names = "--restore-threads", defaultValue = "4", description = "Chunks loaded in parallel by --restore-from")
+    private int restoreThreads;
+
     @Override
     public void run() {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -47,26 +201,103 @@ public final class RunCommand implements Runnable {
         RunnerState state = stateStore.load(directory);
 
         long startRecoverNanos = System.nanoTime();
-        InMemoryStore store = new InMemoryStore(state.nextKey());
-        seedRecoveredData(store, state.recoveredKeys());
+        ShardedStore store;
+        long recoveredKeys;
+        if (restoreFrom != null) {
+            BackupReader backupReader = new BackupReader(objectMapper);
+            try {
+                BackupManifest manifest = backupReader.manifest(restoreFrom);
+                store = new ShardedStore(shards, Math.max(state.nextKey(), manifest.nextKey()));
+                recoveredKeys = backupReader.load(restoreFrom, manifest, store, restoreThreads);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Restore from " + restoreFrom + " failed", e);
+            }
+        } else {
+            store = new ShardedStore(shards, state.nextKey());
+            seedRecoveredData(store, state.recoveredKeys());
+            recoveredKeys = state.recoveredKeys();
+        }
         long recoverMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startRecoverNanos);
-        System.out.printf("Recovered %,d keys in %.3f seconds%n", state.recoveredKeys(), recoverMillis / 1000.0d);
+        System.out.printf("Recovered %,d keys in %.3f seconds%n", recoveredKeys, recoverMillis / 1000.0d);
 
-        DemoConfiguration configuration = DemoConfiguration.defaults(threads, targetKeys, gteRatio, putRatio, deleteRatio);
+        DemoConfiguration configuration = DemoConfiguration.defaults(
+                threads, targetKeys, gteRatio, putRatio, updateRatio, deleteRatio, gteHitTarget);
         configuration.validateRatios();
 
-        DemoMetrics metrics = new DemoMetrics(configuration);
-        WorkloadEngine engine = new WorkloadEngine(configuration, store, metrics);
-        RunnerServer runnerServer = new RunnerServer(metricsPort, objectMapper);
+        SteadyStateDetector steadyStateDetector = new SteadyStateDetector(
+                steadyStateWindows, steadyStateMaxOpsVariation, steadyStateMaxP99Variation);
+        DemoMetrics metrics = new DemoMetrics(configuration, steadyStateDetector);
+        ValueCodec valueCodec = new ValueCodec(compression, compressionLevel, metrics);
+        IntegrityVerifier integrityVerifier = new IntegrityVerifier(verifySampleRate, metrics);
+        IntegrityScrubber scrubber = new IntegrityScrubber(store, integrityVerifier, metrics, scrubKeysPerSecond);
+        GcPauseTracker gcPauseTracker = GcPauseTracker.install();
+        SlowOperationSampler slowOperationSampler = new SlowOperationSampler(slowOpsTopN, slowOpsMinMicros, gcPauseTracker);
+        FrontCache frontCache = frontCacheEntries > 0L || frontCacheBytes > 0L
+                ? new FrontCache(frontCacheEntries, frontCacheBytes)
+                : null;
+        ExpirationReaper expirationReaper = ttlRatio > 0.0d || restoreFrom != null
+                ? new ExpirationReaper(store, frontCache, ttlRatio, ttlDistribution,
+                        TimeUnit.SECONDS.toMillis(ttlSeconds), ttlTickMillis)
+                : null;
+        if (restoreFrom != null) {
+            long restoredTtls = expirationReaper.scheduleLoaded(System.currentTimeMillis());
+            System.out.printf("Scheduled %,d restored TTLs, %,d keys live%n", restoredTtls, store.size());
+        }
+        if (frontCache == null && (hotSetSize > 0 || prewarm)) {
+            System.out.println("Front cache is off: hot-set tracking and pre-warming are disabled");
+        }
+        HotKeyTracker hotKeys = hotSetSize > 0 && frontCache != null
+                ? new HotKeyTracker(hotSetSize, HOT_KEY_SAMPLE_RATE) : null;
+        HotSetStore hotSetStore = new HotSetStore();
+        long[] hotSet = hotSetStore.load(directory);
+        HotSetWarmer warmer = prewarm && frontCache != null && hotSet.length > 0
+                ? new HotSetWarmer(store, frontCache, hotSet, prewarmThreads)
+                : null;
+        WorkloadEngine engine = new WorkloadEngine(
+                configuration, store, metrics, valueCodec, integrityVerifier, jfrSampleRate, slowOperationSampler,
+                new OperationCostProbe(costSampleRate), shardRouting, shardAffinity, frontCache, expirationReaper, hotKeys,
+                new PayloadGenerator(valueSizeDistribution, valueSize, valueMinBytes, valueMaxBytes, valueLogNormalMaxBytes,
+                        valueSizeSigma, valueLargeFraction, valueLargeBytes));
+        MetricsHistory history = new MetricsHistory();
+        MetricsRecorder recorder = metricsLog ? new MetricsRecorder(directory, System.currentTimeMillis()) : null;
+        JfrSpikeRecorder spikeRecorder = jfr ? new JfrSpikeRecorder(directory, jfrP99ThresholdMs, jfrDumpCooldownSeconds) : null;
+        SharedMetricsPublisher sharedMetricsPublisher = sharedMetrics
+                ? new SharedMetricsPublisher(directory, metrics, sharedMetricsIntervalMillis)
+                : null;
+        BackupManager backupManager = new BackupManager(
+                store, objectMapper, directory, backupMaxMegabytesPerSecond * 1024L * 1024L, backupMaxForegroundImpact);
+        RunnerServer runnerServer = new RunnerServer(
+                metricsPort, objectMapper, httpGzip, history, slowOperationSampler, shards, backupManager);
+        DiskUsageCollector diskUsageCollector = new DiskUsageCollector(directory);
         ConsoleStatsPrinter printer = new ConsoleStatsPrinter();
 
         AtomicBoolean shutdownRequested = new AtomicBoolean(false);
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             shutdownRequested.set(true);
+            backupManager.stop();
+            scrubber.stop();
             engine.stop();
+            if (expirationReaper != null) {
+                expirationReaper.stop();
+            }
             runnerServer.stop();
+            if (recorder != null) {
+                recorder.stop();
+            }
+            if (spikeRecorder != null) {
+                spikeRecorder.stop();
+            }
+            if (sharedMetricsPublisher != null) {
+                sharedMetricsPublisher.stop();
+            }
+            if (warmer != null) {
+                warmer.stop();
+            }
             try {
-                stateStore.save(directory, new RunnerState(store.size(), store.nextKey()));
+                if (hotKeys != null) {
+                    hotSetStore.save(directory, hotKeys.topKeys());
+                }
+                stateStore.save(directory, nextState(store, state, warmer != null, steadyStateDetector.warmupMillis()));
             } catch (Exception ignored) {
                 // Best-effort state persistence on shutdown.
             }
@@ -74,15 +305,62 @@ public final class RunCommand implements Runnable {
 
         try {
             runnerServer.start();
+            diskUsageCollector.start();
+            if (recorder != null) {
+                recorder.start();
+                System.out.printf("Recording metrics to %s%n", recorder.file());
+            }
+            if (spikeRecorder != null) {
+                spikeRecorder.start();
+            }
+            if (sharedMetricsPublisher != null) {
+                sharedMetricsPublisher.start();
+                System.out.printf("Publishing shared metrics to %s%n", sharedMetricsPublisher.file());
+            }
+            if (expirationReaper != null) {
+                expirationReaper.start();
+            }
+            if (warmer != null) {
+                System.out.printf("Pre-warming front cache with %,d hot keys%n", warmer.hotSetKeys());
+                warmer.start();
+            }
             engine.start();
+            scrubber.start();
 
+            boolean warmupAnnounced = false;
             long nextConsolePrint = System.currentTimeMillis();
+            long nextHotSetSave = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(hotSetSaveSeconds);
             while (!shutdownRequested.get()) {
                 RuntimeMetricsSnapshot snapshot = engine.snapshotAndResetWindow();
+                long snapshotMillis = System.currentTimeMillis();
+                history.record(snapshot, snapshotMillis);
+                if (recorder != null) {
+                    recorder.record(snapshot, snapshotMillis);
+                }
+                if (spikeRecorder != null) {
+                    spikeRecorder.onSnapshot(snapshot, snapshotMillis);
+                }
+                if (sharedMetricsPublisher != null) {
+                    sharedMetricsPublisher.onSnapshot(snapshot);
+                }
                 runnerServer.updateSnapshot(snapshot);
+                backupManager.onSnapshot(snapshot);
+                DiskUsageSnapshot diskUsage = diskUsageCollector.snapshot(snapshot.logicalBytesWritten());
+                runnerServer.updateDiskUsage(diskUsage);
+                WarmupReport warmupReport = warmupReport(state, warmer, steadyStateDetector.warmupMillis());
+                runnerServer.updateWarmup(warmupReport);
+                if (snapshot.steadyState().reached() && !warmupAnnounced) {
+                    printer.printWarmup(warmupReport, snapshot.steadyState());
+                    warmupAnnounced = true;
+                }
+                if (hotKeys != null && snapshotMillis >= nextHotSetSave) {
+                    hotSetStore.save(directory, hotKeys.topKeys());
+                    hotKeys.decay();
+                    nextHotSetSave = snapshotMillis + TimeUnit.SECONDS.toMillis(hotSetSaveSeconds);
+                }
 
                 if (System.currentTimeMillis() >= nextConsolePrint) {
-                    printer.print(snapshot);
+                    printer.print(snapshot, diskUsage, backupManager.status());
                     nextConsolePrint = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
                 }
                 Thread.sleep(1000L);
@@ -90,17 +368,72 @@ public final class RunCommand implements Runnable {
         } catch (Exception e) {
             throw new RuntimeException("Runner failed", e);
         } finally {
+            gcPauseTracker.uninstall();
+            diskUsageCollector.stop();
+            backupManager.stop();
+            scrubber.stop();
             engine.stop();
+            if (expirationReaper != null) {
+                expirationReaper.stop();
+            }
             runnerServer.stop();
+            if (recorder != null) {
+                recorder.stop();
+            }
+            if (spikeRecorder != null) {
+                spikeRecorder.stop();
+            }
+            if (sharedMetricsPublisher != null) {
+                sharedMetricsPublisher.stop();
+            }
+            if (warmer != null) {
+                warmer.stop();
+            }
             try {
-                stateStore.save(directory, new RunnerState(store.size(), store.nextKey()));
+                if (hotKeys != null) {
+                    hotSetStore.save(directory, hotKeys.topKeys());
+                }
+                stateStore.save(directory, nextState(store, state, warmer != null, steadyStateDetector.warmupMillis()));
             } catch (Exception ignored) {
                 // Ignore on final shutdown path.
             }
         }
     }
 
-    private void seedRecoveredData(InMemoryStore store, long recoveredKeys) {
+    /**
+     * Records this run's time to steady state under its start mode and keeps
+     * the last measurement of the other mode.
+     */
+    private static RunnerState nextState(ShardedStore store, RunnerState previous, boolean prewarmed, long steadyAfterMillis) {
+        long warm = previous.warmSteadyStateMillis();
+        long cold = previous.coldSteadyStateMillis();
+        if (steadyAfterMillis >= 0L && prewarmed) {
+            warm = Math.max(1L, steadyAfterMillis);
+        } else if (steadyAfterMillis >= 0L) {
+            cold = Math.max(1L, steadyAfterMillis);
+        }
+        return new RunnerState(store.size(), store.nextKey(), warm, cold);
+    }
+
+    private static WarmupReport warmupReport(RunnerState previous, HotSetWarmer warmer, long steadyAfterMillis) {
+        long warm = previous.warmSteadyStateMillis() > 0L ? previous.warmSteadyStateMillis() : -1L;
+        long cold = previous.coldSteadyStateMillis() > 0L ? previous.coldSteadyStateMillis() : -1L;
+        if (steadyAfterMillis >= 0L && warmer != null) {
+            warm = steadyAfterMillis;
+        } else if (steadyAfterMillis >= 0L) {
+            cold = steadyAfterMillis;
+        }
+        return new WarmupReport(
+                warmer != null,
+                warmer == null ? 0 : warmer.hotSetKeys(),
+                warmer == null ? 0L : warmer.warmedKeys(),
+                warmer == null ? 0L : warmer.durationMillis(),
+                steadyAfterMillis,
+                warm,
+                cold);
+    }
+
+    private void seedRecoveredData(ShardedStore store, long recoveredKeys) {
         long toSeed = Math.min(10_000L, recoveredKeys);
         for (long key = 0; key < toSeed; key++) {
             store.seed(key, new ValueRecord(1L, System.currentTimeMillis(), new byte[256]));
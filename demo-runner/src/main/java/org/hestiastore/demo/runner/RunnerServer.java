@@ -2,8 +2,10 @@ package org.hestiastore.demo.runner;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
@@ -15,34 +17,79 @@ import org.hestiastore.management.api.ActionStatus;
 import org.hestiastore.management.api.ActionType;
 import org.hestiastore.management.api.MetricsResponse;
 import org.hestiastore.management.api.NodeStateResponse;
+import org.hestiastore.demo.core.MaintenanceEvent;
+import org.hestiastore.demo.core.OperationCost;
+import org.hestiastore.demo.core.OperationType;
 import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+import org.hestiastore.demo.core.ShardStatistics;
+import org.hestiastore.demo.core.SlowOperationSampler;
+import org.hestiastore.demo.core.ValueSizeClassStatistics;
+import org.hestiastore.demo.core.ValueSizeHistogram;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 public final class RunnerServer {
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final long STREAM_KEEPALIVE_MILLIS = 15_000L;
+    private static final byte[] STREAM_KEEPALIVE = ": keepalive\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] WARMING_UP_BODY = "{\"status\":\"warming_up\"}".getBytes(StandardCharsets.UTF_8);
+
     private final int port;
     private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final MetricsHistory history;
+    private final SlowOperationSampler slowOperationSampler;
+    private final BackupManager backupManager;
 
     private final PrometheusMeterRegistry meterRegistry;
+    private final SnapshotStreamBroadcaster streamBroadcaster = new SnapshotStreamBroadcaster(120, 16);
     private final AtomicLong opsPerSecond = new AtomicLong();
     private final AtomicLong gtePerSecond = new AtomicLong();
     private final AtomicLong putPerSecond = new AtomicLong();
+    private final AtomicLong updatePerSecond = new AtomicLong();
     private final AtomicLong deletePerSecond = new AtomicLong();
     private final AtomicLong keyCount = new AtomicLong();
 
-    private RuntimeMetricsSnapshot latestSnapshot;
+    private volatile RuntimeMetricsSnapshot latestSnapshot;
+    private volatile DiskUsageSnapshot latestDiskUsage;
+    private volatile WarmupReport latestWarmup;
+    private volatile CachedResponseBody nodeDetailBody;
+    private volatile CachedResponseBody nodeConfigBody;
+    private long snapshotSequence;
     private HttpServer httpServer;
+    private ExecutorService httpExecutor;
 
-    public RunnerServer(int port, ObjectMapper objectMapper) {
+    public RunnerServer(
+            int port,
+            ObjectMapper objectMapper,
+            boolean gzipEnabled,
+            MetricsHistory history,
+            SlowOperationSampler slowOperationSampler,
+            int shardCount,
+            BackupManager backupManager
+    ) {
         this.port = port;
         this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.history = history;
+        this.slowOperationSampler = slowOperationSampler;
+        this.backupManager = backupManager;
         this.meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
 
         new JvmMemoryMetrics().bindTo(meterRegistry);
@@ -52,63 +99,460 @@ public final class RunnerServer {
         Gauge.builder("hestia_demo_ops_per_sec", opsPerSecond, AtomicLong::doubleValue).register(meterRegistry);
         Gauge.builder("hestia_demo_gte_per_sec", gtePerSecond, AtomicLong::doubleValue).register(meterRegistry);
         Gauge.builder("hestia_demo_put_per_sec", putPerSecond, AtomicLong::doubleValue).register(meterRegistry);
+        Gauge.builder("hestia_demo_update_per_sec", updatePerSecond, AtomicLong::doubleValue).register(meterRegistry);
         Gauge.builder("hestia_demo_delete_per_sec", deletePerSecond, AtomicLong::doubleValue).register(meterRegistry);
         Gauge.builder("hestia_demo_key_count", keyCount, AtomicLong::doubleValue).register(meterRegistry);
+
+        Gauge.builder("hestia_demo_stream_subscribers", streamBroadcaster, SnapshotStreamBroadcaster::subscriberCount)
+                .register(meterRegistry);
+        Gauge.builder("hestia_demo_stream_dropped_subscribers", streamBroadcaster, SnapshotStreamBroadcaster::droppedSubscribers)
+                .register(meterRegistry);
+        Gauge.builder("hestia_demo_history_memory_bytes", history, MetricsHistory::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        for (OperationType type : OperationType.values()) {
+            Gauge.builder("hestia_demo_op_allocated_bytes", this, server -> operationCost(server, type).allocatedBytesPerOp())
+                    .description("Sampled heap bytes allocated per operation")
+                    .tag("operation", type.name())
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("hestia_demo_op_cpu_micros", this, server -> operationCost(server, type).cpuMicrosPerOp())
+                    .description("Sampled thread CPU time per operation")
+                    .tag("operation", type.name())
+                    .register(meterRegistry);
+        }
+        for (DiskFileCategory category : DiskFileCategory.values()) {
+            Gauge.builder("hestia_demo_disk_bytes", this, server -> diskValue(server, disk -> disk.bytesByCategory().get(category)))
+                    .description("Data directory size by file category")
+                    .tag("category", category.name())
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+        for (int sizeClass = 0; sizeClass < ValueSizeHistogram.CLASSES; sizeClass++) {
+            int index = sizeClass;
+            String label = ValueSizeHistogram.label(index);
+            Gauge.builder("hestia_demo_value_size_written_values", this, server -> valueSize(server, index).writtenValues())
+                    .description("Values written since start, by power-of-two size class")
+                    .tag("size_class", label)
+                    .register(meterRegistry);
+            Gauge.builder("hestia_demo_value_size_ops_per_sec", this, server -> valueSize(server, index).opsPerSecond())
+                    .tag("size_class", label)
+                    .register(meterRegistry);
+            Gauge.builder("hestia_demo_value_size_p99_latency_ms", this, server -> valueSize(server, index).p99LatencyMs())
+                    .description("Window p99 of operations that read or wrote a value of this size class")
+                    .tag("size_class", label)
+                    .register(meterRegistry);
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            int index = shard;
+            Gauge.builder("hestia_demo_shard_ops_per_sec", this, server -> shardStatistics(server, index).opsPerSecond())
+                    .description("Operations served by one store shard in the last window")
+                    .tag("shard", Integer.toString(index))
+                    .register(meterRegistry);
+            Gauge.builder("hestia_demo_shard_key_count", this, server -> shardStatistics(server, index).keyCount())
+                    .tag("shard", Integer.toString(index))
+                    .register(meterRegistry);
+        }
+        snapshotGauge("hestia_demo_shard_skew", RuntimeMetricsSnapshot::shardSkew);
+        snapshotGauge("hestia_demo_front_cache_hit_ratio", snapshot -> snapshot.frontCache().hitRatio());
+        snapshotGauge("hestia_demo_front_cache_evictions_per_sec", snapshot -> snapshot.frontCache().evictionsPerSecond());
+        snapshotGauge("hestia_demo_front_cache_entries", snapshot -> snapshot.frontCache().entries());
+        snapshotGauge("hestia_demo_front_cache_memory_bytes", snapshot -> snapshot.frontCache().memoryBytes());
+        snapshotGauge("hestia_demo_ttl_scheduled", snapshot -> snapshot.expiration().scheduled());
+        snapshotGauge("hestia_demo_ttl_pending", snapshot -> snapshot.expiration().pending());
+        snapshotGauge("hestia_demo_ttl_expired_per_sec", snapshot -> snapshot.expiration().expiredPerSecond());
+        snapshotGauge("hestia_demo_ttl_expired_reads_per_sec", snapshot -> snapshot.expiration().expiredReadsPerSecond());
+        snapshotGauge("hestia_demo_ttl_reclaim_lag_max_ms", snapshot -> snapshot.expiration().maxReclaimLagMillis());
+        snapshotGauge("hestia_demo_steady_state_reached", snapshot -> snapshot.steadyState().reached() ? 1.0d : 0.0d);
+        snapshotGauge("hestia_demo_steady_state_warmup_seconds", snapshot -> snapshot.steadyState().warmupMillis() / 1000.0d);
+        snapshotGauge("hestia_demo_steady_state_ops_per_sec", snapshot -> snapshot.steadyState().steadyOpsPerSecond());
+        snapshotGauge("hestia_demo_steady_state_p50_latency_ms", snapshot -> snapshot.steadyState().steadyP50LatencyMs());
+        snapshotGauge("hestia_demo_steady_state_p99_latency_ms", snapshot -> snapshot.steadyState().steadyP99LatencyMs());
+        snapshotGauge("hestia_demo_lifetime_ops_per_sec", snapshot -> snapshot.steadyState().lifetimeOpsPerSecond());
+        snapshotGauge("hestia_demo_lifetime_p99_latency_ms", snapshot -> snapshot.steadyState().lifetimeP99LatencyMs());
+        snapshotGauge("hestia_demo_ops_variation", snapshot -> snapshot.steadyState().opsCoefficientOfVariation());
+        snapshotGauge("hestia_demo_p99_variation", snapshot -> snapshot.steadyState().p99CoefficientOfVariation());
+        warmupGauge("hestia_demo_prewarm_keys", WarmupReport::warmedKeys);
+        warmupGauge("hestia_demo_prewarm_millis", WarmupReport::warmMillis);
+        Gauge.builder("hestia_demo_time_to_steady_state_seconds", this,
+                        server -> warmupValue(server, warmup -> warmup.warmSteadyStateMillis() / 1000.0d))
+                .description("Time from workload start to steady state, latest measurement per start mode")
+                .tag("start", "warm")
+                .register(meterRegistry);
+        Gauge.builder("hestia_demo_time_to_steady_state_seconds", this,
+                        server -> warmupValue(server, warmup -> warmup.coldSteadyStateMillis() / 1000.0d))
+                .description("Time from workload start to steady state, latest measurement per start mode")
+                .tag("start", "cold")
+                .register(meterRegistry);
+        backupGauge("hestia_demo_backup_running", backup -> backup.running() ? 1.0d : 0.0d);
+        backupGauge("hestia_demo_backup_progress_percent", BackupStatus::progressPercent);
+        backupGauge("hestia_demo_backup_bytes_per_sec", BackupStatus::bytesPerSecond);
+        backupGauge("hestia_demo_backup_rate_limit_bytes_per_sec", BackupStatus::rateLimitBytesPerSecond);
+        backupGauge("hestia_demo_backup_preserved_records", BackupStatus::preservedRecords);
+        backupGauge("hestia_demo_backup_foreground_impact_percent", BackupStatus::throughputImpactPercent);
+        diskGauge("hestia_demo_disk_files", disk -> disk.files());
+        diskGauge("hestia_demo_io_read_bytes_per_sec", disk -> disk.readBytesPerSecond());
+        diskGauge("hestia_demo_io_write_bytes_per_sec", disk -> disk.writeBytesPerSecond());
+        diskGauge("hestia_demo_io_read_syscalls_per_sec", disk -> disk.readSyscallsPerSecond());
+        diskGauge("hestia_demo_io_write_syscalls_per_sec", disk -> disk.writeSyscallsPerSecond());
+        diskGauge("hestia_demo_diagnostic_write_ratio", DiskUsageSnapshot::diagnosticWriteRatio);
+        snapshotGauge("hestia_demo_logical_bytes_written", RuntimeMetricsSnapshot::logicalBytesWritten);
+        snapshotGauge("hestia_demo_logical_bytes_read", RuntimeMetricsSnapshot::logicalBytesRead);
+        snapshotGauge("hestia_demo_read_bytes_per_sec", RuntimeMetricsSnapshot::readBytesPerSecond);
+        snapshotGauge("hestia_demo_write_bytes_per_sec", RuntimeMetricsSnapshot::writeBytesPerSecond);
+        snapshotGauge("hestia_demo_slow_op_max_latency_micros", snapshot -> snapshot.slowOperations().isEmpty()
+                ? 0.0d
+                : snapshot.slowOperations().get(0).latencyMicros());
+        snapshotGauge("hestia_demo_store_resident_bytes", RuntimeMetricsSnapshot::storeResidentBytes);
+        snapshotGauge("hestia_demo_store_payload_bytes", RuntimeMetricsSnapshot::storePayloadBytes);
+        snapshotGauge("hestia_demo_store_overhead_bytes", RuntimeMetricsSnapshot::storeOverheadBytes);
+        snapshotGauge("hestia_demo_store_bytes_per_key", RuntimeMetricsSnapshot::storeBytesPerKey);
+        snapshotGauge("hestia_demo_store_payload_ratio", RuntimeMetricsSnapshot::storePayloadRatio);
+        snapshotGauge("hestia_demo_store_accounting_drift_percent", RuntimeMetricsSnapshot::storeAccountingDriftPercent);
+        snapshotGauge("hestia_demo_gte_hit_ratio", RuntimeMetricsSnapshot::gteHitRatio);
+        snapshotGauge("hestia_demo_gte_hit_target", RuntimeMetricsSnapshot::gteHitTarget);
+        snapshotGauge("hestia_demo_live_key_index_bytes", RuntimeMetricsSnapshot::liveKeyIndexBytes);
+        snapshotGauge("hestia_demo_update_conflicts", RuntimeMetricsSnapshot::updateConflicts);
+        snapshotGauge("hestia_demo_update_retries", RuntimeMetricsSnapshot::updateRetries);
+        snapshotGauge("hestia_demo_update_abandoned", RuntimeMetricsSnapshot::updateAbandoned);
+        snapshotGauge("hestia_demo_update_misses", RuntimeMetricsSnapshot::updateMisses);
+        snapshotGauge("hestia_demo_compression_ratio", RuntimeMetricsSnapshot::compressionRatio);
+        snapshotGauge("hestia_demo_compression_bytes_saved", RuntimeMetricsSnapshot::compressionBytesSaved);
+        snapshotGauge("hestia_demo_compressed_values", RuntimeMetricsSnapshot::compressedValues);
+        snapshotGauge("hestia_demo_uncompressed_values", RuntimeMetricsSnapshot::uncompressedValues);
+        snapshotGauge("hestia_demo_compress_cpu_millis", RuntimeMetricsSnapshot::compressCpuMillis);
+        snapshotGauge("hestia_demo_decompress_cpu_millis", RuntimeMetricsSnapshot::decompressCpuMillis);
+        snapshotGauge("hestia_demo_integrity_verified_records", RuntimeMetricsSnapshot::verifiedRecords);
+        snapshotGauge("hestia_demo_integrity_verified_bytes", RuntimeMetricsSnapshot::verifiedBytes);
+        snapshotGauge("hestia_demo_integrity_verifications_per_sec", RuntimeMetricsSnapshot::verificationsPerSecond);
+        snapshotGauge("hestia_demo_integrity_verified_bytes_per_sec", RuntimeMetricsSnapshot::verifiedBytesPerSecond);
+        snapshotGauge("hestia_demo_integrity_failures", RuntimeMetricsSnapshot::integrityFailures);
+        snapshotGauge("hestia_demo_integrity_scrub_passes", RuntimeMetricsSnapshot::scrubPasses);
+        snapshotGauge("hestia_demo_integrity_scrub_progress_percent", RuntimeMetricsSnapshot::scrubProgressPercent);
+    }
+
+    private void snapshotGauge(String name, ToDoubleFunction<RuntimeMetricsSnapshot> value) {
+        Gauge.builder(name, this, server -> {
+            RuntimeMetricsSnapshot snapshot = server.latestSnapshot;
+            return snapshot == null ? 0.0d : value.applyAsDouble(snapshot);
+        }).register(meterRegistry);
+    }
+
+    private void diskGauge(String name, ToDoubleFunction<DiskUsageSnapshot> value) {
+        Gauge.builder(name, this, server -> diskValue(server, value::applyAsDouble)).register(meterRegistry);
+    }
+
+    private static double diskValue(RunnerServer server, Function<DiskUsageSnapshot, Number> value) {
+        DiskUsageSnapshot disk = server.latestDiskUsage;
+        Number number = disk == null ? null : value.apply(disk);
+        return number == null ? 0.0d : number.doubleValue();
+    }
+
+    public void updateDiskUsage(DiskUsageSnapshot diskUsage) {
+        latestDiskUsage = diskUsage;
+    }
+
+    private void warmupGauge(String name, ToDoubleFunction<WarmupReport> value) {
+        Gauge.builder(name, this, server -> warmupValue(server, value)).register(meterRegistry);
+    }
+
+    private static double warmupValue(RunnerServer server, ToDoubleFunction<WarmupReport> value) {
+        WarmupReport warmup = server.latestWarmup;
+        return warmup == null ? 0.0d : value.applyAsDouble(warmup);
+    }
+
+    private void backupGauge(String name, ToDoubleFunction<BackupStatus> value) {
+        Gauge.builder(name, backupManager, manager -> {
+            BackupStatus status = manager.status();
+            return status == null ? 0.0d : value.applyAsDouble(status);
+        }).register(meterRegistry);
+    }
+
+    public void updateWarmup(WarmupReport warmup) {
+        latestWarmup = warmup;
+    }
+
+    private static OperationCost operationCost(RunnerServer server, OperationType type) {
+        RuntimeMetricsSnapshot snapshot = server.latestSnapshot;
+        OperationCost cost = snapshot == null ? null : snapshot.operationCosts().get(type);
+        return cost == null ? new OperationCost(0L, 0.0d, 0.0d) : cost;
+    }
+
+    private static ValueSizeClassStatistics valueSize(RunnerServer server, int sizeClass) {
+        RuntimeMetricsSnapshot snapshot = server.latestSnapshot;
+        if (snapshot == null || sizeClass >= snapshot.valueSizes().size()) {
+            return new ValueSizeClassStatistics(ValueSizeHistogram.label(sizeClass), 0L, 0L, 0L, 0.0d, 0L, 0.0d, 0.0d, 0.0d);
+        }
+        return snapshot.valueSizes().get(sizeClass);
+    }
+
+    private static ShardStatistics shardStatistics(RunnerServer server, int shard) {
+        RuntimeMetricsSnapshot snapshot = server.latestSnapshot;
+        if (snapshot == null || shard >= snapshot.shardStatistics().size()) {
+            return new ShardStatistics(shard, 0L, 0L, 0.0d);
+        }
+        return snapshot.shardStatistics().get(shard);
     }
 
     public void start() throws IOException {
         httpServer = HttpServer.create(new InetSocketAddress(port), 0);
-        httpServer.createContext("/metrics", this::handleMetrics);
-        httpServer.createContext("/node/detail", this::handleNodeDetail);
-        httpServer.createContext("/node/config", this::handleNodeConfig);
-        httpServer.createContext("/api/v1/state", this::handleApiState);
-        httpServer.createContext("/api/v1/metrics", this::handleApiMetrics);
-        httpServer.createContext("/api/v1/actions/flush", exchange -> handleAction(exchange, ActionType.FLUSH));
-        httpServer.createContext("/api/v1/actions/compact", exchange -> handleAction(exchange, ActionType.COMPACT));
+        httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.setExecutor(httpExecutor);
+        createContext("/metrics", this::handleMetrics);
+        createContext("/node/detail", this::handleNodeDetail);
+        createContext("/node/config", this::handleNodeConfig);
+        createContext("/api/v1/state", this::handleApiState);
+        createContext("/api/v1/metrics", this::handleApiMetrics);
+        // SSE connections stay open for minutes and would swamp the endpoint latency timer.
+        httpServer.createContext("/api/v1/stream", this::handleStream);
+        createContext("/api/v1/history", this::handleHistory);
+        createContext("/api/v1/slow-ops", this::handleSlowOperations);
+        createContext("/api/v1/actions/flush", exchange -> handleAction(exchange, ActionType.FLUSH));
+        createContext("/api/v1/actions/compact", exchange -> handleAction(exchange, ActionType.COMPACT));
+        createContext("/api/v1/actions/backup", this::handleBackupAction);
+        createContext("/api/v1/backup", this::handleBackupStatus);
         httpServer.start();
     }
 
     public void stop() {
+        streamBroadcaster.closeAll();
         if (httpServer != null) {
             httpServer.stop(0);
         }
+        if (httpExecutor != null) {
+            httpExecutor.shutdownNow();
+            try {
+                httpExecutor.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
+    /**
+     * Registers a handler together with a latency timer for the endpoint itself.
+     */
+    private void createContext(String path, HttpHandler handler) {
+        Timer timer = Timer.builder("hestia_demo_http_request")
+                .description("Runner HTTP endpoint latency")
+                .tag("endpoint", path)
+                .publishPercentiles(0.5d, 0.95d, 0.99d)
+                .register(meterRegistry);
+        httpServer.createContext(path, exchange -> {
+            long startNanos = System.nanoTime();
+            try {
+                handler.handle(exchange);
+            } finally {
+                timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Serializes the snapshot once; every request until the next update is
+     * served from the cached bytes.
+     */
     public void updateSnapshot(RuntimeMetricsSnapshot snapshot) {
+        long sequence = ++snapshotSequence;
+        try {
+            byte[] detail = objectMapper.writeValueAsBytes(snapshot);
+            nodeDetailBody = CachedResponseBody.of(detail, sequence, gzipEnabled);
+            streamBroadcaster.publish(sequence, detail);
+            if (nodeConfigBody == null) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("schemaVersion", "1.0.0");
+                payload.put("values", snapshot.nodeConfig());
+                payload.put("descriptions", NodeConfigMetadata.descriptions());
+                nodeConfigBody = CachedResponseBody.of(objectMapper.writeValueAsBytes(payload), sequence, gzipEnabled);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize metrics snapshot", e);
+        }
         latestSnapshot = snapshot;
         opsPerSecond.set(snapshot.opsPerSecond());
         gtePerSecond.set(snapshot.gtePerSecond());
         putPerSecond.set(snapshot.putPerSecond());
+        updatePerSecond.set(snapshot.updatePerSecond());
         deletePerSecond.set(snapshot.deletePerSecond());
         keyCount.set(snapshot.keyCount());
     }
 
+    /**
+     * Streams the exposition text straight into the chunked response body
+     * instead of building it as a String first.
+     */
     private void handleMetrics(HttpExchange exchange) throws IOException {
-        byte[] body = meterRegistry.scrape().getBytes(StandardCharsets.UTF_8);
-        writeResponse(exchange, 200, "text/plain; charset=utf-8", body);
+        boolean gzip = acceptsGzip(exchange);
+        exchange.getResponseHeaders().set("Content-Type", PROMETHEUS_CONTENT_TYPE);
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = gzip ? new GZIPOutputStream(exchange.getResponseBody()) : exchange.getResponseBody()) {
+            meterRegistry.scrape(body);
+        } finally {
+            exchange.close();
+        }
     }
 
-    private void handleNodeDetail(HttpExchange exchange) throws IOException {
-        if (latestSnapshot == null) {
-            writeResponse(exchange, 503, "application/json", "{\"status\":\"warming_up\"}".getBytes(StandardCharsets.UTF_8));
+    /**
+     * Server-Sent Events stream of every snapshot. Runs for the lifetime of the
+     * connection on its own virtual thread; the client is dropped if it falls
+     * more than the per-client buffer behind.
+     */
+    private void handleStream(HttpExchange exchange) throws IOException {
+        SnapshotStreamSubscriber subscriber = streamBroadcaster.subscribe();
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+
+            long lastSentId = 0L;
+            String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            if (lastEventId != null) {
+                List<SnapshotStreamEvent> replay = streamBroadcaster.replayAfter(parseEventId(lastEventId));
+                for (SnapshotStreamEvent event : replay) {
+                    writeStreamEvent(body, event);
+                    lastSentId = event.id();
+                }
+                body.flush();
+            }
+
+            while (!subscriber.isClosed()) {
+                SnapshotStreamEvent event = subscriber.next(STREAM_KEEPALIVE_MILLIS);
+                if (event == null) {
+                    body.write(STREAM_KEEPALIVE);
+                } else if (event.id() > lastSentId) {
+                    writeStreamEvent(body, event);
+                    lastSentId = event.id();
+                }
+                body.flush();
+            }
+        } catch (IOException e) {
+            // Client disconnected.
+        } finally {
+            streamBroadcaster.unsubscribe(subscriber);
+            exchange.close();
+        }
+    }
+
+    private void writeStreamEvent(OutputStream body, SnapshotStreamEvent event) throws IOException {
+        body.write(("id: " + event.id() + "\nevent: snapshot\ndata: ").getBytes(StandardCharsets.UTF_8));
+        body.write(event.data());
+        body.write('\n');
+        body.write('\n');
+    }
+
+    private long parseEventId(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Backfill for charts: {@code from}/{@code to} are epoch millis (default
+     * the last hour), {@code step} is in seconds (default: tier resolution).
+     */
+    private void handleHistory(HttpExchange exchange) throws IOException {
+        Map<String, String> query = queryParameters(exchange);
+        long now = System.currentTimeMillis();
+        Map<String, Object> response;
+        try {
+            long to = query.containsKey("to") ? Long.parseLong(query.get("to")) : now;
+            long from = query.containsKey("from") ? Long.parseLong(query.get("from")) : to - TimeUnit.HOURS.toMillis(1);
+            int step = query.containsKey("step") ? Integer.parseInt(query.get("step")) : 0;
+            if (from > to) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+            response = history.query(from, to, step, now);
+        } catch (IllegalArgumentException e) {
+            writeResponse(exchange, 400, "application/json", "{\"code\":\"BAD_REQUEST\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        if (acceptsGzip(exchange)) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(body);
+            } finally {
+                exchange.close();
+            }
             return;
         }
-        byte[] body = objectMapper.writeValueAsBytes(latestSnapshot);
         writeResponse(exchange, 200, "application/json", body);
     }
 
+    private void handleSlowOperations(HttpExchange exchange) throws IOException {
+        RuntimeMetricsSnapshot snapshot = latestSnapshot;
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("window", snapshot == null ? List.of() : snapshot.slowOperations());
+        payload.put("sinceStart", slowOperationSampler.slowestSinceStart());
+        writeResponse(exchange, 200, "application/json", objectMapper.writeValueAsBytes(payload));
+    }
+
+    private Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null || rawQuery.isBlank()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parameters.put(
+                        URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private void handleNodeDetail(HttpExchange exchange) throws IOException {
+        writeCachedResponse(exchange, nodeDetailBody);
+    }
+
     private void handleNodeConfig(HttpExchange exchange) throws IOException {
-        if (latestSnapshot == null) {
-            writeResponse(exchange, 503, "application/json", "{\"status\":\"warming_up\"}".getBytes(StandardCharsets.UTF_8));
+        writeCachedResponse(exchange, nodeConfigBody);
+    }
+
+    private void writeCachedResponse(HttpExchange exchange, CachedResponseBody body) throws IOException {
+        if (body == null) {
+            writeResponse(exchange, 503, "application/json", WARMING_UP_BODY);
             return;
         }
 
-        Map<String, Object> payload = new LinkedHashMap<>();
-        payload.put("schemaVersion", "1.0.0");
-        payload.put("values", latestSnapshot.nodeConfig());
-        payload.put("descriptions", NodeConfigMetadata.descriptions());
-        byte[] body = objectMapper.writeValueAsBytes(payload);
-        writeResponse(exchange, 200, "application/json", body);
+        boolean gzip = body.gzip() != null && acceptsGzip(exchange);
+        String etag = gzip ? body.gzipEtag() : body.etag();
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            writeResponse(exchange, 200, "application/json", body.gzip());
+            return;
+        }
+        writeResponse(exchange, 200, "application/json", body.identity());
+    }
+
+    private boolean acceptsGzip(HttpExchange exchange) {
+        if (!gzipEnabled) {
+            return false;
+        }
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
     }
 
     private void handleApiState(HttpExchange exchange) throws IOException {
@@ -142,6 +586,8 @@ public final class RunnerServer {
             return;
         }
 
+        MaintenanceEvent event = new MaintenanceEvent();
+        event.begin();
         ActionRequest actionRequest;
         try {
             actionRequest = objectMapper.readValue(exchange.getRequestBody(), ActionRequest.class);
@@ -156,10 +602,48 @@ public final class RunnerServer {
                 "Completed in demo mode.",
                 Instant.now()
         );
+        if (event.shouldCommit()) {
+            event.action = actionType.name();
+            event.outcome = ActionStatus.COMPLETED.name();
+            event.commit();
+        }
         byte[] body = objectMapper.writeValueAsBytes(response);
         writeResponse(exchange, 200, "application/json", body);
     }
 
+    /**
+     * Starts an online backup into {@code <dir>/backups/<name>} for
+     * {@code ?name=<name>}, by default a new generated directory there, and
+     * answers with its status; poll {@code /api/v1/backup} for progress.
+     */
+    private void handleBackupAction(HttpExchange exchange) throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            writeResponse(exchange, 405, "application/json", "{\"code\":\"METHOD_NOT_ALLOWED\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String name = queryParameters(exchange).get("name");
+        BackupStatus status;
+        try {
+            status = backupManager.start(name == null || name.isBlank() ? null : name);
+        } catch (IllegalStateException e) {
+            writeResponse(exchange, 409, "application/json", "{\"code\":\"BACKUP_RUNNING\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        } catch (IllegalArgumentException | IOException e) {
+            writeResponse(exchange, 400, "application/json", "{\"code\":\"BAD_REQUEST\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        writeResponse(exchange, 202, "application/json", objectMapper.writeValueAsBytes(status));
+    }
+
+    private void handleBackupStatus(HttpExchange exchange) throws IOException {
+        BackupStatus status = backupManager.status();
+        if (status == null) {
+            writeResponse(exchange, 404, "application/json", "{\"code\":\"NO_BACKUP\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        writeResponse(exchange, 200, "application/json", objectMapper.writeValueAsBytes(status));
+    }
+
     private String indexName() {
         if (latestSnapshot != null) {
             Object value = latestSnapshot.nodeConfig().get("indexName");
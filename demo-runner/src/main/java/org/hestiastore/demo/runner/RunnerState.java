@@ -1,4 +1,8 @@
 package org.hestiastore.demo.runner;
 
-public record RunnerState(long recoveredKeys, long nextKey) {
+/**
+ * @param warmSteadyStateMillis time to steady p99 of the latest pre-warmed start, 0 if none
+ * @param coldSteadyStateMillis time to steady p99 of the latest cold start, 0 if none
+ */
+public record RunnerState(long recoveredKeys, long nextKey, long warmSteadyStateMillis, long coldSteadyStateMillis) {
 }
@@ -7,7 +7,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 public final class RunnerStateStore {
-    private static final String STATE_FILE_NAME = "runner-state.json";
+    static final String STATE_FILE_NAME = "runner-state.json";
 
     private final ObjectMapper objectMapper;
 
@@ -18,13 +18,13 @@ public final class RunnerStateStore {
     public RunnerState load(Path directory) {
         Path file = directory.resolve(STATE_FILE_NAME);
         if (!Files.exists(file)) {
-            return new RunnerState(0L, 0L);
+            return new RunnerState(0L, 0L, 0L, 0L);
         }
 
         try {
             return objectMapper.readValue(file.toFile(), RunnerState.class);
         } catch (IOException e) {
-            return new RunnerState(0L, 0L);
+            return new RunnerState(0L, 0L, 0L, 0L);
         }
     }
 
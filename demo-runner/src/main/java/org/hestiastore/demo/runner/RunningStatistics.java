@@ -0,0 +1,45 @@
+package org.hestiastore.demo.runner;
+
+/**
+ * Welford's online mean and variance; constant memory for any sample count.
+ */
+final class RunningStatistics {
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = count == 1L ? value : Math.min(min, value);
+        max = count == 1L ? value : Math.max(max, value);
+    }
+
+    long count() {
+        return count;
+    }
+
+    double mean() {
+        return count == 0L ? 0.0d : mean;
+    }
+
+    double standardDeviation() {
+        return count < 2L ? 0.0d : Math.sqrt(m2 / (count - 1L));
+    }
+
+    double coefficientOfVariation() {
+        return mean == 0.0d ? 0.0d : standardDeviation() / Math.abs(mean);
+    }
+
+    double min() {
+        return count == 0L ? 0.0d : min;
+    }
+
+    double max() {
+        return count == 0L ? 0.0d : max;
+    }
+}
@@ -0,0 +1,119 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.DemoMetrics;
+import org.hestiastore.demo.core.OperationType;
+import org.hestiastore.demo.core.RuntimeMetricsSnapshot;
+import org.hestiastore.demo.core.SharedMetric;
+import org.hestiastore.demo.core.SharedMetricsRegion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer of the {@link SharedMetricsRegion} in the data directory. A
+ * daemon thread refreshes the live operation totals every interval; window
+ * values and the latency histogram are copied from the latest snapshot. Local
+ * readers such as {@code demo top} poll the file without touching the HTTP
+ * server or the workload threads.
+ */
+public final class SharedMetricsPublisher {
+    private final Path file;
+    private final DemoMetrics metrics;
+    private final long intervalMillis;
+    private final long[] values = new long[SharedMetric.values().length];
+
+    private volatile RuntimeMetricsSnapshot latest;
+    private volatile boolean running;
+    private SharedMetricsRegion region;
+    private Thread thread;
+    private RuntimeMetricsSnapshot published;
+    private long windows;
+
+    public SharedMetricsPublisher(Path directory, DemoMetrics metrics, long intervalMillis) {
+        if (intervalMillis <= 0L) {
+            throw new IllegalArgumentException("Shared metrics interval must be positive");
+        }
+        this.file = directory.resolve(SharedMetricsRegion.FILE_NAME);
+        this.metrics = metrics;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(file.getParent());
+        region = SharedMetricsRegion.create(file, ProcessHandle.current().pid(), System.currentTimeMillis());
+        running = true;
+        thread = new Thread(this::publishLoop, "shared-metrics-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            if (region != null) {
+                region.close();
+            }
+        } catch (IOException ignored) {
+            // The mapping stays valid until collected; nothing to recover.
+        }
+    }
+
+    public void onSnapshot(RuntimeMetricsSnapshot snapshot) {
+        latest = snapshot;
+    }
+
+    private void publishLoop() {
+        while (running) {
+            publish();
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void publish() {
+        RuntimeMetricsSnapshot snapshot = latest;
+        long[] histogram = null;
+        if (snapshot != null && snapshot != published) {
+            published = snapshot;
+            windows++;
+            histogram = snapshot.latencyHistogram();
+            SharedMetric.UPTIME_SECONDS.put(values, snapshot.uptimeSeconds());
+            SharedMetric.WINDOW_SEQUENCE.put(values, windows);
+            SharedMetric.OPS_PER_SECOND.put(values, snapshot.opsPerSecond());
+            SharedMetric.KEY_COUNT.put(values, snapshot.keyCount());
+            SharedMetric.INTEGRITY_FAILURES.put(values, snapshot.integrityFailures());
+            SharedMetric.UPDATE_CONFLICTS.put(values, snapshot.updateConflicts());
+            SharedMetric.STORE_RESIDENT_BYTES.put(values, snapshot.storeResidentBytes());
+            SharedMetric.AVG_LATENCY_MS.put(values, snapshot.avgLatencyMs());
+            SharedMetric.P50_LATENCY_MS.put(values, snapshot.p50LatencyMs());
+            SharedMetric.P95_LATENCY_MS.put(values, snapshot.p95LatencyMs());
+            SharedMetric.P99_LATENCY_MS.put(values, snapshot.p99LatencyMs());
+            SharedMetric.GTE_HIT_RATIO.put(values, snapshot.gteHitRatio());
+            SharedMetric.STORE_BYTES_PER_KEY.put(values, snapshot.storeBytesPerKey());
+        }
+        SharedMetric.TOTAL_OPS.put(values, metrics.totalOps());
+        SharedMetric.TOTAL_GTE.put(values, metrics.totalOps(OperationType.GTE));
+        SharedMetric.TOTAL_PUT.put(values, metrics.totalOps(OperationType.PUT));
+        SharedMetric.TOTAL_UPDATE.put(values, metrics.totalOps(OperationType.UPDATE));
+        SharedMetric.TOTAL_DELETE.put(values, metrics.totalOps(OperationType.DELETE));
+        region.write(values, histogram, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,86 @@
+package org.hestiastore.demo.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fans each serialized snapshot out to all stream subscribers exactly once.
+ * Publishing iterates an immutable subscriber array and only enqueues, so a
+ * slow client costs the publisher nothing but its own eviction. The last
+ * events are kept in a ring buffer for {@code Last-Event-ID} resume.
+ */
+public final class SnapshotStreamBroadcaster {
+    private final int subscriberBufferSize;
+    private final AtomicReferenceArray<SnapshotStreamEvent> replayRing;
+    private final List<SnapshotStreamSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    private volatile long lastEventId;
+
+    public SnapshotStreamBroadcaster(int replaySize, int subscriberBufferSize) {
+        this.replayRing = new AtomicReferenceArray<>(replaySize);
+        this.subscriberBufferSize = subscriberBufferSize;
+    }
+
+    public void publish(long id, byte[] data) {
+        SnapshotStreamEvent event = new SnapshotStreamEvent(id, data);
+        replayRing.set((int) (id % replayRing.length()), event);
+        lastEventId = id;
+        for (SnapshotStreamSubscriber subscriber : subscribers) {
+            if (!subscriber.offer(event)) {
+                unsubscribe(subscriber);
+            }
+        }
+    }
+
+    public SnapshotStreamSubscriber subscribe() {
+        SnapshotStreamSubscriber subscriber = new SnapshotStreamSubscriber(subscriberBufferSize, Thread.currentThread());
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    public void unsubscribe(SnapshotStreamSubscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscriber.isClosed()) {
+            droppedSubscribers.incrementAndGet();
+        }
+        subscriber.close();
+    }
+
+    /**
+     * Returns retained events newer than {@code afterId}, oldest first. An id
+     * from the future (e.g. a previous runner process) replays nothing.
+     */
+    public List<SnapshotStreamEvent> replayAfter(long afterId) {
+        List<SnapshotStreamEvent> events = new ArrayList<>();
+        long last = lastEventId;
+        if (afterId >= last) {
+            return events;
+        }
+        long first = Math.max(afterId + 1L, last - replayRing.length() + 1L);
+        for (long id = Math.max(1L, first); id <= last; id++) {
+            SnapshotStreamEvent event = replayRing.get((int) (id % replayRing.length()));
+            if (event != null && event.id() == id) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public long droppedSubscribers() {
+        return droppedSubscribers.get();
+    }
+
+    public void closeAll() {
+        for (SnapshotStreamSubscriber subscriber : subscribers) {
+            subscribers.remove(subscriber);
+            subscriber.close();
+        }
+    }
+}
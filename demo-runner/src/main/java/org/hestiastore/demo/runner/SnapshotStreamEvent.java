@@ -0,0 +1,4 @@
+package org.hestiastore.demo.runner;
+
+public record SnapshotStreamEvent(long id, byte[] data) {
+}
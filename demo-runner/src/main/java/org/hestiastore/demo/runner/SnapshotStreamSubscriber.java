@@ -0,0 +1,71 @@
+package org.hestiastore.demo.runner;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, single-consumer event buffer for one stream client. The publisher
+ * never blocks: when the buffer is full the subscriber is marked dropped and
+ * its handler closes the connection.
+ */
+public final class SnapshotStreamSubscriber {
+    private final int capacity;
+    private final Thread consumer;
+    private final ConcurrentLinkedQueue<SnapshotStreamEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public SnapshotStreamSubscriber(int capacity, Thread consumer) {
+        this.capacity = capacity;
+        this.consumer = consumer;
+    }
+
+    /**
+     * @return false if the subscriber fell behind and was dropped
+     */
+    public boolean offer(SnapshotStreamEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (size.incrementAndGet() > capacity) {
+            close();
+            return false;
+        }
+        events.offer(event);
+        LockSupport.unpark(consumer);
+        return true;
+    }
+
+    /**
+     * Waits up to {@code timeoutMillis} for the next event; returns null on
+     * timeout or when the subscriber was closed.
+     */
+    public SnapshotStreamEvent next(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!closed) {
+            SnapshotStreamEvent event = events.poll();
+            if (event != null) {
+                size.decrementAndGet();
+                return event;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return null;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return null;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+    }
+}
@@ -0,0 +1,34 @@
+package org.hestiastore.demo.runner;
+
+/**
+ * Pearson correlation accumulated one pair at a time.
+ */
+final class StreamingCorrelation {
+    private long count;
+    private double meanX;
+    private double meanY;
+    private double m2X;
+    private double m2Y;
+    private double coMoment;
+
+    void add(double x, double y) {
+        count++;
+        double deltaX = x - meanX;
+        double deltaY = y - meanY;
+        meanX += deltaX / count;
+        meanY += deltaY / count;
+        m2X += deltaX * (x - meanX);
+        m2Y += deltaY * (y - meanY);
+        coMoment += deltaX * (y - meanY);
+    }
+
+    /**
+     * Returns the coefficient in [-1, 1], or 0 when either side is constant.
+     */
+    double coefficient() {
+        if (count < 2L || m2X == 0.0d || m2Y == 0.0d) {
+            return 0.0d;
+        }
+        return coMoment / Math.sqrt(m2X * m2Y);
+    }
+}
@@ -0,0 +1,23 @@
+package org.hestiastore.demo.runner;
+
+/**
+ * Restart warm-up outcome: how much of the persisted hot set was pre-warmed
+ * and how long the run took to reach steady state, next to the last measured
+ * time of the other start mode so warm and cold restarts can be compared.
+ *
+ * @param warmedKeys hot keys loaded into the front cache, 0 on a cold start
+ * @param warmMillis time the pre-warm took, -1 while it is still running
+ * @param steadyStateMillis time from workload start to steady state, -1 until reached
+ * @param warmSteadyStateMillis latest warm-start measurement, -1 if none
+ * @param coldSteadyStateMillis latest cold-start measurement, -1 if none
+ */
+public record WarmupReport(
+        boolean prewarmed,
+        int hotSetKeys,
+        long warmedKeys,
+        long warmMillis,
+        long steadyStateMillis,
+        long warmSteadyStateMillis,
+        long coldSteadyStateMillis
+) {
+}
@@ -0,0 +1,51 @@
+package org.hestiastore.demo.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.ShardedStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BackupManagerTest {
+    private static final Path BACKUPS = Path.of("/data/backups");
+
+    @Test
+    void resolvesPlainNameInsideBackupsDirectory() {
+        assertEquals(BACKUPS.resolve("nightly-2024.01_a"), BackupManager.resolveTarget(BACKUPS, "nightly-2024.01_a"));
+    }
+
+    @Test
+    void rejectsAbsolutePath() {
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, "/etc/cron.d"));
+    }
+
+    @Test
+    void rejectsParentSegments() {
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, ".."));
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, "../state"));
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, "a..b"));
+    }
+
+    @Test
+    void rejectsNestedPathsAndEmptyNames() {
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, "a/b"));
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, "a\\b"));
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, ""));
+        assertThrows(IllegalArgumentException.class, () -> BackupManager.resolveTarget(BACKUPS, ".hidden"));
+    }
+
+    @Test
+    void rejectsForegroundImpactOutsideTheOpenUnitIntervalAtConstruction() {
+        ShardedStore store = new ShardedStore(1, 0L);
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackupManager(store, objectMapper, BACKUPS, 1024L, 0.0d));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackupManager(store, objectMapper, BACKUPS, 1024L, 1.5d));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackupManager(store, objectMapper, BACKUPS, 0L, 0.2d));
+    }
+}
@@ -0,0 +1,56 @@
+package org.hestiastore.demo.runner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BackupRateLimiterTest {
+    private static final long MAX = 64L * 1024L * 1024L;
+
+    private BackupRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new BackupRateLimiter(MAX, 0.1d);
+    }
+
+    @Test
+    void halvesOnImpactAndRecoversAdditively() {
+        limiter.adjust(1000.0d, 800.0d);
+        assertEquals(MAX / 2L, limiter.bytesPerSecond());
+        limiter.adjust(1000.0d, 800.0d);
+        assertEquals(MAX / 4L, limiter.bytesPerSecond());
+
+        limiter.adjust(1000.0d, 950.0d);
+        assertEquals(MAX / 4L + MAX / 16L, limiter.bytesPerSecond());
+        limiter.adjust(1000.0d, 950.0d);
+        assertEquals(MAX / 4L + 2L * MAX / 16L, limiter.bytesPerSecond());
+        for (int i = 0; i < 32; i++) {
+            limiter.adjust(1000.0d, 950.0d);
+        }
+        assertEquals(MAX, limiter.bytesPerSecond());
+    }
+
+    @Test
+    void neverDropsBelowTheFloor() {
+        for (int i = 0; i < 64; i++) {
+            limiter.adjust(1000.0d, 0.0d);
+        }
+        assertEquals(256L * 1024L, limiter.bytesPerSecond());
+    }
+
+    @Test
+    void ignoresWindowsWithoutBaseline() {
+        limiter.adjust(0.0d, 0.0d);
+        assertEquals(MAX, limiter.bytesPerSecond());
+    }
+
+    @Test
+    void rejectsImpactOutsideTheOpenUnitInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new BackupRateLimiter(MAX, 0.0d));
+        assertThrows(IllegalArgumentException.class, () -> new BackupRateLimiter(MAX, 1.0d));
+        assertThrows(IllegalArgumentException.class, () -> new BackupRateLimiter(0L, 0.5d));
+    }
+}
@@ -0,0 +1,123 @@
+package org.hestiastore.demo.runner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hestiastore.demo.core.ShardedStore;
+import org.hestiastore.demo.core.StoreSnapshot;
+import org.hestiastore.demo.core.ValueRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackupReaderTest {
+    private static final int RECORDS = 2500;
+    private static final int SHARDS = 2;
+
+    @TempDir
+    private Path directory;
+
+    private ObjectMapper objectMapper;
+    private ShardedStore source;
+    private BackupReader reader;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        source = new ShardedStore(SHARDS, RECORDS);
+        reader = new BackupReader(objectMapper);
+        Random random = new Random(7L);
+        for (long key = 0L; key < RECORDS; key++) {
+            byte[] payload = new byte[4096];
+            random.nextBytes(payload);
+            ValueRecord record = new ValueRecord(key + 1L, key, payload);
+            source.put(key, key % 10L == 0L ? record.withExpiry(1_000_000L + key) : record);
+        }
+    }
+
+    @Test
+    void restoresEveryRecordAcrossChunks() throws IOException {
+        BackupManifest manifest = writeBackup();
+        assertTrue(manifest.chunks().size() > 1, "chunks " + manifest.chunks().size());
+
+        BackupManifest read = reader.manifest(directory);
+        assertEquals(manifest, read);
+        ShardedStore target = new ShardedStore(SHARDS, read.nextKey());
+        assertEquals(RECORDS, reader.load(directory, read, target, 3));
+
+        for (long key = 0L; key < RECORDS; key++) {
+            ValueRecord expected = source.get(key);
+            ValueRecord restored = target.get(key);
+            assertEquals(expected.version(), restored.version());
+            assertEquals(expected.timestamp(), restored.timestamp());
+            assertEquals(expected.expiresAtMillis(), restored.expiresAtMillis());
+            assertArrayEquals(expected.payload(), restored.payload());
+        }
+    }
+
+    @Test
+    void rejectsAChunkWithAFlippedByte() throws IOException {
+        BackupManifest manifest = writeBackup();
+        Path chunk = directory.resolve(manifest.chunks().get(0).file());
+        byte[] bytes = Files.readAllBytes(chunk);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(chunk, bytes);
+
+        assertThrows(IOException.class,
+                () -> reader.load(directory, manifest, new ShardedStore(SHARDS, RECORDS), 2));
+    }
+
+    @Test
+    void rejectsAChunkRewrittenAsValidGzip() throws IOException {
+        BackupManifest manifest = writeBackup();
+        Path chunk = directory.resolve(manifest.chunks().get(1).file());
+        byte[] raw;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(chunk)))) {
+            raw = in.readAllBytes();
+        }
+        raw[raw.length - 1] ^= 0x01;
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(rewritten)) {
+            out.write(raw);
+        }
+        Files.write(chunk, rewritten.toByteArray());
+
+        IOException error = assertThrows(IOException.class,
+                () -> reader.load(directory, manifest, new ShardedStore(SHARDS, RECORDS), 2));
+        assertTrue(error.getMessage().contains("does not match the manifest"), error.getMessage());
+    }
+
+    @Test
+    void rejectsABackupWithoutManifest() {
+        assertThrows(IOException.class, () -> reader.manifest(directory));
+    }
+
+    private BackupManifest writeBackup() throws IOException {
+        BackupChunkWriter writer = new BackupChunkWriter(directory, new BackupRateLimiter(1L << 40, 0.5d));
+        List<BackupManifest.BackupChunk> chunks;
+        long takenAtMillis;
+        try (StoreSnapshot snapshot = source.openSnapshot()) {
+            snapshot.export(writer::append);
+            chunks = writer.finish();
+            takenAtMillis = snapshot.takenAtMillis();
+        }
+        BackupManifest manifest = new BackupManifest(
+                BackupManifest.FORMAT_VERSION, takenAtMillis, takenAtMillis, SHARDS, source.nextKey(),
+                writer.records(), writer.rawBytes(), writer.compressedBytes(), chunks);
+        objectMapper.writeValue(directory.resolve(BackupManifest.FILE_NAME).toFile(), manifest);
+        return manifest;
+    }
+}
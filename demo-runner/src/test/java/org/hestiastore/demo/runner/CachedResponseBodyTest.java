@@ -0,0 +1,40 @@
+package org.hestiastore.demo.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedResponseBodyTest {
+    private static final byte[] BODY = "{\"ops\":1}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void gzipVariantHasItsOwnStrongEtag() throws IOException {
+        CachedResponseBody body = CachedResponseBody.of(BODY, 7L, true);
+        assertTrue(body.etag().startsWith("\"") && body.etag().endsWith("-7\""), body.etag());
+        assertEquals(body.etag().substring(0, body.etag().length() - 1) + "-gzip\"", body.gzipEtag());
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertArrayEquals(BODY, input.readAllBytes());
+        }
+    }
+
+    @Test
+    void etagChangesWithTheSequence() {
+        assertNotEquals(CachedResponseBody.of(BODY, 1L, false).etag(), CachedResponseBody.of(BODY, 2L, false).etag());
+    }
+
+    @Test
+    void identityOnlyBodyHasNoGzipVariant() {
+        CachedResponseBody body = CachedResponseBody.of(BODY, 1L, false);
+        assertNull(body.gzip());
+        assertNull(body.gzipEtag());
+    }
+}
@@ -0,0 +1,32 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.SharedMetricsRegion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DiskFileCategoryTest {
+    @Test
+    void topLevelStateFilesAreState() {
+        assertEquals(DiskFileCategory.STATE, DiskFileCategory.of(Path.of(RunnerStateStore.STATE_FILE_NAME)));
+        assertEquals(DiskFileCategory.STATE, DiskFileCategory.of(Path.of(SharedMetricsRegion.FILE_NAME)));
+        assertEquals(DiskFileCategory.STATE, DiskFileCategory.of(Path.of(HotSetStore.FILE_NAME)));
+        assertEquals(DiskFileCategory.STATE, DiskFileCategory.of(Path.of(HotSetStore.FILE_NAME + ".tmp")));
+    }
+
+    @Test
+    void directoriesMapToTheirCategory() {
+        assertEquals(DiskFileCategory.METRICS_LOG, DiskFileCategory.of(Path.of("metrics", "metrics-1.bin")));
+        assertEquals(DiskFileCategory.JFR, DiskFileCategory.of(Path.of("jfr", "spike-1.jfr")));
+        assertEquals(DiskFileCategory.BACKUP, DiskFileCategory.of(Path.of("backups", "b-1", "chunk-0.gz")));
+    }
+
+    @Test
+    void everythingElseIsData() {
+        assertEquals(DiskFileCategory.DATA, DiskFileCategory.of(Path.of("segments", "0001.dat")));
+        assertEquals(DiskFileCategory.DATA, DiskFileCategory.of(Path.of("nested", RunnerStateStore.STATE_FILE_NAME)));
+        assertEquals(DiskFileCategory.DATA, DiskFileCategory.of(Path.of("")));
+    }
+}
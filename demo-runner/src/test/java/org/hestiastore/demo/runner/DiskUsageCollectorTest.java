@@ -0,0 +1,78 @@
+package org.hestiastore.demo.runner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DiskUsageCollectorTest {
+    @TempDir
+    private Path directory;
+
+    private DiskUsageCollector collector;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(directory.resolve("metrics"));
+        Files.write(directory.resolve("metrics").resolve("metrics-1.bin"), new byte[300]);
+        collector = new DiskUsageCollector(directory);
+        collector.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        collector.stop();
+    }
+
+    @Test
+    void startCountsExistingFiles() {
+        DiskUsageSnapshot snapshot = collector.snapshot(0L);
+
+        assertEquals(300L, snapshot.totalBytes());
+        assertEquals(1L, snapshot.files());
+        assertEquals(300L, snapshot.bytesByCategory().get(DiskFileCategory.METRICS_LOG));
+    }
+
+    @Test
+    void refreshAppliesSizeDeltasOnCreateGrowAndDelete() throws IOException {
+        Path segment = directory.resolve("segment-1.dat");
+        Files.write(segment, new byte[100]);
+        collector.refresh(segment);
+        assertEquals(100L, collector.snapshot(0L).bytesByCategory().get(DiskFileCategory.DATA));
+
+        Files.write(segment, new byte[250]);
+        collector.refresh(segment);
+        collector.refresh(segment);
+        DiskUsageSnapshot grown = collector.snapshot(0L);
+        assertEquals(250L, grown.bytesByCategory().get(DiskFileCategory.DATA));
+        assertEquals(550L, grown.totalBytes());
+        assertEquals(2L, grown.files());
+
+        Files.delete(segment);
+        collector.refresh(segment);
+        DiskUsageSnapshot deleted = collector.snapshot(0L);
+        assertEquals(0L, deleted.bytesByCategory().get(DiskFileCategory.DATA));
+        assertEquals(300L, deleted.totalBytes());
+        assertEquals(1L, deleted.files());
+    }
+
+    @Test
+    void refreshOfAnUnknownMissingPathChangesNothing() {
+        collector.refresh(directory.resolve("missing.bin"));
+
+        assertEquals(300L, collector.snapshot(0L).totalBytes());
+        assertEquals(1L, collector.snapshot(0L).files());
+    }
+
+    @Test
+    void diagnosticWriteRatioIsZeroWithoutLogicalWrites() {
+        assertEquals(0.0d, collector.snapshot(0L).diagnosticWriteRatio());
+        assertEquals(0.0d, collector.snapshot(0L).diagnosticWriteRatio());
+    }
+}
@@ -0,0 +1,96 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.DemoConfiguration;
+import org.hestiastore.demo.core.DemoMetrics;
+import org.hestiastore.demo.core.OperationType;
+import org.hestiastore.demo.core.SteadyStateDetector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsHistoryTest {
+    private static final long NOW = 1_700_000_000_000L;
+
+    private MetricsHistory history;
+    private DemoMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        history = new MetricsHistory();
+        metrics = new DemoMetrics(
+                DemoConfiguration.defaults(1, 1_000L, 0.6d, 0.15d, 0.15d, 0.1d, 0.9d),
+                new SteadyStateDetector(10, 0.1d, 0.2d));
+    }
+
+    @Test
+    void recentRangeUsesTheOneSecondTier() {
+        record(NOW - 2_000L, 3);
+        record(NOW - 1_000L, 5);
+
+        Map<String, Object> response = history.query(NOW - 600_000L, NOW, 0, NOW);
+
+        assertEquals(1, response.get("resolutionSeconds"));
+        assertEquals(1, response.get("step"));
+        List<Map<String, Object>> points = points(response);
+        assertEquals(2, points.size());
+        assertEquals(5.0d, series(points.get(1), "opsPerSecond").get("max"));
+    }
+
+    @Test
+    void tierFollowsTheAgeOfTheRange() {
+        assertEquals(10, history.query(NOW - 2 * 3_600_000L, NOW, 0, NOW).get("resolutionSeconds"));
+        assertEquals(60, history.query(NOW - 10 * 3_600_000L, NOW, 0, NOW).get("resolutionSeconds"));
+        assertEquals(60, history.query(NOW - 48 * 3_600_000L, NOW, 0, NOW).get("resolutionSeconds"));
+    }
+
+    @Test
+    void coarserStepPicksTheCoarsestCoveringTier() {
+        assertEquals(60, history.query(NOW - 600_000L, NOW, 60, NOW).get("resolutionSeconds"));
+        assertEquals(10, history.query(NOW - 600_000L, NOW, 30, NOW).get("resolutionSeconds"));
+    }
+
+    @Test
+    void stepIsRoundedUpToAMultipleOfTheTierStep() {
+        Map<String, Object> response = history.query(NOW - 2 * 3_600_000L, NOW, 15, NOW);
+
+        assertEquals(10, response.get("resolutionSeconds"));
+        assertEquals(20, response.get("step"));
+    }
+
+    @Test
+    void pointsFoldIntoTheRequestedStep() {
+        long minute = NOW - Math.floorMod(NOW, 60_000L) - 60_000L;
+        record(minute, 2);
+        record(minute + 10_000L, 4);
+        record(minute + 20_000L, 6);
+
+        Map<String, Object> response = history.query(minute, minute + 59_000L, 60, NOW);
+
+        List<Map<String, Object>> points = points(response);
+        assertEquals(1, points.size());
+        assertEquals(minute, points.get(0).get("timestamp"));
+        assertEquals(3, points.get(0).get("samples"));
+        assertEquals(4.0d, series(points.get(0), "opsPerSecond").get("avg"));
+    }
+
+    private void record(long epochMillis, int operations) {
+        for (int i = 0; i < operations; i++) {
+            metrics.record(OperationType.GTE, 100L, true, true);
+        }
+        history.record(metrics.snapshotAndResetWindow(), epochMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> points(Map<String, Object> response) {
+        return (List<Map<String, Object>>) response.get("points");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> series(Map<String, Object> point, String name) {
+        return (Map<String, Object>) point.get(name);
+    }
+}
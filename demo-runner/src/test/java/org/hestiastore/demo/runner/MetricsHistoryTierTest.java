@@ -0,0 +1,98 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsHistoryTierTest {
+    private static final int OPS = HistorySeries.OPS_PER_SECOND.ordinal();
+
+    private MetricsHistoryTier tier;
+
+    @BeforeEach
+    void setUp() {
+        tier = new MetricsHistoryTier(10, 3);
+    }
+
+    @Test
+    void bucketsAggregateSamplesWithinTheirStep() {
+        add(20L, 4.0d);
+        add(25L, 8.0d);
+        add(29L, 6.0d);
+
+        List<MetricsHistoryTier.HistoryPoint> points = query(0L, 100L, 10);
+        assertEquals(1, points.size());
+        MetricsHistoryTier.HistoryPoint point = points.get(0);
+        assertEquals(20L, point.startSecond);
+        assertEquals(3, point.samples);
+        assertEquals(4.0d, point.min[OPS]);
+        assertEquals(8.0d, point.max[OPS]);
+        assertEquals(18.0d, point.sum[OPS]);
+        assertEquals(3L, LatencyHistogram.count(point.histogram));
+    }
+
+    @Test
+    void ringWrapsAtCapacityAndDropsTheOldestBucket() {
+        for (long second = 0L; second <= 30L; second += 10L) {
+            add(second, second);
+        }
+
+        assertEquals(List.of(10L, 20L, 30L), starts(query(0L, 100L, 10)));
+    }
+
+    @Test
+    void outOfOrderSamplesOlderThanTheHeadAreDropped() {
+        add(30L, 1.0d);
+        add(15L, 100.0d);
+
+        List<MetricsHistoryTier.HistoryPoint> points = query(0L, 100L, 10);
+        assertEquals(List.of(30L), starts(points));
+        assertEquals(1, points.get(0).samples);
+        assertEquals(1.0d, points.get(0).max[OPS]);
+    }
+
+    @Test
+    void queryFoldsBucketsIntoCoarserSteps() {
+        add(10L, 1.0d);
+        add(20L, 2.0d);
+        add(30L, 3.0d);
+
+        List<MetricsHistoryTier.HistoryPoint> points = query(0L, 100L, 20);
+        assertEquals(List.of(0L, 20L), starts(points));
+        assertEquals(2, points.get(1).samples);
+        assertEquals(2.0d, points.get(1).min[OPS]);
+        assertEquals(3.0d, points.get(1).max[OPS]);
+    }
+
+    @Test
+    void queryHonoursTheTimeRange() {
+        add(10L, 1.0d);
+        add(20L, 2.0d);
+        add(30L, 3.0d);
+
+        assertEquals(List.of(20L), starts(query(20L, 29L, 10)));
+    }
+
+    private void add(long epochSecond, double ops) {
+        double[] values = new double[HistorySeries.values().length];
+        values[OPS] = ops;
+        long[] histogram = new long[LatencyHistogram.BUCKETS];
+        histogram[0] = 1L;
+        tier.add(epochSecond, values, histogram);
+    }
+
+    private List<MetricsHistoryTier.HistoryPoint> query(long fromSecond, long toSecond, int stepSeconds) {
+        List<MetricsHistoryTier.HistoryPoint> points = new ArrayList<>();
+        tier.query(fromSecond, toSecond, stepSeconds, points::add);
+        return points;
+    }
+
+    private static List<Long> starts(List<MetricsHistoryTier.HistoryPoint> points) {
+        return points.stream().map(point -> point.startSecond).toList();
+    }
+}
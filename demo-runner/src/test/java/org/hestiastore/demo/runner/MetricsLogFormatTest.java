@@ -0,0 +1,132 @@
+package org.hestiastore.demo.runner;
+
+import org.hestiastore.demo.core.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetricsLogFormatTest {
+    private static final long[] VALUES = {
+            0L, 1L, 63L, 64L, 127L, 128L, 300L, 16_383L, 16_384L,
+            Integer.MAX_VALUE, Long.MAX_VALUE, -1L, Long.MIN_VALUE
+    };
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void unsignedVarintRoundTripsWithLeb128Lengths() throws IOException {
+        for (long value : VALUES) {
+            byte[] encoded = unsigned(value);
+            assertEquals(value, MetricsLogFormat.readVarLong(new ByteArrayInputStream(encoded)), "value " + value);
+        }
+        assertEquals(1, unsigned(127L).length);
+        assertEquals(2, unsigned(128L).length);
+        assertEquals(3, unsigned(16_384L).length);
+        assertEquals(10, unsigned(-1L).length);
+        assertArrayEquals(new byte[] {(byte) 0xAC, 0x02}, unsigned(300L));
+    }
+
+    @Test
+    void zigzagKeepsSmallNegativeDeltasShort() throws IOException {
+        for (long value : VALUES) {
+            assertEquals(value, MetricsLogFormat.readSignedVarLong(new ByteArrayInputStream(signed(value))), "value " + value);
+            assertEquals(-value, MetricsLogFormat.readSignedVarLong(new ByteArrayInputStream(signed(-value))), "value " + -value);
+        }
+        assertArrayEquals(new byte[] {0x01}, signed(-1L));
+        assertArrayEquals(new byte[] {0x02}, signed(1L));
+        assertEquals(1, signed(-64L).length);
+        assertEquals(2, signed(64L).length);
+    }
+
+    @Test
+    void truncatedOrOverlongVarintIsRejected() {
+        assertThrows(EOFException.class, () -> MetricsLogFormat.readVarLong(new ByteArrayInputStream(new byte[] {(byte) 0x80})));
+        byte[] overlong = new byte[10];
+        Arrays.fill(overlong, (byte) 0x80);
+        IOException error = assertThrows(IOException.class,
+                () -> MetricsLogFormat.readVarLong(new ByteArrayInputStream(overlong)));
+        assertEquals("Malformed varint", error.getMessage());
+    }
+
+    @Test
+    void readerTreatsATruncatedTrailingRecordAsEndOfLog() throws IOException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        log.write(MetricsLogFormat.MAGIC);
+        log.write(MetricsLogFormat.VERSION);
+        MetricsLogFormat.writeVarLong(log, LatencyHistogram.BUCKETS);
+        writeRecord(log, 1_000L, 50L);
+        writeRecord(log, 1_000L, -20L);
+        byte[] complete = log.toByteArray();
+        writeRecord(log, 1_000L, 5L);
+        byte[] withTail = Arrays.copyOf(log.toByteArray(), complete.length + 4);
+
+        Path file = directory.resolve("metrics-1.bin");
+        Files.write(file, withTail);
+        try (MetricsLogReader reader = new MetricsLogReader(file)) {
+            assertEquals(50L, reader.next().keyCount());
+            MetricsLogRecord second = reader.next();
+            assertEquals(2_000L, second.timestampMillis());
+            assertEquals(30L, second.keyCount());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readerTreatsAnImpossibleRecordLengthAsEndOfLog() throws IOException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        log.write(MetricsLogFormat.MAGIC);
+        log.write(MetricsLogFormat.VERSION);
+        MetricsLogFormat.writeVarLong(log, LatencyHistogram.BUCKETS);
+        writeRecord(log, 1_000L, 50L);
+        MetricsLogFormat.writeVarLong(log, MetricsLogFormat.MAX_RECORD_BYTES + 1L);
+        log.write(new byte[MetricsLogFormat.MAX_RECORD_BYTES + 1]);
+
+        Path file = directory.resolve("metrics-2.bin");
+        Files.write(file, log.toByteArray());
+        try (MetricsLogReader reader = new MetricsLogReader(file)) {
+            assertEquals(50L, reader.next().keyCount());
+            assertNull(reader.next());
+        }
+    }
+
+    private static void writeRecord(ByteArrayOutputStream log, long timestampDelta, long keyDelta) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        MetricsLogFormat.writeSignedVarLong(payload, timestampDelta);
+        for (int i = 0; i < 5; i++) {
+            MetricsLogFormat.writeVarLong(payload, 100L);
+        }
+        MetricsLogFormat.writeSignedVarLong(payload, keyDelta);
+        MetricsLogFormat.writeVarLong(payload, 250L);
+        MetricsLogFormat.writeSignedVarLong(payload, 0L);
+        MetricsLogFormat.writeSignedVarLong(payload, 0L);
+        MetricsLogFormat.writeVarLong(payload, 1L << 20);
+        MetricsLogFormat.writeVarLong(payload, 0L);
+        MetricsLogFormat.writeVarLong(log, payload.size());
+        payload.writeTo(log);
+    }
+
+    private static byte[] unsigned(long value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetricsLogFormat.writeVarLong(out, value);
+        return out.toByteArray();
+    }
+
+    private static byte[] signed(long value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetricsLogFormat.writeSignedVarLong(out, value);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package org.hestiastore.demo.runner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotStreamBroadcasterTest {
+    private SnapshotStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SnapshotStreamBroadcaster(4, 2);
+    }
+
+    @Test
+    void everySubscriberReceivesEachEventOnce() {
+        SnapshotStreamSubscriber first = broadcaster.subscribe();
+        SnapshotStreamSubscriber second = broadcaster.subscribe();
+
+        broadcaster.publish(1L, new byte[] {1});
+        broadcaster.publish(2L, new byte[] {2});
+
+        for (SnapshotStreamSubscriber subscriber : List.of(first, second)) {
+            assertEquals(1L, subscriber.next(0L).id());
+            assertEquals(2L, subscriber.next(0L).id());
+            assertNull(subscriber.next(0L));
+        }
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDroppedAndCounted() {
+        SnapshotStreamSubscriber slow = broadcaster.subscribe();
+        SnapshotStreamSubscriber fast = broadcaster.subscribe();
+
+        for (long id = 1L; id <= 3L; id++) {
+            broadcaster.publish(id, new byte[0]);
+            fast.next(0L);
+        }
+
+        assertTrue(slow.isClosed());
+        assertNull(slow.next(0L));
+        assertFalse(fast.isClosed());
+        assertEquals(1, broadcaster.subscriberCount());
+        assertEquals(1L, broadcaster.droppedSubscribers());
+    }
+
+    @Test
+    void clientDisconnectIsNotCountedAsDropped() {
+        SnapshotStreamSubscriber subscriber = broadcaster.subscribe();
+
+        broadcaster.unsubscribe(subscriber);
+
+        assertTrue(subscriber.isClosed());
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(0L, broadcaster.droppedSubscribers());
+    }
+
+    @Test
+    void replayReturnsRetainedEventsAfterTheGivenId() {
+        for (long id = 1L; id <= 6L; id++) {
+            broadcaster.publish(id, new byte[0]);
+        }
+
+        assertEquals(List.of(5L, 6L), ids(broadcaster.replayAfter(4L)));
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(broadcaster.replayAfter(0L)));
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(broadcaster.replayAfter(1L)));
+    }
+
+    @Test
+    void replayOfTheLatestOrAFutureIdIsEmpty() {
+        for (long id = 1L; id <= 3L; id++) {
+            broadcaster.publish(id, new byte[0]);
+        }
+
+        assertTrue(broadcaster.replayAfter(3L).isEmpty());
+        assertTrue(broadcaster.replayAfter(1_000L).isEmpty());
+    }
+
+    private static List<Long> ids(List<SnapshotStreamEvent> events) {
+        return events.stream().map(SnapshotStreamEvent::id).toList();
+    }
+}
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+REPO_DIR="$(cd "$SCRIPT_DIR/.." && pwd)"
+
+RUNNERS="${1:-${RUNNERS:-3}}"
+DATA_DIR="${DATA_DIR:-$REPO_DIR/data/cluster}"
+BASE_PORT="${BASE_PORT:-9090}"
+THREADS="${THREADS:-4}"
+TARGET_KEYS="${TARGET_KEYS:-10000000}"
+GTE_RATIO="${GTE_RATIO:-0.6}"
+PUT_RATIO="${PUT_RATIO:-0.15}"
+UPDATE_RATIO="${UPDATE_RATIO:-0.15}"
+DELETE_RATIO="${DELETE_RATIO:-0.1}"
+
+if ! [[ "$RUNNERS" =~ ^[1-9][0-9]*$ ]]; then
+  echo "Usage: $0 [RUNNERS]" >&2
+  exit 1
+fi
+
+cd "$REPO_DIR"
+
+if [[ ! -f "demo-runner/target/demo-runner-0.1.0-SNAPSHOT.jar" ]]; then
+  echo "Runner jar not found. Building project first..."
+  "$SCRIPT_DIR/build.sh"
+fi
+
+PIDS=()
+TARGETS=()
+
+stop_runners() {
+  for pid in "${PIDS[@]}"; do
+    kill "$pid" 2>/dev/null || true
+  done
+  wait
+}
+trap stop_runners EXIT INT TERM
+
+for ((i = 1; i <= RUNNERS; i++)); do
+  port=$((BASE_PORT + i - 1))
+  dir="$DATA_DIR/runner-$i"
+  mkdir -p "$dir"
+  java -jar demo-runner/target/demo-runner-0.1.0-SNAPSHOT.jar run \
+    --dir="$dir" \
+    --threads="$THREADS" \
+    --target-keys="$TARGET_KEYS" \
+    --gte-ratio="$GTE_RATIO" \
+    --put-ratio="$PUT_RATIO" \
+    --update-ratio="$UPDATE_RATIO" \
+    --delete-ratio="$DELETE_RATIO" \
+    --metrics-port="$port" \
+    >"$dir/runner.log" 2>&1 &
+  PIDS+=("$!")
+  TARGETS+=("http://localhost:$port")
+  echo "Started runner $i: pid=$! port=$port dir=$dir"
+done
+
+TARGET_LIST="$(IFS=,; echo "${TARGETS[*]}")"
+echo
+echo "Monitor all runners with:"
+echo "  TARGET=$TARGET_LIST ./scripts/start-monitor.sh"
+echo "Press Ctrl+C to stop the cluster."
+wait
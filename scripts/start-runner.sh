@@ -8,7 +8,8 @@ DATA_DIR="${DATA_DIR:-$REPO_DIR/data}"
 THREADS="${THREADS:-16}"
 TARGET_KEYS="${TARGET_KEYS:-50000000}"
 GTE_RATIO="${GTE_RATIO:-0.6}"
-PUT_RATIO="${PUT_RATIO:-0.3}"
+PUT_RATIO="${PUT_RATIO:-0.15}"
+UPDATE_RATIO="${UPDATE_RATIO:-0.15}"
 DELETE_RATIO="${DELETE_RATIO:-0.1}"
 METRICS_PORT="${METRICS_PORT:-9090}"
 
@@ -51,5 +52,6 @@ exec java -jar demo-runner/target/demo-runner-0.1.0-SNAPSHOT.jar run \
   --target-keys="$TARGET_KEYS" \
   --gte-ratio="$GTE_RATIO" \
   --put-ratio="$PUT_RATIO" \
+  --update-ratio="$UPDATE_RATIO" \
   --delete-ratio="$DELETE_RATIO" \
   --metrics-port="$METRICS_PORT"